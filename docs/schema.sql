@@ -18,15 +18,55 @@ CREATE TABLE IF NOT EXISTS minehub_servers (
     description TEXT,
     max_players INT DEFAULT 20,
     version VARCHAR(50) DEFAULT 'Unknown',
+    online_players INT NOT NULL DEFAULT 0,
+    revision BIGINT NOT NULL DEFAULT 0,
 
     -- Indexes for better performance
     INDEX idx_name (name),
     INDEX idx_owner_uuid (owner_uuid),
     INDEX idx_last_seen (last_seen),
     INDEX idx_is_online (is_online),
-    INDEX idx_created_at (created_at)
+    INDEX idx_created_at (created_at),
+    INDEX idx_revision (revision)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
 
+-- Registry revision counter, bumped by every change to minehub_servers
+CREATE TABLE IF NOT EXISTS minehub_revision (
+    id TINYINT PRIMARY KEY,
+    revision BIGINT NOT NULL
+) ENGINE=InnoDB;
+
+INSERT IGNORE INTO minehub_revision (id, revision) VALUES (1, 0);
+
+-- Deleted server names, so other proxies can apply deletions incrementally
+CREATE TABLE IF NOT EXISTS minehub_tombstones (
+    name VARCHAR(255) PRIMARY KEY,
+    revision BIGINT NOT NULL,
+    deleted_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+
+    INDEX idx_revision (revision),
+    INDEX idx_deleted_at (deleted_at)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- Probe leases: each live proxy probes its share of the servers on a consistent hash ring
+CREATE TABLE IF NOT EXISTS minehub_probe_leases (
+    proxy_id VARCHAR(64) PRIMARY KEY,
+    acquired_at TIMESTAMP(3) DEFAULT CURRENT_TIMESTAMP(3),
+    expires_at TIMESTAMP(3) NOT NULL,
+
+    INDEX idx_expires_at (expires_at)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- Upgrading an existing install (the plugin does this automatically on startup)
+-- ALTER TABLE minehub_servers ADD COLUMN revision BIGINT NOT NULL DEFAULT 0, ADD INDEX idx_revision (revision);
+-- ALTER TABLE minehub_servers ADD COLUMN online_players INT NOT NULL DEFAULT 0;
+
+-- Optional BINARY(16) owner UUIDs (database.binary-uuids: true converts automatically):
+-- ALTER TABLE minehub_servers ADD COLUMN owner_uuid_bin BINARY(16);
+-- UPDATE minehub_servers SET owner_uuid_bin = UNHEX(REPLACE(owner_uuid, '-', ''));
+-- ALTER TABLE minehub_servers DROP COLUMN owner_uuid;
+-- ALTER TABLE minehub_servers CHANGE owner_uuid_bin owner_uuid BINARY(16) NOT NULL, ADD INDEX idx_owner_uuid (owner_uuid);
+
 -- Player tracking table
 CREATE TABLE IF NOT EXISTS minehub_players (
     uuid VARCHAR(36) PRIMARY KEY,
@@ -0,0 +1,75 @@
+package net.minehub.velocity.benchmarks;
+
+import net.minehub.velocity.config.ConfigManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Config lookups, by dotted path and through the typed settings snapshot
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConfigBenchmark {
+
+    private Path directory;
+    private ConfigManager config;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        directory = Files.createTempDirectory("minehub-bench");
+        config = Fixtures.config(directory);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        Fixtures.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public String getString() {
+        return config.getString("database.host", "localhost");
+    }
+
+    @Benchmark
+    public int getInt() {
+        return config.getInt("server.ping-timeout", 5000);
+    }
+
+    @Benchmark
+    public int getIntMissing() {
+        return config.getInt("server.not-configured", 1);
+    }
+
+    @Benchmark
+    public boolean getBoolean() {
+        return config.getBoolean("sync.enabled", true);
+    }
+
+    @Benchmark
+    public int settingsInt() {
+        return config.getSettings().server().pingTimeoutMs();
+    }
+
+    @Benchmark
+    public String settingsString() {
+        return config.getSettings().database().host();
+    }
+}
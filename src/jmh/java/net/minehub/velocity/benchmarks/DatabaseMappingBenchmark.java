@@ -0,0 +1,120 @@
+package net.minehub.velocity.benchmarks;
+
+import net.minehub.velocity.config.ConfigManager;
+import net.minehub.velocity.database.DatabaseManager;
+import net.minehub.velocity.metrics.MetricsRegistry;
+import net.minehub.velocity.models.ServerChanges;
+import net.minehub.velocity.models.ServerInfo;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Server row mapping against an in-memory H2 database in MySQL mode. H2 is not MySQL, so
+ * the numbers compare mapping and projection changes with each other, not with production.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DatabaseMappingBenchmark {
+
+    private static final String CONFIG = """
+            database:
+              jdbc-url: "jdbc:h2:mem:minehub;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1"
+              username: "sa"
+              password: ""
+              pool-size: 2
+            """;
+
+    @Param({"100", "5000"})
+    public int rows;
+
+    private Path directory;
+    private DatabaseManager databaseManager;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        directory = Files.createTempDirectory("minehub-bench");
+        Files.writeString(directory.resolve("config.yml"), CONFIG);
+        ConfigManager config = new ConfigManager(directory, Fixtures.LOGGER);
+        config.loadConfig();
+
+        databaseManager = new DatabaseManager(config, Fixtures.LOGGER, new MetricsRegistry());
+        databaseManager.initialize("bench");
+        insert(Fixtures.servers(rows, Math.max(1, rows / 3)));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        try (Connection conn = databaseManager.getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("DROP ALL OBJECTS");
+        }
+        databaseManager.close();
+        Fixtures.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public List<ServerInfo> getAllServers() throws Exception {
+        return databaseManager.getAllServers();
+    }
+
+    @Benchmark
+    public ServerChanges loadServerRegistry() throws Exception {
+        return databaseManager.loadServerRegistry();
+    }
+
+    private void insert(List<ServerInfo> servers) throws Exception {
+        // Written directly: addServer relies on MySQL's LAST_INSERT_ID(expr), which H2 lacks
+        String sql = """
+            INSERT INTO minehub_servers (name, host, port, owner_uuid, owner_name, description, max_players,
+                online_players, version, is_online, created_at, last_seen, revision)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)""";
+
+        try (Connection conn = databaseManager.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql);
+             Statement revisionStmt = conn.createStatement()) {
+            long revision = 0;
+            for (ServerInfo server : servers) {
+                stmt.setString(1, server.getName());
+                stmt.setString(2, server.getHost());
+                stmt.setInt(3, server.getPort());
+                stmt.setString(4, server.getOwnerUuid().toString());
+                stmt.setString(5, server.getOwnerName());
+                stmt.setString(6, server.getDescription());
+                stmt.setInt(7, server.getMaxPlayers());
+                stmt.setInt(8, server.getOnlinePlayers());
+                stmt.setString(9, server.getVersion());
+                stmt.setBoolean(10, server.isOnline());
+                stmt.setTimestamp(11, Timestamp.valueOf(server.getCreatedAt()));
+                stmt.setTimestamp(12, Timestamp.valueOf(server.getLastSeen()));
+                stmt.setLong(13, ++revision);
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+            revisionStmt.executeUpdate("UPDATE minehub_revision SET revision = " + revision + " WHERE id = 1");
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package net.minehub.velocity.benchmarks;
+
+import com.velocitypowered.api.proxy.ProxyServer;
+import com.velocitypowered.api.proxy.server.RegisteredServer;
+import com.velocitypowered.api.proxy.server.ServerInfo;
+import net.minehub.velocity.config.ConfigManager;
+import net.minehub.velocity.database.DatabaseManager;
+import net.minehub.velocity.database.RegistrySnapshotFile;
+import net.minehub.velocity.metrics.MetricsRegistry;
+import net.minehub.velocity.services.ProbeLeaseService;
+import net.minehub.velocity.services.ServerManagementService;
+import net.minehub.velocity.tasks.PluginExecutors;
+import org.slf4j.Logger;
+import org.slf4j.helpers.NOPLogger;
+
+import java.io.IOException;
+import java.lang.reflect.Array;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Shared setup for the benchmarks: synthetic servers, a Velocity proxy stand-in and a
+ * service populated without a database.
+ */
+final class Fixtures {
+
+    static final Logger LOGGER = NOPLogger.NOP_LOGGER;
+
+    private Fixtures() {
+    }
+
+    /**
+     * @param count Number of servers
+     * @param owners Number of distinct owners the servers are spread over
+     * @return Servers named server-0 .. server-(count-1)
+     */
+    static List<net.minehub.velocity.models.ServerInfo> servers(int count, int owners) {
+        List<UUID> ownerIds = new ArrayList<>(owners);
+        for (int i = 0; i < owners; i++) {
+            ownerIds.add(new UUID(0, i));
+        }
+
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        List<net.minehub.velocity.models.ServerInfo> servers = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int owner = i % owners;
+            servers.add(new net.minehub.velocity.models.ServerInfo("server-" + i, "10.0." + (i >> 8 & 255) + "." + (i & 255),
+                    25565, ownerIds.get(owner), "player" + owner, "Benchmark server " + i, 100, i % 100,
+                    "1.20.4", i % 3 != 0, now, now));
+        }
+        return servers;
+    }
+
+    /**
+     * A {@link ProxyServer} that only records registrations; every other call returns a default
+     */
+    static ProxyServer proxyServer() {
+        return proxy(ProxyServer.class, (method, args) -> method.getName().equals("registerServer")
+                ? registeredServer((ServerInfo) args[0])
+                : null);
+    }
+
+    /**
+     * Build a service holding the given servers, loaded through the snapshot file as at boot
+     * @param directory Scratch directory for the snapshot file
+     */
+    static ServerManagementService service(Path directory, List<net.minehub.velocity.models.ServerInfo> servers,
+                                           PluginExecutors executors) throws IOException {
+        RegistrySnapshotFile snapshotFile = new RegistrySnapshotFile(directory.resolve("registry.bin"));
+        snapshotFile.write(1, servers);
+
+        ConfigManager configManager = config(directory);
+        DatabaseManager databaseManager = new DatabaseManager(configManager, LOGGER, new MetricsRegistry());
+        ProbeLeaseService probeLeases = new ProbeLeaseService(databaseManager, LOGGER, "bench", 15);
+        ServerManagementService service = new ServerManagementService(proxyServer(), databaseManager, LOGGER,
+                executors, probeLeases, snapshotFile, configManager);
+        if (!service.warmStart()) {
+            throw new IllegalStateException("Snapshot could not be loaded");
+        }
+        return service;
+    }
+
+    static PluginExecutors executors() {
+        return new PluginExecutors(LOGGER, false, 4, 10_000, 2, 10_000);
+    }
+
+    /**
+     * @return Config manager loaded from the default config in the directory
+     */
+    static ConfigManager config(Path directory) throws IOException {
+        ConfigManager configManager = new ConfigManager(directory, LOGGER);
+        configManager.loadConfig();
+        return configManager;
+    }
+
+    static void deleteRecursively(Path directory) throws IOException {
+        if (directory == null || !Files.exists(directory)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    private static RegisteredServer registeredServer(ServerInfo info) {
+        return proxy(RegisteredServer.class, (method, args) -> method.getName().equals("getServerInfo") ? info : null);
+    }
+
+    private interface Handler {
+        Object invoke(Method method, Object[] args);
+    }
+
+    private static <T> T proxy(Class<T> type, Handler handler) {
+        Object instance = Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, (self, method, args) -> {
+            switch (method.getName()) {
+                case "hashCode":
+                    return System.identityHashCode(self);
+                case "equals":
+                    return self == args[0];
+                case "toString":
+                    return type.getSimpleName() + "Stub";
+                default:
+                    Object result = handler.invoke(method, args);
+                    return result != null ? result : defaultValue(method.getReturnType());
+            }
+        });
+        return type.cast(instance);
+    }
+
+    private static Object defaultValue(Class<?> type) {
+        // Zero or false for primitives, null for everything else
+        return type.isPrimitive() && type != void.class ? Array.get(Array.newInstance(type, 1), 0) : null;
+    }
+}
@@ -0,0 +1,83 @@
+package net.minehub.velocity.benchmarks;
+
+import net.minehub.velocity.utils.ServerPingUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reachability sweeps through the shared probe engine against loopback listeners that
+ * accept and immediately close every connection
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PingBenchmark {
+
+    @Param({"16", "256"})
+    public int listeners;
+
+    private final List<ServerSocket> sockets = new ArrayList<>();
+    private final List<Thread> acceptors = new ArrayList<>();
+    private String[] addresses;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        addresses = new String[listeners];
+        for (int i = 0; i < listeners; i++) {
+            ServerSocket socket = new ServerSocket();
+            socket.bind(new InetSocketAddress("127.0.0.1", 0), 512);
+            sockets.add(socket);
+            addresses[i] = "127.0.0.1:" + socket.getLocalPort();
+
+            Thread acceptor = new Thread(() -> accept(socket), "bench-acceptor-" + i);
+            acceptor.setDaemon(true);
+            acceptor.start();
+            acceptors.add(acceptor);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        for (ServerSocket socket : sockets) {
+            socket.close();
+        }
+        ServerPingUtil.shutdown();
+    }
+
+    @Benchmark
+    public Boolean[] pingMultipleServers() {
+        return ServerPingUtil.pingMultipleServers(addresses, 1000).join();
+    }
+
+    private static void accept(ServerSocket socket) {
+        while (!socket.isClosed()) {
+            try (Socket ignored = socket.accept()) {
+                // Connecting is all a reachability probe needs
+            } catch (IOException e) {
+                return;
+            }
+        }
+    }
+}
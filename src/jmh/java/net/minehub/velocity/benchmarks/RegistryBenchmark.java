@@ -0,0 +1,93 @@
+package net.minehub.velocity.benchmarks;
+
+import net.minehub.velocity.models.ServerInfo;
+import net.minehub.velocity.services.ManagedServer;
+import net.minehub.velocity.services.ServerManagementService;
+import net.minehub.velocity.tasks.PluginExecutors;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Registry reads as done by commands, tab completion and the server selector,
+ * with several threads reading the same service at once.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class RegistryBenchmark {
+
+    @Param({"100", "10000"})
+    public int servers;
+
+    private Path directory;
+    private PluginExecutors executors;
+    private ServerManagementService service;
+    private String[] names;
+    private UUID[] owners;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        directory = Files.createTempDirectory("minehub-bench");
+        executors = Fixtures.executors();
+        List<ServerInfo> infos = Fixtures.servers(servers, Math.max(1, servers / 3));
+        service = Fixtures.service(directory, infos, executors);
+
+        names = infos.stream().map(ServerInfo::getName).toArray(String[]::new);
+        owners = infos.stream().map(ServerInfo::getOwnerUuid).distinct().toArray(UUID[]::new);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        executors.shutdown(5, TimeUnit.SECONDS);
+        Fixtures.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public Optional<ManagedServer> findServer() {
+        return service.findServer(names[ThreadLocalRandom.current().nextInt(names.length)].toUpperCase());
+    }
+
+    @Benchmark
+    public boolean isServerOnline() {
+        return service.isServerOnline(names[ThreadLocalRandom.current().nextInt(names.length)]);
+    }
+
+    @Benchmark
+    public List<ServerInfo> getAllManagedServers() {
+        return service.getAllManagedServers();
+    }
+
+    @Benchmark
+    public List<ServerInfo> getServersByOwner() {
+        return service.getServersByOwner(owners[ThreadLocalRandom.current().nextInt(owners.length)]);
+    }
+
+    @Benchmark
+    public List<String> suggestServerNames() {
+        return service.suggestServerNames("server-" + ThreadLocalRandom.current().nextInt(10), 20);
+    }
+}
@@ -0,0 +1,74 @@
+package net.minehub.velocity.benchmarks;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.format.NamedTextColor;
+import net.minehub.velocity.gui.ServerListRenderer;
+import net.minehub.velocity.models.ServerInfo;
+import net.minehub.velocity.services.RegistrySnapshot;
+import net.minehub.velocity.services.ServerRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Server list page rendering as done by /minehub list, from an unchanged registry and from
+ * a registry where one server's player count changes before every render
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RenderBenchmark {
+
+    @Param({"100", "10000"})
+    public int servers;
+
+    private ServerRegistry registry;
+    private ServerListRenderer renderer;
+    private List<ServerInfo> infos;
+    private int tick;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        infos = Fixtures.servers(servers, Math.max(1, servers / 3));
+        registry = new ServerRegistry();
+        // Rendering never touches the Velocity handle
+        registry.update(batch -> infos.forEach(info -> batch.put(info, null)));
+
+        renderer = new ServerListRenderer(Component.text("Servers"), Component.empty(),
+                Component.text("No servers found.", NamedTextColor.GRAY), 10, false, server -> Component.empty()
+                        .append(Component.text(server.isOnline() ? "● " : "× ")
+                                .color(server.isOnline() ? NamedTextColor.GREEN : NamedTextColor.RED))
+                        .append(Component.text(server.getName(), NamedTextColor.WHITE))
+                        .append(Component.text(" [" + server.getOnlinePlayers() + "/" + server.getMaxPlayers() + "]",
+                                NamedTextColor.DARK_GRAY))
+                        .append(Component.text(" - " + server.getDescription(), NamedTextColor.GRAY)));
+    }
+
+    @Benchmark
+    public Component renderUnchanged() {
+        return renderer.render(registry.snapshot(), 1);
+    }
+
+    @Benchmark
+    public Component renderAfterChange() {
+        ServerInfo changed = infos.get(tick++ % Math.min(10, infos.size()));
+        RegistrySnapshot snapshot = registry.update(batch ->
+                batch.update(changed.withStatus(changed.isOnline(), changed.getVersion(), changed.getMaxPlayers(), tick % 100)));
+        return renderer.render(snapshot, 1);
+    }
+}
@@ -0,0 +1,92 @@
+package net.minehub.velocity.benchmarks;
+
+import net.minehub.velocity.tasks.TimingWheel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.helpers.NOPLogger;
+
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rescheduling one of many pending per-server timers, as every health check does, on the
+ * timing wheel and on a {@link ScheduledThreadPoolExecutor}. Run with {@code -prof gc} to
+ * compare allocation per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TimerBenchmark {
+
+    // Far enough out that no timer fires during a run
+    private static final long DELAY_MINUTES = 30;
+
+    @Param({"100000"})
+    public int timers;
+
+    private TimingWheel wheel;
+    private TimingWheel.Timeout[] timeouts;
+    private ScheduledThreadPoolExecutor scheduler;
+    private ScheduledFuture<?>[] futures;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        wheel = new TimingWheel("bench-timer", 100, TimeUnit.MILLISECONDS, 512, Runnable::run, NOPLogger.NOP_LOGGER);
+        wheel.start();
+        timeouts = new TimingWheel.Timeout[timers];
+
+        scheduler = new ScheduledThreadPoolExecutor(1);
+        scheduler.setRemoveOnCancelPolicy(true);
+        futures = new ScheduledFuture<?>[timers];
+
+        Runnable task = () -> { };
+        for (int i = 0; i < timers; i++) {
+            timeouts[i] = wheel.schedule(task, randomDelay(), TimeUnit.MILLISECONDS);
+            futures[i] = scheduler.schedule(task, randomDelay(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        wheel.close();
+        scheduler.shutdownNow();
+    }
+
+    @Benchmark
+    public TimingWheel.Timeout wheelReschedule() {
+        TimingWheel.Timeout timeout = timeouts[ThreadLocalRandom.current().nextInt(timers)];
+        timeout.schedule(randomDelay(), TimeUnit.MILLISECONDS);
+        return timeout;
+    }
+
+    @Benchmark
+    public ScheduledFuture<?> executorReschedule() {
+        int index = ThreadLocalRandom.current().nextInt(timers);
+        futures[index].cancel(false);
+        futures[index] = scheduler.schedule(this::noop, randomDelay(), TimeUnit.MILLISECONDS);
+        return futures[index];
+    }
+
+    private void noop() {
+    }
+
+    private static long randomDelay() {
+        return TimeUnit.MINUTES.toMillis(DELAY_MINUTES) + ThreadLocalRandom.current().nextLong(60_000);
+    }
+}
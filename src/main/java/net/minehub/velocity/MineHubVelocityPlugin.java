@@ -11,13 +11,33 @@ import net.minehub.velocity.commands.AddServerCommand;
 import net.minehub.velocity.commands.MineHubCommand;
 import net.minehub.velocity.commands.RemoveServerCommand;
 import net.minehub.velocity.config.ConfigManager;
+import net.minehub.velocity.config.PluginSettings;
 import net.minehub.velocity.database.DatabaseManager;
+import net.minehub.velocity.database.RegistrySnapshotFile;
 import net.minehub.velocity.listeners.PlayerJoinListener;
+import net.minehub.velocity.metrics.MetricsRegistry;
+import net.minehub.velocity.models.ServerInfo;
+import net.minehub.velocity.services.ConnectionQueue;
+import net.minehub.velocity.services.LobbyBalancer;
+import net.minehub.velocity.services.PlayerCounts;
+import net.minehub.velocity.services.PlayerTrackingService;
+import net.minehub.velocity.services.ProbeLeaseService;
+import net.minehub.velocity.services.ServerHealthScheduler;
 import net.minehub.velocity.services.ServerManagementService;
+import net.minehub.velocity.tasks.PluginExecutors;
+import net.minehub.velocity.tasks.RegistrySyncTask;
 import net.minehub.velocity.tasks.ServerCleanupTask;
+import net.minehub.velocity.tasks.TimingWheel;
+import net.minehub.velocity.utils.DnsCache;
+import net.minehub.velocity.utils.ProbeCache;
+import net.minehub.velocity.utils.ProbeEngine;
+import net.minehub.velocity.utils.ServerPingUtil;
 import org.slf4j.Logger;
 
 import java.nio.file.Path;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 
 @Plugin(
@@ -29,14 +49,37 @@ import java.util.concurrent.TimeUnit;
 )
 public class MineHubVelocityPlugin {
 
+    private static final String REGISTRY_SNAPSHOT_FILE = "registry.bin";
+    // 100 ms resolution, one revolution every ~51 s; longer timers wait out extra revolutions
+    private static final long TIMER_TICK_MS = 100;
+    private static final int TIMER_WHEEL_SIZE = 512;
+    private static final long PLAYER_COUNT_RESYNC_SECONDS = 60;
+    private static final long QUEUE_DRAIN_MS = 250;
+    private static final long DNS_EVICT_MINUTES = 10;
+    private static final long DB_RETRY_INITIAL_SECONDS = 5;
+    private static final long DB_RETRY_MAX_SECONDS = 300;
+
     private final ProxyServer server;
     private final Logger logger;
     private final Path dataDirectory;
 
     private ConfigManager configManager;
+    private MetricsRegistry metrics;
     private DatabaseManager databaseManager;
     private ServerManagementService serverManagementService;
+    private PlayerTrackingService playerTrackingService;
+    private PlayerCounts playerCounts;
+    private LobbyBalancer lobbyBalancer;
+    private ConnectionQueue connectionQueue;
+    private ProbeLeaseService probeLeaseService;
+    private PluginExecutors executors;
+    private TimingWheel timers;
+    private DnsCache dnsCache;
     private ServerCleanupTask cleanupTask;
+    private ServerHealthScheduler healthScheduler;
+    private RegistrySyncTask syncTask;
+    // Only touched by connectDatabase, whose attempts never overlap
+    private long dbRetrySeconds = DB_RETRY_INITIAL_SECONDS;
 
     @Inject
     public MineHubVelocityPlugin(ProxyServer server, Logger logger, @DataDirectory Path dataDirectory) {
@@ -51,15 +94,64 @@ public class MineHubVelocityPlugin {
 
         try {
             // Initialize configuration
-            configManager = new ConfigManager(dataDirectory);
+            configManager = new ConfigManager(dataDirectory, logger);
             configManager.loadConfig();
-
-            // Initialize database
-            databaseManager = new DatabaseManager(configManager, logger);
-            databaseManager.initialize();
+            PluginSettings settings = configManager.getSettings();
+
+            // Latency and throughput of database calls, pings, tasks and commands
+            metrics = new MetricsRegistry();
+            ServerPingUtil.setMetrics(metrics);
+
+            // Database pool is created in the background, see connectDatabase
+            databaseManager = new DatabaseManager(configManager, logger, metrics);
+
+            // Plugin-owned executors for blocking I/O and CPU work
+            executors = new PluginExecutors(logger,
+                settings.executors().virtualThreads(),
+                settings.executors().ioThreads(),
+                settings.executors().ioQueueLimit(),
+                settings.executors().cpuThreads(),
+                settings.executors().cpuQueueLimit());
+            logger.info("Blocking I/O runs on {}", executors.isUsingVirtualThreads() ? "virtual threads" : "a bounded thread pool");
+
+            // Per-server and cluster timers, fired onto the I/O executor
+            timers = new TimingWheel("minehub-timer", TIMER_TICK_MS, TimeUnit.MILLISECONDS, TIMER_WHEEL_SIZE,
+                executors.io(), logger);
+            timers.start();
+
+            // Resolve backend hostnames off the probe path, cached between checks
+            dnsCache = new DnsCache(executors.io(),
+                () -> configManager.getSettings().dns().ttlSeconds(),
+                () -> configManager.getSettings().dns().negativeTtlSeconds(),
+                () -> configManager.getSettings().dns().maxStaleSeconds(),
+                metrics);
+            timers.scheduleWithFixedDelay(dnsCache::evictStale, DNS_EVICT_MINUTES, DNS_EVICT_MINUTES, TimeUnit.MINUTES);
+
+            // Initialize the shared non-blocking ping engine
+            ServerPingUtil.setEngine(new ProbeEngine(
+                settings.server().maxConcurrentPings(),
+                settings.server().pingWorkerThreads(),
+                dnsCache,
+                () -> configManager.getSettings().server().maxPingQueueMs()
+            ));
+            ServerPingUtil.setProbeCache(new ProbeCache(dnsCache, executors.cpu(),
+                () -> configManager.getSettings().probeCache().ttlMs(),
+                () -> configManager.getSettings().probeCache().maxEntries(),
+                () -> configManager.getSettings().probeCache().maxPerHost(),
+                () -> configManager.getSettings().server().maxPingQueueMs(),
+                metrics));
 
             // Initialize services
-            serverManagementService = new ServerManagementService(server, databaseManager, logger);
+            probeLeaseService = new ProbeLeaseService(databaseManager, logger, resolveProxyId(),
+                settings.cluster().leaseSeconds(), metrics);
+            serverManagementService = new ServerManagementService(server, databaseManager, logger, executors,
+                new RegistrySnapshotFile(dataDirectory.resolve(REGISTRY_SNAPSHOT_FILE)), configManager);
+            playerCounts = new PlayerCounts(server);
+            lobbyBalancer = new LobbyBalancer(server, serverManagementService, playerCounts, configManager, metrics);
+            connectionQueue = new ConnectionQueue(server, serverManagementService, playerCounts, configManager, metrics);
+            playerTrackingService = new PlayerTrackingService(databaseManager, logger, executors.io(),
+                settings.playerTracking().batchSize(),
+                settings.playerTracking().maxPending());
 
             // Register commands
             registerCommands();
@@ -67,11 +159,21 @@ public class MineHubVelocityPlugin {
             // Register event listeners
             registerListeners();
 
-            // Start cleanup task
-            startCleanupTask();
+            // Correct player counts that drifted from missed events
+            timers.scheduleWithFixedDelay(playerCounts::resync, PLAYER_COUNT_RESYNC_SECONDS, PLAYER_COUNT_RESYNC_SECONDS,
+                TimeUnit.SECONDS);
 
-            // Load existing servers from database
-            serverManagementService.loadServersFromDatabase();
+            // Let queued players into full servers as slots free up
+            timers.scheduleWithFixedDelay(connectionQueue, QUEUE_DRAIN_MS, QUEUE_DRAIN_MS, TimeUnit.MILLISECONDS);
+
+            // Apply edits to config.yml without a restart
+            configManager.addReloadListener(this::onConfigReload);
+            configManager.startWatching();
+
+            // Serve the last known registry immediately, then reconcile with the database
+            serverManagementService.warmStart();
+            preResolveHosts();
+            CompletableFuture.runAsync(this::connectDatabase, executors.io());
 
             logger.info("MineHub Velocity Plugin initialized successfully!");
 
@@ -81,14 +183,96 @@ public class MineHubVelocityPlugin {
         }
     }
 
+    /**
+     * Open the database and start everything that depends on it. Runs off the init thread
+     * so a slow database never delays the proxy from accepting players. If the database is
+     * unreachable, tries again with exponential backoff until it succeeds.
+     */
+    private void connectDatabase() {
+        try {
+            databaseManager.initialize(probeLeaseService.getProxyId());
+
+            // Join the probe ring before the first health check
+            probeLeaseService.heartbeat();
+
+            // Reconcile the warm-started registry with the database
+            serverManagementService.loadServersFromDatabase();
+        } catch (Exception e) {
+            logger.error("Failed to connect to the database, serving the last known server registry; retrying in {} seconds",
+                dbRetrySeconds, e);
+            timers.schedule(this::connectDatabase, dbRetrySeconds, TimeUnit.SECONDS);
+            dbRetrySeconds = Math.min(dbRetrySeconds * 2, DB_RETRY_MAX_SECONDS);
+            return;
+        }
+
+        try {
+            preResolveHosts();
+
+            // Start per-server health checks
+            startHealthChecks();
+
+            // Start cleanup task
+            startCleanupTask();
+
+            // Periodically flush buffered player tracking
+            startPlayerTrackingFlush();
+
+            // Pick up servers added or removed by other proxies
+            startRegistrySync();
+
+            // Keep this proxy's probe lease alive
+            startProbeLeaseHeartbeat();
+
+            logger.info("Database connected and server registry reconciled");
+        } catch (Exception e) {
+            logger.error("Failed to start database-backed tasks", e);
+        }
+    }
+
     @Subscribe
     public void onProxyShutdown(ProxyShutdownEvent event) {
         logger.info("Shutting down MineHub Velocity Plugin...");
 
+        if (configManager != null) {
+            configManager.close();
+        }
+
+        if (healthScheduler != null) {
+            healthScheduler.stop();
+        }
+
         if (cleanupTask != null) {
             cleanupTask.stop();
         }
 
+        if (syncTask != null) {
+            syncTask.stop();
+        }
+
+        if (timers != null) {
+            timers.close();
+        }
+
+        ServerPingUtil.shutdown();
+
+        // Hand this proxy's servers to the other proxies right away
+        if (probeLeaseService != null) {
+            probeLeaseService.release();
+        }
+
+        // Let in-flight database work finish before the pool closes
+        if (executors != null) {
+            executors.shutdown(10, TimeUnit.SECONDS);
+        }
+
+        if (serverManagementService != null) {
+            serverManagementService.saveSnapshot();
+        }
+
+        if (playerTrackingService != null) {
+            playerTrackingService.shutdown();
+        }
+
         if (databaseManager != null) {
             databaseManager.close();
         }
@@ -98,23 +282,57 @@ public class MineHubVelocityPlugin {
 
     private void registerCommands() {
         // Register main hub command
-        server.getCommandManager().register("minehub", new MineHubCommand(serverManagementService));
-        server.getCommandManager().register("hub", new MineHubCommand(serverManagementService));
+        server.getCommandManager().register("minehub", new MineHubCommand(server, serverManagementService, lobbyBalancer, connectionQueue, metrics));
+        server.getCommandManager().register("hub", new MineHubCommand(server, serverManagementService, lobbyBalancer, connectionQueue, metrics));
 
         // Register server management commands
-        server.getCommandManager().register("addserver", new AddServerCommand(serverManagementService));
-        server.getCommandManager().register("removeserver", new RemoveServerCommand(serverManagementService));
+        server.getCommandManager().register("addserver", new AddServerCommand(serverManagementService, configManager, metrics));
+        server.getCommandManager().register("removeserver", new RemoveServerCommand(serverManagementService, configManager, metrics));
 
         logger.info("Commands registered successfully");
     }
 
     private void registerListeners() {
-        server.getEventManager().register(this, new PlayerJoinListener(serverManagementService));
+        server.getEventManager().register(this, new PlayerJoinListener(serverManagementService, playerTrackingService, lobbyBalancer,
+            playerCounts, connectionQueue));
         logger.info("Event listeners registered successfully");
     }
 
+    /**
+     * Settings read through the config snapshot (ping timeout, quotas, cleanup age, tombstone
+     * retention, health check intervals) apply on their next use; the pool size is pushed to Hikari here. Thread pools,
+     * intervals and cluster settings are fixed at startup.
+     */
+    private void onConfigReload(PluginSettings settings) {
+        if (databaseManager != null) {
+            databaseManager.applySettings(settings);
+        }
+    }
+
+    /**
+     * Look up every registered server's hostname in parallel, so the first health checks
+     * don't wait on DNS
+     */
+    private void preResolveHosts() {
+        List<String> hosts = serverManagementService.getAllManagedServers().stream()
+            .map(ServerInfo::getHost)
+            .toList();
+        long start = System.nanoTime();
+        dnsCache.preResolve(hosts).thenRun(() -> logger.info("Resolved {} server hosts in {} ms",
+            hosts.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)));
+    }
+
+    private void startHealthChecks() {
+        healthScheduler = new ServerHealthScheduler(serverManagementService, probeLeaseService, configManager, timers,
+            metrics, logger);
+        long tickMs = configManager.getSettings().health().tickMs();
+        timers.scheduleWithFixedDelay(healthScheduler, 0, tickMs, TimeUnit.MILLISECONDS);
+
+        logger.info("Health checks started (every {} ms per online server)", configManager.getSettings().health().checkIntervalMs());
+    }
+
     private void startCleanupTask() {
-        cleanupTask = new ServerCleanupTask(serverManagementService, logger);
+        cleanupTask = new ServerCleanupTask(serverManagementService, logger, metrics, configManager);
 
         // Schedule cleanup task to run every hour
         server.getScheduler()
@@ -125,6 +343,48 @@ public class MineHubVelocityPlugin {
         logger.info("Server cleanup task started (runs every hour)");
     }
 
+    private void startRegistrySync() {
+        PluginSettings.Sync sync = configManager.getSettings().sync();
+        if (!sync.enabled()) {
+            return;
+        }
+
+        long intervalMs = sync.pollIntervalMs();
+        syncTask = new RegistrySyncTask(serverManagementService, logger, sync.checksumEveryPolls());
+
+        server.getScheduler()
+            .buildTask(this, syncTask)
+            .delay(intervalMs, TimeUnit.MILLISECONDS)
+            .repeat(intervalMs, TimeUnit.MILLISECONDS)
+            .schedule();
+
+        logger.info("Registry sync started (polls every {} ms)", intervalMs);
+    }
+
+    private void startProbeLeaseHeartbeat() {
+        long intervalMs = configManager.getSettings().cluster().heartbeatIntervalMs();
+
+        timers.scheduleWithFixedDelay(probeLeaseService::heartbeat, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    private String resolveProxyId() {
+        String configured = configManager.getSettings().cluster().proxyId();
+        if (!configured.isBlank()) {
+            return configured;
+        }
+        // A fresh id per start; the old lease is released on shutdown or expires on its own
+        return "proxy-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    private void startPlayerTrackingFlush() {
+        long intervalMs = configManager.getSettings().playerTracking().flushIntervalMs();
+
+        server.getScheduler()
+            .buildTask(this, playerTrackingService::flush)
+            .repeat(intervalMs, TimeUnit.MILLISECONDS)
+            .schedule();
+    }
+
     // Getters for dependency injection
     public ProxyServer getServer() {
         return server;
@@ -142,7 +402,15 @@ public class MineHubVelocityPlugin {
         return databaseManager;
     }
 
+    public MetricsRegistry getMetrics() {
+        return metrics;
+    }
+
     public ServerManagementService getServerManagementService() {
         return serverManagementService;
     }
+
+    public PlayerTrackingService getPlayerTrackingService() {
+        return playerTrackingService;
+    }
 }
\ No newline at end of file
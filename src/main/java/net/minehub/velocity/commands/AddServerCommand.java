@@ -4,20 +4,43 @@ import com.velocitypowered.api.command.SimpleCommand;
 import com.velocitypowered.api.proxy.Player;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.format.NamedTextColor;
+import net.minehub.velocity.config.ConfigManager;
+import net.minehub.velocity.config.PluginSettings;
+import net.minehub.velocity.metrics.MetricsRegistry;
+import net.minehub.velocity.metrics.Timer;
 import net.minehub.velocity.services.ServerManagementService;
+import net.minehub.velocity.utils.RateLimiter;
 
 import java.util.List;
+import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 
 public class AddServerCommand implements SimpleCommand {
+    private static final String BYPASS_PERMISSION = "minehub.ratelimit.bypass";
+
     private final ServerManagementService serverManagementService;
+    private final ConfigManager configManager;
+    private final Timer executeTimer;
+    private final RateLimiter<UUID> rateLimiter = new RateLimiter<>();
 
-    public AddServerCommand(ServerManagementService serverManagementService) {
+    public AddServerCommand(ServerManagementService serverManagementService, ConfigManager configManager,
+                            MetricsRegistry metrics) {
         this.serverManagementService = serverManagementService;
+        this.configManager = configManager;
+        this.executeTimer = metrics.timer("command.addserver");
     }
 
     @Override
     public void execute(Invocation invocation) {
+        try (Timer.Sample timing = executeTimer.start()) {
+            handle(invocation);
+        }
+    }
+
+    private void handle(Invocation invocation) {
         if (!(invocation.source() instanceof Player)) {
             invocation.source().sendMessage(Component.text("This command can only be used by players!", NamedTextColor.RED));
             return;
@@ -53,7 +76,7 @@ public class AddServerCommand implements SimpleCommand {
 
         // Check if player has reached server limit
         int currentServerCount = serverManagementService.getServerCountByOwner(player.getUniqueId());
-        int maxServers = 5; // TODO: Get from config
+        int maxServers = configManager.getSettings().server().maxServersPerUser();
 
         if (currentServerCount >= maxServers) {
             player.sendMessage(Component.text("You have reached the maximum number of servers (" + maxServers + ")!", NamedTextColor.RED));
@@ -66,6 +89,18 @@ public class AddServerCommand implements SimpleCommand {
             return;
         }
 
+        // Each add pings the server and writes to the database
+        boolean rateLimited = !player.hasPermission(BYPASS_PERMISSION);
+        if (rateLimited) {
+            PluginSettings.Limits limits = configManager.getSettings().limits();
+            long waitNanos = rateLimiter.tryAcquire(player.getUniqueId(), limits.addServerPerMinute(), limits.addServerBurst());
+            if (waitNanos > 0) {
+                player.sendMessage(Component.text("You are adding servers too quickly! Try again in "
+                        + (TimeUnit.NANOSECONDS.toSeconds(waitNanos) + 1) + "s.", NamedTextColor.RED));
+                return;
+            }
+        }
+
         player.sendMessage(Component.text("Adding server " + serverName + "...", NamedTextColor.YELLOW));
 
         // Add server asynchronously
@@ -79,7 +114,16 @@ public class AddServerCommand implements SimpleCommand {
                 }
             })
             .exceptionally(throwable -> {
-                player.sendMessage(Component.text("An error occurred while adding the server: " + throwable.getMessage(), NamedTextColor.RED));
+                Throwable cause = throwable instanceof CompletionException && throwable.getCause() != null ? throwable.getCause() : throwable;
+                if (cause instanceof RejectedExecutionException) {
+                    // Turned away before anything ran, so it doesn't count against the player
+                    if (rateLimited) {
+                        rateLimiter.refund(player.getUniqueId(), configManager.getSettings().limits().addServerPerMinute());
+                    }
+                    player.sendMessage(Component.text("The network is busy with other server changes, please try again in a moment.", NamedTextColor.RED));
+                } else {
+                    player.sendMessage(Component.text("An error occurred while adding the server: " + cause.getMessage(), NamedTextColor.RED));
+                }
                 return null;
             });
     }
@@ -5,27 +5,59 @@ import com.velocitypowered.api.proxy.Player;
 import com.velocitypowered.api.proxy.ProxyServer;
 import com.velocitypowered.api.proxy.server.RegisteredServer;
 import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.JoinConfiguration;
 import net.kyori.adventure.text.format.NamedTextColor;
 import net.kyori.adventure.text.format.TextDecoration;
+import net.minehub.velocity.gui.ServerListRenderer;
+import net.minehub.velocity.metrics.MetricsRegistry;
+import net.minehub.velocity.metrics.Timer;
+import net.minehub.velocity.metrics.TimerSnapshot;
+import net.minehub.velocity.metrics.Window;
 import net.minehub.velocity.models.ServerInfo;
+import net.minehub.velocity.services.ConnectionQueue;
+import net.minehub.velocity.services.LobbyBalancer;
+import net.minehub.velocity.services.ManagedServer;
 import net.minehub.velocity.services.ServerManagementService;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 
 public class MineHubCommand implements SimpleCommand {
 
+    private static final int MAX_SUGGESTIONS = 100;
+    private static final int LIST_PAGE_SIZE = 10;
+    private static final String ADMIN_PERMISSION = "minehub.admin";
+
     private final ProxyServer proxyServer;
     private final ServerManagementService serverManagementService;
+    private final LobbyBalancer lobbyBalancer;
+    private final ConnectionQueue connectionQueue;
+    private final ServerListRenderer serverListRenderer;
+    private final MetricsRegistry metrics;
+    private final Timer executeTimer;
 
-    public MineHubCommand(ProxyServer proxyServer, ServerManagementService serverManagementService) {
+    public MineHubCommand(ProxyServer proxyServer, ServerManagementService serverManagementService,
+                          LobbyBalancer lobbyBalancer, ConnectionQueue connectionQueue, MetricsRegistry metrics) {
         this.proxyServer = proxyServer;
         this.serverManagementService = serverManagementService;
+        this.lobbyBalancer = lobbyBalancer;
+        this.connectionQueue = connectionQueue;
+        this.serverListRenderer = createServerListRenderer();
+        this.metrics = metrics;
+        this.executeTimer = metrics.timer("command.minehub");
     }
 
     @Override
     public void execute(Invocation invocation) {
+        try (Timer.Sample timing = executeTimer.start()) {
+            handle(invocation);
+        }
+    }
+
+    private void handle(Invocation invocation) {
         if (!(invocation.source() instanceof Player)) {
             invocation.source().sendMessage(Component.text("This command can only be used by players!", NamedTextColor.RED));
             return;
@@ -35,14 +67,18 @@ public class MineHubCommand implements SimpleCommand {
         String[] args = invocation.arguments();
 
         if (args.length == 0) {
-            showServerList(player);
+            if (invocation.alias().equalsIgnoreCase("hub")) {
+                connectToLobby(player);
+            } else {
+                showServerList(player, 1);
+            }
             return;
         }
 
         String subCommand = args[0].toLowerCase();
         switch (subCommand) {
             case "list":
-                showServerList(player);
+                showServerList(player, parsePage(args, 1));
                 break;
             case "info":
                 if (args.length < 2) {
@@ -59,6 +95,20 @@ public class MineHubCommand implements SimpleCommand {
                     connectToServer(player, args[1]);
                 }
                 break;
+            case "queue":
+                if (args.length > 1 && args[1].equalsIgnoreCase("leave")) {
+                    leaveQueue(player);
+                } else {
+                    showQueuePosition(player);
+                }
+                break;
+            case "stats":
+                if (!player.hasPermission(ADMIN_PERMISSION)) {
+                    player.sendMessage(Component.text("You don't have permission to use this command!", NamedTextColor.RED));
+                } else {
+                    showStats(player, args.length > 1 ? Window.fromLabel(args[1]).orElse(Window.ONE_MINUTE) : Window.ONE_MINUTE);
+                }
+                break;
             case "help":
                 showHelp(player);
                 break;
@@ -69,52 +119,100 @@ public class MineHubCommand implements SimpleCommand {
     }
 
     private void connectToServer(Player player, String serverName) {
-        Optional<RegisteredServer> target = proxyServer.getAllServers()
-            .stream()
-            .filter(s -> s.getServerInfo().getName().equalsIgnoreCase(serverName))
-            .findFirst();
+        Optional<ManagedServer> managed = serverManagementService.findServer(serverName);
 
-        if (target.isEmpty()) {
-            player.sendMessage(Component.text("Server '" + serverName + "' not found!", NamedTextColor.RED));
+        if (managed.isPresent()) {
+            if (!managed.get().info().isOnline()) {
+                player.sendMessage(Component.text("Server '" + serverName + "' is offline!", NamedTextColor.RED));
+                return;
+            }
+            // Queues the player if the server is full
+            connectionQueue.connect(player, managed.get());
             return;
         }
 
-        if (!serverManagementService.isServerOnline(serverName)) {
-            player.sendMessage(Component.text("Server '" + serverName + "' is offline!", NamedTextColor.RED));
+        // Not player-added, e.g. a lobby from velocity.toml; Velocity's own lookup is case-insensitive too
+        Optional<RegisteredServer> configured = proxyServer.getServer(serverName);
+        if (configured.isEmpty()) {
+            player.sendMessage(Component.text("Server '" + serverName + "' not found!", NamedTextColor.RED));
             return;
         }
 
         player.sendMessage(Component.text("Connecting to " + serverName + "...", NamedTextColor.YELLOW));
-        player.createConnectionRequest(target.get()).fireAndForget();
+        player.createConnectionRequest(configured.get()).fireAndForget();
     }
 
-    private void showServerList(Player player) {
-        List<ServerInfo> servers = serverManagementService.getAllManagedServers();
+    private void showQueuePosition(Player player) {
+        Optional<ConnectionQueue.Position> position = connectionQueue.getPosition(player.getUniqueId());
+        if (position.isEmpty()) {
+            player.sendMessage(Component.text("You are not in a queue.", NamedTextColor.YELLOW));
+            return;
+        }
+        player.sendMessage(Component.text("You are #" + position.get().position() + " in the queue for "
+                + position.get().server() + ".", NamedTextColor.YELLOW));
+    }
 
-        player.sendMessage(Component.empty());
-        player.sendMessage(Component.text("MineHub - Available Servers")
-                .color(NamedTextColor.GOLD).decorate(TextDecoration.BOLD));
-        player.sendMessage(Component.text("=".repeat(40)).color(NamedTextColor.GRAY));
+    private void leaveQueue(Player player) {
+        Optional<String> server = connectionQueue.leave(player.getUniqueId());
+        if (server.isEmpty()) {
+            player.sendMessage(Component.text("You are not in a queue.", NamedTextColor.YELLOW));
+            return;
+        }
+        player.sendMessage(Component.text("You left the queue for " + server.get() + ".", NamedTextColor.YELLOW));
+    }
+
+    private void connectToLobby(Player player) {
+        Optional<String> current = player.getCurrentServer().map(connection -> connection.getServerInfo().getName());
+        if (current.isPresent() && lobbyBalancer.isLobby(current.get())) {
+            player.sendMessage(Component.text("You are already in a lobby!", NamedTextColor.YELLOW));
+            return;
+        }
+
+        Optional<RegisteredServer> lobby = lobbyBalancer.chooseLobby();
+        if (lobby.isEmpty()) {
+            player.sendMessage(Component.text("No lobby is available right now, please try again later!", NamedTextColor.RED));
+            return;
+        }
 
-        if (servers.isEmpty()) {
-            player.sendMessage(Component.text("No servers found.", NamedTextColor.GRAY));
-        } else {
-            for (ServerInfo server : servers) {
-                Component line = Component.empty()
+        player.sendMessage(Component.text("Connecting to " + lobby.get().getServerInfo().getName() + "...", NamedTextColor.YELLOW));
+        player.createConnectionRequest(lobby.get()).fireAndForget();
+    }
+
+    private void showServerList(Player player, int page) {
+        player.sendMessage(serverListRenderer.render(serverManagementService.getRegistrySnapshot(), page));
+    }
+
+    private static ServerListRenderer createServerListRenderer() {
+        Component header = Component.join(JoinConfiguration.newlines(),
+                Component.empty(),
+                Component.text("MineHub - Available Servers").color(NamedTextColor.GOLD).decorate(TextDecoration.BOLD),
+                Component.text("=".repeat(40)).color(NamedTextColor.GRAY));
+        Component footer = Component.join(JoinConfiguration.newlines(),
+                Component.text("Use /minehub connect <server>", NamedTextColor.YELLOW),
+                Component.empty());
+
+        return new ServerListRenderer(header, footer, Component.text("No servers found.", NamedTextColor.GRAY),
+                LIST_PAGE_SIZE, false, server -> Component.empty()
                         .append(Component.text(server.isOnline() ? "● " : "× ")
                                 .color(server.isOnline() ? NamedTextColor.GREEN : NamedTextColor.RED))
                         .append(Component.text(server.getName(), NamedTextColor.WHITE))
+                        .append(Component.text(" [" + server.getOnlinePlayers() + "/" + server.getMaxPlayers() + "]", NamedTextColor.DARK_GRAY))
                         .append(Component.text(" - ", NamedTextColor.GRAY))
                         .append(Component.text(
                                 server.getDescription().isEmpty() ? "No description" : server.getDescription(),
                                 NamedTextColor.GRAY
-                        ));
-                player.sendMessage(line);
-            }
-        }
+                        )));
+    }
 
-        player.sendMessage(Component.text("Use /minehub connect <server>", NamedTextColor.YELLOW));
-        player.sendMessage(Component.empty());
+    private static int parsePage(String[] args, int index) {
+        if (args.length <= index) {
+            return 1;
+        }
+        try {
+            return Integer.parseInt(args[index]);
+        } catch (NumberFormatException e) {
+            return 1;
+        }
     }
 
     private void showServerInfo(Player player, String serverName) {
@@ -134,16 +232,63 @@ public class MineHubCommand implements SimpleCommand {
         player.sendMessage(Component.text("Host: " + server.getAddress(), NamedTextColor.GRAY));
         player.sendMessage(Component.text("Owner: " + server.getOwnerName(), NamedTextColor.GRAY));
         player.sendMessage(Component.text("Version: " + server.getVersion(), NamedTextColor.GRAY));
-        player.sendMessage(Component.text("Players: 0 / " + server.getMaxPlayers(), NamedTextColor.GRAY)); // mock
+        player.sendMessage(Component.text("Players: " + server.getOnlinePlayers() + " / " + server.getMaxPlayers(), NamedTextColor.GRAY));
+    }
+
+    private void showStats(Player player, Window window) {
+        List<Component> lines = new ArrayList<>();
+        lines.add(Component.empty());
+        lines.add(Component.text("MineHub Stats (" + window.getLabel() + ")").color(NamedTextColor.GOLD).decorate(TextDecoration.BOLD));
+        lines.add(Component.text("name: rate, p50 / p99 / max", NamedTextColor.DARK_GRAY));
+
+        metrics.getTimers().forEach((name, timer) -> {
+            TimerSnapshot snapshot = timer.snapshot(window);
+            if (snapshot.count() == 0) {
+                return;
+            }
+            lines.add(Component.text(name + ": ", NamedTextColor.YELLOW)
+                    .append(Component.text(String.format(Locale.ROOT, "%.2f/s, %s / %s / %s (%d)",
+                            snapshot.ratePerSecond(), formatNanos(snapshot.p50()), formatNanos(snapshot.p99()),
+                            formatNanos(snapshot.max()), snapshot.count()), NamedTextColor.GRAY)));
+        });
+
+        metrics.getCounters().forEach((name, counter) -> {
+            long count = counter.count(window);
+            if (count > 0) {
+                lines.add(Component.text(name + ": ", NamedTextColor.YELLOW)
+                        .append(Component.text(String.format(Locale.ROOT, "%d (%.2f/s)", count, counter.rate(window)),
+                                NamedTextColor.GRAY)));
+            }
+        });
+
+        metrics.readGauges().forEach((name, value) ->
+                lines.add(Component.text(name + ": ", NamedTextColor.YELLOW)
+                        .append(Component.text(String.valueOf(value), NamedTextColor.GRAY))));
+
+        player.sendMessage(Component.join(JoinConfiguration.newlines(), lines));
+    }
+
+    private static String formatNanos(long nanos) {
+        if (nanos < 1_000_000) {
+            return String.format(Locale.ROOT, "%.0fµs", nanos / 1e3);
+        }
+        if (nanos < 1_000_000_000) {
+            return String.format(Locale.ROOT, "%.1fms", nanos / 1e6);
+        }
+        return String.format(Locale.ROOT, "%.2fs", nanos / 1e9);
     }
 
     private void showHelp(Player player) {
         player.sendMessage(Component.empty());
         player.sendMessage(Component.text("MineHub Commands")
                 .color(NamedTextColor.GOLD).decorate(TextDecoration.BOLD));
-        player.sendMessage(Component.text("/minehub list - List servers", NamedTextColor.YELLOW));
+        player.sendMessage(Component.text("/minehub list [page] - List servers", NamedTextColor.YELLOW));
         player.sendMessage(Component.text("/minehub connect <server> - Join a server", NamedTextColor.YELLOW));
         player.sendMessage(Component.text("/minehub info <server> - Show server info", NamedTextColor.YELLOW));
+        player.sendMessage(Component.text("/minehub queue [leave] - Show or leave your queue", NamedTextColor.YELLOW));
+        if (player.hasPermission(ADMIN_PERMISSION)) {
+            player.sendMessage(Component.text("/minehub stats [1m|5m|all] - Show plugin latency stats", NamedTextColor.YELLOW));
+        }
     }
 
     @Override
@@ -151,15 +296,22 @@ public class MineHubCommand implements SimpleCommand {
         String[] args = invocation.arguments();
 
         if (args.length == 1) {
-            return CompletableFuture.completedFuture(List.of("list", "info", "connect", "help"));
+            return CompletableFuture.completedFuture(invocation.source().hasPermission(ADMIN_PERMISSION)
+                    ? List.of("list", "info", "connect", "queue", "stats", "help")
+                    : List.of("list", "info", "connect", "queue", "help"));
+        }
+
+        if (args.length == 2 && args[0].equalsIgnoreCase("queue")) {
+            return CompletableFuture.completedFuture(List.of("leave"));
+        }
+
+        if (args.length == 2 && args[0].equalsIgnoreCase("stats")) {
+            return CompletableFuture.completedFuture(List.of("1m", "5m", "all"));
         }
 
         if (args.length == 2 && (args[0].equalsIgnoreCase("connect") || args[0].equalsIgnoreCase("info"))) {
             return CompletableFuture.completedFuture(
-                    serverManagementService.getAllManagedServers().stream()
-                            .map(ServerInfo::getName)
-                            .filter(name -> name.toLowerCase().startsWith(args[1].toLowerCase()))
-                            .toList()
+                    serverManagementService.suggestServerNames(args[1], MAX_SUGGESTIONS)
             );
         }
 
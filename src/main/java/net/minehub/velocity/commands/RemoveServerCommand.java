@@ -4,23 +4,46 @@ import com.velocitypowered.api.command.SimpleCommand;
 import com.velocitypowered.api.proxy.Player;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.format.NamedTextColor;
+import net.minehub.velocity.config.ConfigManager;
+import net.minehub.velocity.config.PluginSettings;
+import net.minehub.velocity.metrics.MetricsRegistry;
+import net.minehub.velocity.metrics.Timer;
 import net.minehub.velocity.models.ServerInfo;
 import net.minehub.velocity.services.ServerManagementService;
+import net.minehub.velocity.utils.RateLimiter;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 
 public class RemoveServerCommand implements SimpleCommand {
+    private static final int MAX_SUGGESTIONS = 100;
+    private static final String BYPASS_PERMISSION = "minehub.ratelimit.bypass";
+
     private final ServerManagementService serverManagementService;
+    private final ConfigManager configManager;
+    private final Timer executeTimer;
+    private final RateLimiter<UUID> rateLimiter = new RateLimiter<>();
 
-    public RemoveServerCommand(ServerManagementService serverManagementService) {
+    public RemoveServerCommand(ServerManagementService serverManagementService, ConfigManager configManager,
+                               MetricsRegistry metrics) {
         this.serverManagementService = serverManagementService;
+        this.configManager = configManager;
+        this.executeTimer = metrics.timer("command.removeserver");
     }
 
     @Override
     public void execute(Invocation invocation) {
+        try (Timer.Sample timing = executeTimer.start()) {
+            handle(invocation);
+        }
+    }
+
+    private void handle(Invocation invocation) {
         if (!(invocation.source() instanceof Player)) {
             invocation.source().sendMessage(Component.text("This command can only be used by players!", NamedTextColor.RED));
             return;
@@ -56,6 +79,17 @@ public class RemoveServerCommand implements SimpleCommand {
             return;
         }
 
+        boolean rateLimited = !player.hasPermission(BYPASS_PERMISSION);
+        if (rateLimited) {
+            PluginSettings.Limits limits = configManager.getSettings().limits();
+            long waitNanos = rateLimiter.tryAcquire(player.getUniqueId(), limits.removeServerPerMinute(), limits.removeServerBurst());
+            if (waitNanos > 0) {
+                player.sendMessage(Component.text("You are removing servers too quickly! Try again in "
+                        + (TimeUnit.NANOSECONDS.toSeconds(waitNanos) + 1) + "s.", NamedTextColor.RED));
+                return;
+            }
+        }
+
         player.sendMessage(Component.text("Removing server " + serverName + "...", NamedTextColor.YELLOW));
 
         // Remove server asynchronously
@@ -68,7 +102,16 @@ public class RemoveServerCommand implements SimpleCommand {
                 }
             })
             .exceptionally(throwable -> {
-                player.sendMessage(Component.text("An error occurred while removing the server: " + throwable.getMessage(), NamedTextColor.RED));
+                Throwable cause = throwable instanceof CompletionException && throwable.getCause() != null ? throwable.getCause() : throwable;
+                if (cause instanceof RejectedExecutionException) {
+                    // Turned away before anything ran, so it doesn't count against the player
+                    if (rateLimited) {
+                        rateLimiter.refund(player.getUniqueId(), configManager.getSettings().limits().removeServerPerMinute());
+                    }
+                    player.sendMessage(Component.text("The network is busy with other server changes, please try again in a moment.", NamedTextColor.RED));
+                } else {
+                    player.sendMessage(Component.text("An error occurred while removing the server: " + cause.getMessage(), NamedTextColor.RED));
+                }
                 return null;
             });
     }
@@ -79,13 +122,12 @@ public class RemoveServerCommand implements SimpleCommand {
             // Suggest server names owned by the player
             if (invocation.source() instanceof Player) {
                 Player player = (Player) invocation.source();
+                String prefix = invocation.arguments()[0];
+
                 return CompletableFuture.completedFuture(
-                    serverManagementService.getAllManagedServers().stream()
-                        .filter(server -> server.getOwnerUuid().equals(player.getUniqueId()) || 
-                                        player.hasPermission("minehub.removeserver.others"))
-                        .map(ServerInfo::getName)
-                        .filter(name -> name.toLowerCase().startsWith(invocation.arguments()[0].toLowerCase()))
-                        .collect(Collectors.toList())
+                    player.hasPermission("minehub.removeserver.others")
+                        ? serverManagementService.suggestServerNames(prefix, MAX_SUGGESTIONS)
+                        : serverManagementService.suggestOwnedServerNames(player.getUniqueId(), prefix, MAX_SUGGESTIONS)
                 );
             }
         }
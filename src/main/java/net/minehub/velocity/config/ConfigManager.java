@@ -1,25 +1,54 @@
 package net.minehub.velocity.config;
 
+import org.slf4j.Logger;
 import org.yaml.snakeyaml.Yaml;
 
 import java.io.FileInputStream;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
 
+/**
+ * Loads config.yml into an immutable {@link PluginSettings} snapshot plus a flat map of
+ * dotted paths for untyped lookups. Once watching is started, edits to the file are picked
+ * up through a {@link WatchService}, validated, and swapped in as a whole; an invalid file is
+ * logged and the previous settings stay in effect.
+ */
 public class ConfigManager {
+
+    // Editors often save in several writes; wait for the file to settle before reading it
+    private static final long RELOAD_DEBOUNCE_MS = 250;
+
     private final Path dataDirectory;
     private final Path configFile;
-    private Map<String, Object> config;
+    private final Logger logger;
+    private final List<Consumer<PluginSettings>> reloadListeners = new CopyOnWriteArrayList<>();
 
-    public ConfigManager(Path dataDirectory) {
+    private volatile Loaded loaded = new Loaded(new HashMap<>(), Map.of(), PluginSettings.parse(Map.of()));
+    private WatchService watchService;
+    private Thread watcher;
+
+    public ConfigManager(Path dataDirectory, Logger logger) {
         this.dataDirectory = dataDirectory;
         this.configFile = dataDirectory.resolve("config.yml");
+        this.logger = logger;
     }
 
+    /**
+     * Read config.yml, writing the default one first if it doesn't exist
+     * @throws IllegalArgumentException if the file has invalid values
+     */
     public void loadConfig() throws IOException {
         // Create data directory if it doesn't exist
         if (!Files.exists(dataDirectory)) {
@@ -31,15 +60,146 @@ public class ConfigManager {
             createDefaultConfig();
         }
 
-        // Load config from file
+        loaded = read();
+    }
+
+    /**
+     * Re-read config.yml and publish it if it changed and is valid
+     * @return true if new settings were applied
+     */
+    public synchronized boolean reload() {
+        Loaded next;
+        try {
+            next = read();
+        } catch (IOException | RuntimeException e) {
+            logger.error("Couldn't reload config.yml, keeping the previous settings: {}", e.getMessage());
+            return false;
+        }
+
+        if (next.values().equals(loaded.values())) {
+            return false;
+        }
+
+        loaded = next;
+        logger.info("Reloaded config.yml");
+        for (Consumer<PluginSettings> listener : reloadListeners) {
+            try {
+                listener.accept(next.settings());
+            } catch (RuntimeException e) {
+                logger.error("Error applying reloaded config", e);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Reload the config automatically whenever config.yml changes on disk
+     */
+    public synchronized void startWatching() throws IOException {
+        if (watcher != null) {
+            return;
+        }
+
+        watchService = dataDirectory.getFileSystem().newWatchService();
+        dataDirectory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+
+        watcher = new Thread(this::watch, "minehub-config-watcher");
+        watcher.setDaemon(true);
+        watcher.start();
+    }
+
+    /**
+     * Stop watching config.yml
+     */
+    public synchronized void close() {
+        if (watcher == null) {
+            return;
+        }
+
+        watcher.interrupt();
+        try {
+            watchService.close();
+        } catch (IOException e) {
+            logger.warn("Failed to close config watcher", e);
+        }
+        watcher = null;
+    }
+
+    /**
+     * @param listener Called with the new settings after every successful reload
+     */
+    public void addReloadListener(Consumer<PluginSettings> listener) {
+        reloadListeners.add(listener);
+    }
+
+    /**
+     * @return The current settings; hold on to the result only as long as one operation needs it
+     */
+    public PluginSettings getSettings() {
+        return loaded.settings();
+    }
+
+    private void watch() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                WatchKey key = watchService.take();
+                boolean changed = false;
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    changed |= event.kind() == StandardWatchEventKinds.OVERFLOW
+                        || configFile.getFileName().equals(event.context());
+                }
+                if (!key.reset()) {
+                    logger.warn("Config directory is no longer accessible, stopped watching config.yml");
+                    return;
+                }
+
+                if (changed) {
+                    Thread.sleep(RELOAD_DEBOUNCE_MS);
+                    drainEvents();
+                    reload();
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // Closed on shutdown
+        }
+    }
+
+    private void drainEvents() {
+        WatchKey key;
+        while ((key = watchService.poll()) != null) {
+            key.pollEvents();
+            key.reset();
+        }
+    }
+
+    private Loaded read() throws IOException {
+        Object document;
         Yaml yaml = new Yaml();
         try (FileInputStream fis = new FileInputStream(configFile.toFile())) {
-            config = yaml.load(fis);
+            document = yaml.load(fis);
         }
 
-        if (config == null) {
-            config = new HashMap<>();
+        Map<String, Object> config = new HashMap<>();
+        if (document instanceof Map<?, ?> map) {
+            map.forEach((key, value) -> config.put(String.valueOf(key), value));
+        } else if (document != null) {
+            throw new IllegalArgumentException("config.yml must contain a mapping of settings");
         }
+
+        Map<String, Object> values = new HashMap<>();
+        flatten("", config, values);
+        return new Loaded(config, values, PluginSettings.parse(values));
+    }
+
+    private static void flatten(String prefix, Map<?, ?> section, Map<String, Object> values) {
+        section.forEach((key, value) -> {
+            String path = prefix + key;
+            if (value instanceof Map<?, ?> child) {
+                flatten(path + ".", child, values);
+            } else if (value != null) {
+                values.put(path, value);
+            }
+        });
     }
 
     private void createDefaultConfig() throws IOException {
@@ -53,6 +213,7 @@ public class ConfigManager {
         database.put("username", "minehub");
         database.put("password", "password");
         database.put("pool-size", 10);
+        database.put("binary-uuids", false);
         defaultConfig.put("database", database);
 
         // Server configuration
@@ -60,8 +221,85 @@ public class ConfigManager {
         server.put("cleanup-interval-hours", 72);
         server.put("max-servers-per-user", 5);
         server.put("default-hub-server", "lobby");
+        server.put("lobby-servers", List.of("lobby"));
+        server.put("ping-timeout", 5000);
+        server.put("max-concurrent-pings", 1024);
+        server.put("max-ping-queue-ms", 10000);
+        server.put("ping-worker-threads", 4);
         defaultConfig.put("server", server);
 
+        // Player tracking configuration
+        Map<String, Object> playerTracking = new HashMap<>();
+        playerTracking.put("batch-size", 500);
+        playerTracking.put("flush-interval-ms", 2000);
+        playerTracking.put("max-pending", 50000);
+        defaultConfig.put("player-tracking", playerTracking);
+
+        // Multi-proxy registry sync configuration
+        Map<String, Object> sync = new HashMap<>();
+        sync.put("enabled", true);
+        sync.put("poll-interval-ms", 5000);
+        sync.put("checksum-every-polls", 12);
+        sync.put("tombstone-retention-hours", 24);
+        defaultConfig.put("sync", sync);
+
+        // Cluster configuration
+        Map<String, Object> cluster = new HashMap<>();
+        cluster.put("proxy-id", "");
+        cluster.put("lease-seconds", 15);
+        cluster.put("heartbeat-interval-ms", 5000);
+        defaultConfig.put("cluster", cluster);
+
+        // Health check configuration
+        Map<String, Object> health = new HashMap<>();
+        health.put("check-interval-ms", 60000);
+        health.put("confirm-interval-ms", 5000);
+        health.put("max-backoff-ms", 1800000);
+        health.put("jitter-percent", 20);
+        health.put("confirmations", 3);
+        health.put("tick-ms", 1000);
+        defaultConfig.put("health", health);
+
+        // Connection queue configuration
+        Map<String, Object> queue = new HashMap<>();
+        queue.put("enabled", true);
+        queue.put("admit-per-second", 5);
+        queue.put("position-update-seconds", 10);
+        queue.put("max-length", 10000);
+        defaultConfig.put("queue", queue);
+
+        // Command rate limits
+        Map<String, Object> limits = new HashMap<>();
+        limits.put("addserver-per-minute", 3);
+        limits.put("addserver-burst", 2);
+        limits.put("removeserver-per-minute", 6);
+        limits.put("removeserver-burst", 3);
+        limits.put("max-concurrent-mutations", 8);
+        defaultConfig.put("limits", limits);
+
+        // Backend hostname cache
+        Map<String, Object> dns = new HashMap<>();
+        dns.put("ttl-seconds", 300);
+        dns.put("negative-ttl-seconds", 30);
+        dns.put("max-stale-seconds", 600);
+        defaultConfig.put("dns", dns);
+
+        // Probe sharing
+        Map<String, Object> probeCache = new HashMap<>();
+        probeCache.put("ttl-ms", 1000);
+        probeCache.put("max-entries", 4096);
+        probeCache.put("max-per-host", 8);
+        defaultConfig.put("probe-cache", probeCache);
+
+        // Executor configuration
+        Map<String, Object> executors = new HashMap<>();
+        executors.put("virtual-threads", true);
+        executors.put("io-threads", 16);
+        executors.put("io-queue-limit", 1000);
+        executors.put("cpu-threads", 2);
+        executors.put("cpu-queue-limit", 1000);
+        defaultConfig.put("executors", executors);
+
         // Messages configuration
         Map<String, Object> messages = new HashMap<>();
         messages.put("server-added", "&aServer ''{0}'' has been added to the network!");
@@ -85,8 +323,6 @@ public class ConfigManager {
         try (FileWriter writer = new FileWriter(configFile.toFile())) {
             yaml.dump(defaultConfig, writer);
         }
-
-        config = defaultConfig;
     }
 
     public String getString(String path) {
@@ -123,21 +359,19 @@ public class ConfigManager {
     }
 
     private Object getNestedValue(String path) {
-        String[] keys = path.split("\\.");
-        Object current = config;
-
-        for (String key : keys) {
-            if (current instanceof Map) {
-                current = ((Map<?, ?>) current).get(key);
-            } else {
-                return null;
-            }
-        }
-
-        return current;
+        return loaded.values().get(path);
     }
 
+    /**
+     * @return The config as parsed from YAML; treat it as read-only
+     */
     public Map<String, Object> getConfig() {
-        return config;
+        return loaded.config();
+    }
+
+    /**
+     * One load of the config file: the YAML tree, its values by dotted path, and the typed settings
+     */
+    private record Loaded(Map<String, Object> config, Map<String, Object> values, PluginSettings settings) {
     }
 }
\ No newline at end of file
@@ -0,0 +1,244 @@
+package net.minehub.velocity.config;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable, typed view of config.yml.
+ * Parsed and validated once per load, so reading a setting on a hot path is a plain field
+ * access. A new instance replaces the old one as a whole when the file changes.
+ */
+public record PluginSettings(Database database,
+                             Server server,
+                             PlayerTracking playerTracking,
+                             Sync sync,
+                             Cluster cluster,
+                             Health health,
+                             Queue queue,
+                             Limits limits,
+                             Dns dns,
+                             ProbeCache probeCache,
+                             Executors executors) {
+
+    public record Database(String host, int port, String database, String username, String password,
+                           int poolSize, String jdbcUrl, boolean binaryUuids) {
+    }
+
+    /**
+     * @param lobbyServers Lobby pool for /hub and initial connections; never empty, falls back
+     *                     to the default hub server
+     * @param maxPingQueueMs Longest a ping may wait for a free slot before it is given up as throttled
+     */
+    public record Server(int cleanupIntervalHours, int maxServersPerUser, String defaultHubServer,
+                         List<String> lobbyServers, int pingTimeoutMs, int maxConcurrentPings, int maxPingQueueMs,
+                         int pingWorkerThreads) {
+    }
+
+    public record PlayerTracking(int batchSize, int flushIntervalMs, int maxPending) {
+    }
+
+    public record Sync(boolean enabled, int pollIntervalMs, int checksumEveryPolls, int tombstoneRetentionHours) {
+    }
+
+    public record Cluster(String proxyId, int leaseSeconds, int heartbeatIntervalMs) {
+    }
+
+    /**
+     * Per-server health checks; see {@code ServerHealthScheduler}
+     */
+    public record Health(int checkIntervalMs, int confirmIntervalMs, int maxBackoffMs, int jitterPercent,
+                         int confirmations, int tickMs) {
+    }
+
+    /**
+     * Waiting line for full servers; see {@code ConnectionQueue}
+     */
+    public record Queue(boolean enabled, int admitPerSecond, int positionUpdateSeconds, int maxLength) {
+    }
+
+    /**
+     * Per-player command rates and the cap on concurrent registry changes
+     */
+    public record Limits(int addServerPerMinute, int addServerBurst, int removeServerPerMinute, int removeServerBurst,
+                         int maxConcurrentMutations) {
+    }
+
+    /**
+     * Cache for backend hostname lookups; see {@code DnsCache}
+     */
+    public record Dns(int ttlSeconds, int negativeTtlSeconds, int maxStaleSeconds) {
+    }
+
+    /**
+     * Sharing of concurrent and recent probes; see {@code ProbeCache}
+     */
+    public record ProbeCache(int ttlMs, int maxEntries, int maxPerHost) {
+    }
+
+    public record Executors(boolean virtualThreads, int ioThreads, int ioQueueLimit, int cpuThreads, int cpuQueueLimit) {
+    }
+
+    /**
+     * Build settings from flattened config values, using defaults for missing keys
+     * @param values Config values keyed by dotted path, e.g. "server.ping-timeout"
+     * @return Validated settings
+     * @throws IllegalArgumentException listing every invalid value
+     */
+    public static PluginSettings parse(Map<String, Object> values) {
+        Reader reader = new Reader(values);
+
+        String defaultHubServer = reader.string("server.default-hub-server", "lobby");
+        List<String> lobbyServers = reader.stringList("server.lobby-servers");
+
+        PluginSettings settings = new PluginSettings(
+            new Database(
+                reader.string("database.host", "localhost"),
+                reader.integer("database.port", 3306, 1, 65535),
+                reader.string("database.database", "minehub"),
+                reader.string("database.username", "minehub"),
+                reader.string("database.password", "password"),
+                reader.integer("database.pool-size", 10, 1, 500),
+                reader.string("database.jdbc-url", ""),
+                reader.bool("database.binary-uuids", false)),
+            new Server(
+                reader.integer("server.cleanup-interval-hours", 72, 1, Integer.MAX_VALUE),
+                reader.integer("server.max-servers-per-user", 5, 0, Integer.MAX_VALUE),
+                defaultHubServer,
+                lobbyServers.isEmpty() ? List.of(defaultHubServer) : lobbyServers,
+                reader.integer("server.ping-timeout", 5000, 100, 60000),
+                reader.integer("server.max-concurrent-pings", 1024, 1, 65536),
+                reader.integer("server.max-ping-queue-ms", 10000, 100, 600000),
+                reader.integer("server.ping-worker-threads", 4, 1, 256)),
+            new PlayerTracking(
+                reader.integer("player-tracking.batch-size", 500, 1, 10000),
+                reader.integer("player-tracking.flush-interval-ms", 2000, 100, Integer.MAX_VALUE),
+                reader.integer("player-tracking.max-pending", 50000, 1, Integer.MAX_VALUE)),
+            new Sync(
+                reader.bool("sync.enabled", true),
+                reader.integer("sync.poll-interval-ms", 5000, 100, Integer.MAX_VALUE),
+                reader.integer("sync.checksum-every-polls", 12, 1, Integer.MAX_VALUE),
+                reader.integer("sync.tombstone-retention-hours", 24, 1, Integer.MAX_VALUE)),
+            new Cluster(
+                reader.string("cluster.proxy-id", ""),
+                reader.integer("cluster.lease-seconds", 15, 1, 3600),
+                reader.integer("cluster.heartbeat-interval-ms", 5000, 100, Integer.MAX_VALUE)),
+            new Health(
+                reader.integer("health.check-interval-ms", 60000, 1000, Integer.MAX_VALUE),
+                reader.integer("health.confirm-interval-ms", 5000, 100, Integer.MAX_VALUE),
+                reader.integer("health.max-backoff-ms", 1800000, 1000, Integer.MAX_VALUE),
+                reader.integer("health.jitter-percent", 20, 0, 50),
+                reader.integer("health.confirmations", 3, 1, 20),
+                reader.integer("health.tick-ms", 1000, 50, 60000)),
+            new Queue(
+                reader.bool("queue.enabled", true),
+                reader.integer("queue.admit-per-second", 5, 1, 1000),
+                reader.integer("queue.position-update-seconds", 10, 1, 3600),
+                reader.integer("queue.max-length", 10000, 1, Integer.MAX_VALUE)),
+            new Limits(
+                reader.integer("limits.addserver-per-minute", 3, 1, 6000),
+                reader.integer("limits.addserver-burst", 2, 1, 1000),
+                reader.integer("limits.removeserver-per-minute", 6, 1, 6000),
+                reader.integer("limits.removeserver-burst", 3, 1, 1000),
+                reader.integer("limits.max-concurrent-mutations", 8, 1, 1000)),
+            new Dns(
+                reader.integer("dns.ttl-seconds", 300, 1, 86400),
+                reader.integer("dns.negative-ttl-seconds", 30, 1, 86400),
+                reader.integer("dns.max-stale-seconds", 600, 0, 86400)),
+            new ProbeCache(
+                reader.integer("probe-cache.ttl-ms", 1000, 0, 60000),
+                reader.integer("probe-cache.max-entries", 4096, 1, 1000000),
+                reader.integer("probe-cache.max-per-host", 8, 1, 1024)),
+            new Executors(
+                reader.bool("executors.virtual-threads", true),
+                reader.integer("executors.io-threads", 16, 1, 1024),
+                reader.integer("executors.io-queue-limit", 1000, 1, Integer.MAX_VALUE),
+                reader.integer("executors.cpu-threads", 2, 1, 256),
+                reader.integer("executors.cpu-queue-limit", 1000, 1, Integer.MAX_VALUE)));
+
+        if (settings.cluster().heartbeatIntervalMs() >= settings.cluster().leaseSeconds() * 1000L) {
+            reader.errors.add("cluster.heartbeat-interval-ms must be shorter than cluster.lease-seconds");
+        }
+
+        if (settings.health().maxBackoffMs() < settings.health().checkIntervalMs()) {
+            reader.errors.add("health.max-backoff-ms must not be shorter than health.check-interval-ms");
+        }
+
+        if (settings.probeCache().ttlMs() >= settings.health().confirmIntervalMs()) {
+            reader.errors.add("probe-cache.ttl-ms must be shorter than health.confirm-interval-ms");
+        }
+
+        if (!reader.errors.isEmpty()) {
+            throw new IllegalArgumentException("Invalid config: " + String.join("; ", reader.errors));
+        }
+        return settings;
+    }
+
+    /**
+     * Reads typed values and collects every problem instead of stopping at the first one
+     */
+    private static final class Reader {
+        private final Map<String, Object> values;
+        private final List<String> errors = new ArrayList<>();
+
+        Reader(Map<String, Object> values) {
+            this.values = values;
+        }
+
+        String string(String path, String defaultValue) {
+            Object value = values.get(path);
+            return value != null ? value.toString() : defaultValue;
+        }
+
+        int integer(String path, int defaultValue, int min, int max) {
+            Object value = values.get(path);
+            if (value == null) {
+                return defaultValue;
+            }
+            if (!(value instanceof Number number)) {
+                errors.add(path + " must be a number, got '" + value + "'");
+                return defaultValue;
+            }
+
+            long result = number.longValue();
+            if (result < min || result > max) {
+                errors.add(path + " must be between " + min + " and " + max + ", got " + result);
+                return defaultValue;
+            }
+            return (int) result;
+        }
+
+        List<String> stringList(String path) {
+            Object value = values.get(path);
+            if (value == null) {
+                return List.of();
+            }
+            if (!(value instanceof List<?> list)) {
+                errors.add(path + " must be a list, got '" + value + "'");
+                return List.of();
+            }
+
+            List<String> result = new ArrayList<>(list.size());
+            for (Object item : list) {
+                if (item == null || item.toString().isBlank()) {
+                    errors.add(path + " must not contain empty entries");
+                    return List.of();
+                }
+                result.add(item.toString());
+            }
+            return List.copyOf(result);
+        }
+
+        boolean bool(String path, boolean defaultValue) {
+            Object value = values.get(path);
+            if (value == null) {
+                return defaultValue;
+            }
+            if (!(value instanceof Boolean flag)) {
+                errors.add(path + " must be true or false, got '" + value + "'");
+                return defaultValue;
+            }
+            return flag;
+        }
+    }
+}
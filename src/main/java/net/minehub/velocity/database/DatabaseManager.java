@@ -3,53 +3,115 @@ package net.minehub.velocity.database;
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
 import net.minehub.velocity.config.ConfigManager;
+import net.minehub.velocity.config.PluginSettings;
+import net.minehub.velocity.metrics.HikariMetrics;
+import net.minehub.velocity.metrics.MetricsRegistry;
+import net.minehub.velocity.metrics.Timer;
+import net.minehub.velocity.models.PlayerVisit;
+import net.minehub.velocity.models.RegistryChecksum;
+import net.minehub.velocity.models.ServerChanges;
 import net.minehub.velocity.models.ServerInfo;
 import org.slf4j.Logger;
 
+import java.nio.ByteBuffer;
 import java.sql.*;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 public class DatabaseManager {
+    // Keeps IN lists well under max_allowed_packet and lets the prepared statement cache reuse full chunks
+    private static final int IN_CLAUSE_CHUNK = 1000;
+    private static final int PLAYER_UPSERT_CHUNK = 500;
+    private static final int MIN_IDLE = 2;
+
+    // Column order read by serverMapper; queries may append further columns after these
+    private static final String SERVER_COLUMNS =
+        "name, host, port, owner_uuid, owner_name, description, max_players, online_players, version, is_online, created_at, last_seen";
+
     private final ConfigManager configManager;
     private final Logger logger;
-    private HikariDataSource dataSource;
-
-    public DatabaseManager(ConfigManager configManager, Logger logger) {
+    private final MetricsRegistry metrics;
+    // Set once initialize() completes, which may happen after the plugin starts serving players
+    private volatile HikariDataSource dataSource;
+    // Connector/J-only tuning is skipped for other drivers
+    private boolean mysql = true;
+    // Whether minehub_servers.owner_uuid is BINARY(16) rather than VARCHAR(36)
+    private volatile boolean binaryUuids;
+
+    private final RowMapper<ServerInfo> serverMapper = rs -> new ServerInfo(
+        rs.getString(1),
+        rs.getString(2),
+        rs.getInt(3),
+        readUuid(rs, 4),
+        rs.getString(5),
+        rs.getString(6),
+        rs.getInt(7),
+        rs.getInt(8),
+        rs.getString(9),
+        rs.getBoolean(10),
+        rs.getObject(11, LocalDateTime.class),
+        rs.getObject(12, LocalDateTime.class)
+    );
+
+    public DatabaseManager(ConfigManager configManager, Logger logger, MetricsRegistry metrics) {
         this.configManager = configManager;
         this.logger = logger;
+        this.metrics = metrics;
     }
 
-    public void initialize() throws SQLException {
-        setupConnectionPool();
-        createTables();
+    /**
+     * Open the pool and create or upgrade the tables
+     * @param proxyId This proxy's cluster id, whose own lease doesn't count as another proxy running
+     */
+    public void initialize(String proxyId) throws SQLException {
+        // A retry after a failed start reuses the pool opened by the earlier attempt
+        if (dataSource == null || dataSource.isClosed()) {
+            setupConnectionPool();
+        }
+        createTables(proxyId);
         logger.info("Database initialized successfully");
     }
 
     private void setupConnectionPool() {
         HikariConfig config = new HikariConfig();
 
-        String host = configManager.getString("database.host", "localhost");
-        int port = configManager.getInt("database.port", 3306);
-        String database = configManager.getString("database.database", "minehub");
-        String username = configManager.getString("database.username", "minehub");
-        String password = configManager.getString("database.password", "password");
-        int poolSize = configManager.getInt("database.pool-size", 10);
-
-        config.setJdbcUrl("jdbc:mysql://" + host + ":" + port + "/" + database 
-            + "?useSSL=false&allowPublicKeyRetrieval=true&serverTimezone=UTC");
-        config.setUsername(username);
-        config.setPassword(password);
-        config.setMaximumPoolSize(poolSize);
-        config.setMinimumIdle(2);
+        PluginSettings.Database settings = configManager.getSettings().database();
+
+        // An explicit URL is for other drivers and for the benchmarks' in-memory database
+        String jdbcUrl = settings.jdbcUrl();
+        if (jdbcUrl.isBlank()) {
+            jdbcUrl = "jdbc:mysql://" + settings.host() + ":" + settings.port() + "/" + settings.database()
+                + "?useSSL=false&allowPublicKeyRetrieval=true&serverTimezone=UTC";
+        }
+        mysql = jdbcUrl.startsWith("jdbc:mysql:");
+
+        config.setJdbcUrl(jdbcUrl);
+        config.setUsername(settings.username());
+        config.setPassword(settings.password());
+        config.setMaximumPoolSize(settings.poolSize());
+        config.setMinimumIdle(Math.min(MIN_IDLE, settings.poolSize()));
         config.setConnectionTimeout(30000);
         config.setIdleTimeout(600000);
         config.setMaxLifetime(1800000);
         config.setLeakDetectionThreshold(60000);
+        config.setMetricsTrackerFactory(new HikariMetrics(metrics));
+
+        // Performance optimizations, specific to MySQL Connector/J
+        if (mysql) {
+            addMySqlProperties(config);
+        }
+
+        dataSource = new HikariDataSource(config);
+    }
 
-        // Performance optimizations
+    private static void addMySqlProperties(HikariConfig config) {
         config.addDataSourceProperty("cachePrepStmts", "true");
         config.addDataSourceProperty("prepStmtCacheSize", "250");
         config.addDataSourceProperty("prepStmtCacheSqlLimit", "2048");
@@ -60,18 +122,16 @@ public class DatabaseManager {
         config.addDataSourceProperty("cacheServerConfiguration", "true");
         config.addDataSourceProperty("elideSetAutoCommits", "true");
         config.addDataSourceProperty("maintainTimeStats", "false");
-
-        dataSource = new HikariDataSource(config);
     }
 
-    private void createTables() throws SQLException {
+    private void createTables(String proxyId) throws SQLException {
         String createServersTable = """
             CREATE TABLE IF NOT EXISTS minehub_servers (
                 id INT AUTO_INCREMENT PRIMARY KEY,
                 name VARCHAR(255) NOT NULL UNIQUE,
                 host VARCHAR(255) NOT NULL,
                 port INT NOT NULL,
-                owner_uuid VARCHAR(36) NOT NULL,
+                owner_uuid %s NOT NULL,
                 owner_name VARCHAR(255) NOT NULL,
                 created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
                 last_seen TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
@@ -79,9 +139,35 @@ public class DatabaseManager {
                 description TEXT,
                 max_players INT DEFAULT 20,
                 version VARCHAR(50) DEFAULT 'Unknown',
+                online_players INT NOT NULL DEFAULT 0,
+                revision BIGINT NOT NULL DEFAULT 0,
                 INDEX idx_owner_uuid (owner_uuid),
                 INDEX idx_last_seen (last_seen),
-                INDEX idx_is_online (is_online)
+                INDEX idx_is_online (is_online),
+                INDEX idx_revision (revision)
+            )""".formatted(configManager.getSettings().database().binaryUuids() ? "BINARY(16)" : "VARCHAR(36)");
+
+        String createRevisionTable = """
+            CREATE TABLE IF NOT EXISTS minehub_revision (
+                id TINYINT PRIMARY KEY,
+                revision BIGINT NOT NULL
+            )""";
+
+        String createLeasesTable = """
+            CREATE TABLE IF NOT EXISTS minehub_probe_leases (
+                proxy_id VARCHAR(64) PRIMARY KEY,
+                acquired_at TIMESTAMP(3) DEFAULT CURRENT_TIMESTAMP(3),
+                expires_at TIMESTAMP(3) NOT NULL,
+                INDEX idx_expires_at (expires_at)
+            )""";
+
+        String createTombstonesTable = """
+            CREATE TABLE IF NOT EXISTS minehub_tombstones (
+                name VARCHAR(255) PRIMARY KEY,
+                revision BIGINT NOT NULL,
+                deleted_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                INDEX idx_revision (revision),
+                INDEX idx_deleted_at (deleted_at)
             )""";
 
         String createPlayersTable = """
@@ -96,167 +182,599 @@ public class DatabaseManager {
                 INDEX idx_last_join (last_join)
             )""";
 
-        try (Connection conn = getConnection()) {
+        try (Timer.Sample timing = time("create_tables");
+             Connection conn = getConnection()) {
             try (Statement stmt = conn.createStatement()) {
                 stmt.execute(createServersTable);
                 stmt.execute(createPlayersTable);
+                stmt.execute(createRevisionTable);
+                stmt.execute(createTombstonesTable);
+                stmt.execute(createLeasesTable);
+                stmt.execute("INSERT IGNORE INTO minehub_revision (id, revision) VALUES (1, 0)");
+            }
+            addColumnIfMissing(conn, "revision", "ADD COLUMN revision BIGINT NOT NULL DEFAULT 0, ADD INDEX idx_revision (revision)");
+            addColumnIfMissing(conn, "online_players", "ADD COLUMN online_players INT NOT NULL DEFAULT 0");
+
+            // A leftover owner_uuid_bin means an earlier conversion was interrupted
+            boolean interrupted = columnType(conn, "owner_uuid_bin") != null;
+            binaryUuids = !interrupted && isBinary(columnType(conn, "owner_uuid"));
+            if (interrupted) {
+                migrateOwnerUuidsToBinary(conn);
+                binaryUuids = true;
+            } else if (!binaryUuids && configManager.getSettings().database().binaryUuids()) {
+                int liveProxies = countOtherLiveProxies(conn, proxyId);
+                if (liveProxies > 0) {
+                    logger.warn("Not converting owner_uuid to BINARY(16): {} other proxies are running and still use text UUIDs."
+                            + " Stop every proxy, then start this one alone to convert.", liveProxies);
+                } else {
+                    migrateOwnerUuidsToBinary(conn);
+                    binaryUuids = true;
+                }
+            }
+        }
+    }
+
+    private String columnType(Connection conn, String column) throws SQLException {
+        try (ResultSet rs = conn.getMetaData().getColumns(conn.getCatalog(), null, "minehub_servers", column)) {
+            return rs.next() ? rs.getString("TYPE_NAME") : null;
+        }
+    }
+
+    private static boolean isBinary(String type) {
+        return type != null && type.toUpperCase().contains("BINARY");
+    }
+
+    /**
+     * Count the other proxies holding a live probe lease. This proxy's own lease is left out: it
+     * is still live after a retry, or after a quick restart with a fixed cluster.proxy-id.
+     */
+    private int countOtherLiveProxies(Connection conn, String proxyId) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "SELECT COUNT(*) FROM minehub_probe_leases WHERE expires_at > NOW(3) AND proxy_id <> ?")) {
+            stmt.setString(1, proxyId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
+        }
+    }
+
+    /**
+     * Convert owner_uuid from VARCHAR(36) to BINARY(16). MySQL DDL is not transactional, so
+     * every step checks what is already done and an interrupted conversion resumes on the
+     * next start. Runs once, when database.binary-uuids is enabled on a text UUID install.
+     * Proxies already running keep reading and writing text UUIDs, so the conversion only
+     * starts while no other proxy holds a live lease.
+     */
+    private void migrateOwnerUuidsToBinary(Connection conn) throws SQLException {
+        logger.info("Converting minehub_servers.owner_uuid to BINARY(16)...");
+        try (Statement stmt = conn.createStatement()) {
+            if (columnType(conn, "owner_uuid_bin") == null) {
+                stmt.execute("ALTER TABLE minehub_servers ADD COLUMN owner_uuid_bin BINARY(16)");
+            }
+            String textType = columnType(conn, "owner_uuid");
+            if (textType != null && !isBinary(textType)) {
+                stmt.executeUpdate("UPDATE minehub_servers SET owner_uuid_bin = UNHEX(REPLACE(owner_uuid, '-', ''))");
+                // Dropping the column drops idx_owner_uuid with it
+                stmt.execute("ALTER TABLE minehub_servers DROP COLUMN owner_uuid");
+            }
+            stmt.execute("ALTER TABLE minehub_servers CHANGE owner_uuid_bin owner_uuid BINARY(16) NOT NULL, ADD INDEX idx_owner_uuid (owner_uuid)");
+        }
+        logger.info("owner_uuid conversion complete");
+    }
+
+    private UUID readUuid(ResultSet rs, int column) throws SQLException {
+        if (binaryUuids) {
+            ByteBuffer bytes = ByteBuffer.wrap(rs.getBytes(column));
+            return new UUID(bytes.getLong(), bytes.getLong());
+        }
+        return UUID.fromString(rs.getString(column));
+    }
+
+    private void setUuid(PreparedStatement stmt, int index, UUID uuid) throws SQLException {
+        if (binaryUuids) {
+            stmt.setBytes(index, ByteBuffer.allocate(16)
+                .putLong(uuid.getMostSignificantBits())
+                .putLong(uuid.getLeastSignificantBits())
+                .array());
+        } else {
+            stmt.setString(index, uuid.toString());
+        }
+    }
+
+    /**
+     * Run a query and map every row
+     * @param conn Connection to use
+     * @param sql Query text
+     * @param binder Sets the query parameters
+     * @param mapper Maps one row
+     * @return Mapped rows in result order
+     */
+    private <T> List<T> queryList(Connection conn, String sql, StatementBinder binder, RowMapper<T> mapper) throws SQLException {
+        List<T> rows = new ArrayList<>();
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            binder.bind(stmt);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    rows.add(mapper.map(rs));
+                }
+            }
+        }
+        return rows;
+    }
+
+    private void addColumnIfMissing(Connection conn, String column, String alteration) throws SQLException {
+        try (ResultSet rs = conn.getMetaData().getColumns(conn.getCatalog(), null, "minehub_servers", column)) {
+            if (rs.next()) {
+                return;
+            }
+        }
+
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("ALTER TABLE minehub_servers " + alteration);
+        }
+        logger.info("Added {} column to minehub_servers", column);
+    }
+
+    /**
+     * Allocate the next registry revision. The counter row stays locked until the caller's
+     * transaction ends, so revisions become visible to readers in increasing order. Writers
+     * take it before touching server rows so they always lock in the same order.
+     * @param conn Connection with an open transaction
+     * @return The new revision
+     */
+    private long nextRevision(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("UPDATE minehub_revision SET revision = LAST_INSERT_ID(revision + 1) WHERE id = 1");
+            try (ResultSet rs = stmt.executeQuery("SELECT LAST_INSERT_ID()")) {
+                rs.next();
+                return rs.getLong(1);
+            }
+        }
+    }
+
+    private void insertTombstones(Connection conn, List<String> names, long revision) throws SQLException {
+        for (int from = 0; from < names.size(); from += IN_CLAUSE_CHUNK) {
+            List<String> chunk = names.subList(from, Math.min(from + IN_CLAUSE_CHUNK, names.size()));
+            String sql = "INSERT INTO minehub_tombstones (name, revision) VALUES "
+                + String.join(",", Collections.nCopies(chunk.size(), "(?, ?)"))
+                + " ON DUPLICATE KEY UPDATE revision = VALUES(revision), deleted_at = CURRENT_TIMESTAMP";
+
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                int index = 1;
+                for (String name : chunk) {
+                    stmt.setString(index++, name);
+                    stmt.setLong(index++, revision);
+                }
+                stmt.executeUpdate();
             }
         }
     }
 
+    /**
+     * Apply settings that can change while the pool is running; connection details need a restart
+     * @param settings Newly loaded settings
+     */
+    public void applySettings(PluginSettings settings) {
+        HikariDataSource current = dataSource;
+        int poolSize = settings.database().poolSize();
+        if (current == null || current.getHikariConfigMXBean().getMaximumPoolSize() == poolSize) {
+            return;
+        }
+
+        // Hikari grows or shrinks the pool in the background as connections are returned
+        current.getHikariConfigMXBean().setMaximumPoolSize(poolSize);
+        current.getHikariConfigMXBean().setMinimumIdle(Math.min(MIN_IDLE, poolSize));
+        logger.info("Database pool size changed to {}", poolSize);
+    }
+
+    /**
+     * Start timing a database operation, including the wait for a pooled connection
+     * @param operation Operation name, reported as {@code db.<operation>}
+     * @return Sample to close when the operation is done
+     */
+    private Timer.Sample time(String operation) {
+        return metrics.timer("db." + operation).start();
+    }
+
     public Connection getConnection() throws SQLException {
-        return dataSource.getConnection();
+        HikariDataSource current = dataSource;
+        if (current == null) {
+            throw new SQLException("Database is not initialized yet");
+        }
+        return current.getConnection();
     }
 
     public void addServer(ServerInfo serverInfo) throws SQLException {
         String sql = """
-            INSERT INTO minehub_servers (name, host, port, owner_uuid, owner_name, description, max_players, version)
-            VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+            INSERT INTO minehub_servers (name, host, port, owner_uuid, owner_name, description, max_players, online_players, version, revision)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
             """;
 
-        try (Connection conn = getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            stmt.setString(1, serverInfo.getName());
-            stmt.setString(2, serverInfo.getHost());
-            stmt.setInt(3, serverInfo.getPort());
-            stmt.setString(4, serverInfo.getOwnerUuid().toString());
-            stmt.setString(5, serverInfo.getOwnerName());
-            stmt.setString(6, serverInfo.getDescription());
-            stmt.setInt(7, serverInfo.getMaxPlayers());
-            stmt.setString(8, serverInfo.getVersion());
-
-            stmt.executeUpdate();
+        try (Timer.Sample timing = time("add_server");
+             Connection conn = getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                stmt.setString(1, serverInfo.getName());
+                stmt.setString(2, serverInfo.getHost());
+                stmt.setInt(3, serverInfo.getPort());
+                setUuid(stmt, 4, serverInfo.getOwnerUuid());
+                stmt.setString(5, serverInfo.getOwnerName());
+                stmt.setString(6, serverInfo.getDescription());
+                stmt.setInt(7, serverInfo.getMaxPlayers());
+                stmt.setInt(8, serverInfo.getOnlinePlayers());
+                stmt.setString(9, serverInfo.getVersion());
+                stmt.setLong(10, nextRevision(conn));
+
+                stmt.executeUpdate();
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
         }
     }
 
     public void removeServer(String serverName) throws SQLException {
         String sql = "DELETE FROM minehub_servers WHERE name = ?";
 
-        try (Connection conn = getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+        try (Timer.Sample timing = time("remove_server");
+             Connection conn = getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                long revision = nextRevision(conn);
+                stmt.setString(1, serverName);
+                if (stmt.executeUpdate() > 0) {
+                    insertTombstones(conn, List.of(serverName), revision);
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+    }
 
-            stmt.setString(1, serverName);
-            stmt.executeUpdate();
+    /**
+     * Persist a batch of health check outcomes on one connection and in one transaction.
+     * Changed servers are written with a single JDBC batch; servers seen online only get
+     * last_seen refreshed, in chunked IN lists, so the batch costs a handful of round trips.
+     * @param changed Servers whose online state, version, slot or player count changed
+     * @param seenOnline Names of all servers that answered
+     */
+    public void updateServerStatuses(Collection<ServerInfo> changed, Collection<String> seenOnline) throws SQLException {
+        if (changed.isEmpty() && seenOnline.isEmpty()) {
+            return;
+        }
+
+        String updateSql = """
+            UPDATE minehub_servers
+            SET is_online = ?, max_players = ?, online_players = ?, version = ?,
+                last_seen = IF(?, CURRENT_TIMESTAMP, last_seen), revision = ?
+            WHERE name = ?
+            """;
+
+        try (Timer.Sample timing = time("update_server_statuses");
+             Connection conn = getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                if (!changed.isEmpty()) {
+                    // One revision for the whole batch; last_seen-only touches don't need one
+                    long revision = nextRevision(conn);
+                    try (PreparedStatement stmt = conn.prepareStatement(updateSql)) {
+                        for (ServerInfo server : changed) {
+                            stmt.setBoolean(1, server.isOnline());
+                            stmt.setInt(2, server.getMaxPlayers());
+                            stmt.setInt(3, server.getOnlinePlayers());
+                            stmt.setString(4, server.getVersion());
+                            stmt.setBoolean(5, server.isOnline());
+                            stmt.setLong(6, revision);
+                            stmt.setString(7, server.getName());
+                            stmt.addBatch();
+                        }
+                        stmt.executeBatch();
+                    }
+                }
+
+                touchServers(conn, seenOnline);
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
         }
     }
 
-    public void updateServerStatus(String serverName, boolean isOnline) throws SQLException {
-        String sql = "UPDATE minehub_servers SET is_online = ?, last_seen = CURRENT_TIMESTAMP WHERE name = ?";
+    private void touchServers(Connection conn, Collection<String> names) throws SQLException {
+        List<String> remaining = names instanceof List<String> list ? list : new ArrayList<>(names);
 
-        try (Connection conn = getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+        for (int from = 0; from < remaining.size(); from += IN_CLAUSE_CHUNK) {
+            List<String> chunk = remaining.subList(from, Math.min(from + IN_CLAUSE_CHUNK, remaining.size()));
+            String sql = "UPDATE minehub_servers SET last_seen = CURRENT_TIMESTAMP WHERE name IN ("
+                + String.join(",", Collections.nCopies(chunk.size(), "?")) + ")";
 
-            stmt.setBoolean(1, isOnline);
-            stmt.setString(2, serverName);
-            stmt.executeUpdate();
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                for (int i = 0; i < chunk.size(); i++) {
+                    stmt.setString(i + 1, chunk.get(i));
+                }
+                stmt.executeUpdate();
+            }
         }
     }
 
     public List<ServerInfo> getAllServers() throws SQLException {
-        String sql = "SELECT * FROM minehub_servers ORDER BY created_at DESC";
-        List<ServerInfo> servers = new ArrayList<>();
-
-        try (Connection conn = getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-
-            while (rs.next()) {
-                ServerInfo server = new ServerInfo(
-                    rs.getString("name"),
-                    rs.getString("host"),
-                    rs.getInt("port"),
-                    UUID.fromString(rs.getString("owner_uuid")),
-                    rs.getString("owner_name")
-                );
-
-                server.setDescription(rs.getString("description"));
-                server.setMaxPlayers(rs.getInt("max_players"));
-                server.setVersion(rs.getString("version"));
-                server.setOnline(rs.getBoolean("is_online"));
-                server.setCreatedAt(rs.getTimestamp("created_at").toLocalDateTime());
-                server.setLastSeen(rs.getTimestamp("last_seen").toLocalDateTime());
-
-                servers.add(server);
-            }
+        String sql = "SELECT " + SERVER_COLUMNS + " FROM minehub_servers ORDER BY created_at DESC";
+
+        try (Timer.Sample timing = time("get_all_servers");
+             Connection conn = getConnection()) {
+            return queryList(conn, sql, StatementBinder.NONE, serverMapper);
         }
+    }
 
-        return servers;
+    /**
+     * Read the whole registry together with the revision it corresponds to
+     * @return All servers as upserts, at the current revision
+     */
+    public ServerChanges loadServerRegistry() throws SQLException {
+        return readServerChanges(-1);
     }
 
-    public List<ServerInfo> getOfflineServers(int hoursOffline) throws SQLException {
-        String sql = "SELECT * FROM minehub_servers WHERE last_seen < (NOW() - INTERVAL ? HOUR)";
-        List<ServerInfo> servers = new ArrayList<>();
+    /**
+     * Read the rows added, modified or deleted after a revision, from one consistent snapshot
+     * @param sinceRevision Last revision the caller has applied
+     * @return The changes and the revision they lead to
+     */
+    public ServerChanges getServerChanges(long sinceRevision) throws SQLException {
+        return readServerChanges(sinceRevision);
+    }
 
-        try (Connection conn = getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+    private ServerChanges readServerChanges(long sinceRevision) throws SQLException {
+        String serversSql = "SELECT " + SERVER_COLUMNS + ", revision FROM minehub_servers WHERE revision > ?";
+        String tombstonesSql = "SELECT name, revision FROM minehub_tombstones WHERE revision > ?";
+
+        try (Timer.Sample timing = time(sinceRevision < 0 ? "load_registry" : "server_changes");
+             Connection conn = getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                // All reads below see the same InnoDB snapshot as this one
+                long revision = readRevision(conn);
+                Map<String, Long> upsertRevisions = new HashMap<>();
+                Map<String, ServerInfo> upserts = new LinkedHashMap<>();
+                Map<String, Long> removals = new LinkedHashMap<>();
+
+                try (PreparedStatement stmt = conn.prepareStatement(serversSql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                    // Stream rows instead of buffering the whole result in the driver first
+                    stmt.setFetchSize(mysql ? Integer.MIN_VALUE : 1000);
+                    stmt.setLong(1, sinceRevision);
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        while (rs.next()) {
+                            ServerInfo server = serverMapper.map(rs);
+                            upserts.put(server.getName(), server);
+                            upsertRevisions.put(server.getName(), rs.getLong(13));
+                        }
+                    }
+                }
 
-            stmt.setInt(1, hoursOffline);
+                if (sinceRevision >= 0) {
+                    try (PreparedStatement stmt = conn.prepareStatement(tombstonesSql)) {
+                        stmt.setLong(1, sinceRevision);
+                        try (ResultSet rs = stmt.executeQuery()) {
+                            while (rs.next()) {
+                                String name = rs.getString(1);
+                                long deletedAt = rs.getLong(2);
+                                Long upsertedAt = upsertRevisions.get(name);
+                                // A name deleted and re-added within the window keeps whichever happened last
+                                if (upsertedAt == null || deletedAt > upsertedAt) {
+                                    upserts.remove(name);
+                                    removals.put(name, deletedAt);
+                                }
+                            }
+                        }
+                    }
+                }
 
-            try (ResultSet rs = stmt.executeQuery()) {
-                while (rs.next()) {
-                    ServerInfo server = new ServerInfo(
-                        rs.getString("name"),
-                        rs.getString("host"),
-                        rs.getInt("port"),
-                        UUID.fromString(rs.getString("owner_uuid")),
-                        rs.getString("owner_name")
-                    );
-
-                    server.setDescription(rs.getString("description"));
-                    server.setMaxPlayers(rs.getInt("max_players"));
-                    server.setVersion(rs.getString("version"));
-                    server.setOnline(rs.getBoolean("is_online"));
-                    server.setCreatedAt(rs.getTimestamp("created_at").toLocalDateTime());
-                    server.setLastSeen(rs.getTimestamp("last_seen").toLocalDateTime());
-
-                    servers.add(server);
+                conn.commit();
+                return new ServerChanges(revision, new ArrayList<>(upserts.values()), new ArrayList<>(removals.keySet()));
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+    }
+
+    /**
+     * Compute the registry checksum on the database side, consistent with its revision
+     * @return Checksum of minehub_servers at the current revision
+     */
+    public RegistryChecksum getRegistryChecksum() throws SQLException {
+        String sql = "SELECT COUNT(*), COALESCE(SUM(CRC32(CONCAT(name, ':', host, ':', port))), 0) FROM minehub_servers";
+
+        try (Timer.Sample timing = time("registry_checksum");
+             Connection conn = getConnection()) {
+            conn.setAutoCommit(false);
+            try (Statement stmt = conn.createStatement()) {
+                long revision = readRevision(conn);
+                try (ResultSet rs = stmt.executeQuery(sql)) {
+                    rs.next();
+                    RegistryChecksum checksum = new RegistryChecksum(revision, rs.getInt(1), rs.getLong(2));
+                    conn.commit();
+                    return checksum;
                 }
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
             }
         }
+    }
 
-        return servers;
+    private long readRevision(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT revision FROM minehub_revision WHERE id = 1")) {
+            return rs.next() ? rs.getLong(1) : 0;
+        }
     }
 
-    public int getServerCountByOwner(UUID ownerUuid) throws SQLException {
-        String sql = "SELECT COUNT(*) FROM minehub_servers WHERE owner_uuid = ?";
+    private void pruneTombstones(Connection conn) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "DELETE FROM minehub_tombstones WHERE deleted_at < (NOW() - INTERVAL ? HOUR)")) {
+            // Proxies that fall further behind than this miss deletions and recover through a checksum resync
+            stmt.setInt(1, configManager.getSettings().sync().tombstoneRetentionHours());
+            stmt.executeUpdate();
+        }
+    }
 
-        try (Connection conn = getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+    /**
+     * Delete every server not seen for the given number of hours, in one transaction.
+     * Only names are read, with row locks so a server that reports back meanwhile is not lost,
+     * and the rows are removed with chunked DELETE ... WHERE name IN statements. Tombstones are
+     * written for the deleted names and tombstones past their retention are dropped.
+     * @param hoursOffline Hours since last_seen after which a server expires
+     * @return Names of the deleted servers
+     */
+    public List<String> removeExpiredServers(int hoursOffline) throws SQLException {
+        String selectSql = "SELECT name FROM minehub_servers WHERE last_seen < (NOW() - INTERVAL ? HOUR) FOR UPDATE";
+        List<String> expired = new ArrayList<>();
+
+        try (Timer.Sample timing = time("remove_expired_servers");
+             Connection conn = getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                long revision = nextRevision(conn);
+                try (PreparedStatement stmt = conn.prepareStatement(selectSql)) {
+                    stmt.setInt(1, hoursOffline);
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        while (rs.next()) {
+                            expired.add(rs.getString(1));
+                        }
+                    }
+                }
 
-            stmt.setString(1, ownerUuid.toString());
+                for (int from = 0; from < expired.size(); from += IN_CLAUSE_CHUNK) {
+                    List<String> chunk = expired.subList(from, Math.min(from + IN_CLAUSE_CHUNK, expired.size()));
+                    String sql = "DELETE FROM minehub_servers WHERE name IN ("
+                        + String.join(",", Collections.nCopies(chunk.size(), "?")) + ")";
+
+                    try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                        for (int i = 0; i < chunk.size(); i++) {
+                            stmt.setString(i + 1, chunk.get(i));
+                        }
+                        stmt.executeUpdate();
+                    }
+                }
 
-            try (ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) {
-                    return rs.getInt(1);
+                if (!expired.isEmpty()) {
+                    insertTombstones(conn, expired, revision);
                 }
+                pruneTombstones(conn);
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
             }
         }
 
-        return 0;
+        return expired;
     }
 
-    public void updatePlayerData(UUID playerUuid, String username, String lastServer) throws SQLException {
-        String sql = """
-            INSERT INTO minehub_players (uuid, username, last_server, last_join, join_count)
-            VALUES (?, ?, ?, CURRENT_TIMESTAMP, 1)
-            ON DUPLICATE KEY UPDATE
-            username = VALUES(username),
-            last_server = VALUES(last_server),
-            last_join = CURRENT_TIMESTAMP,
-            join_count = join_count + 1
+    /**
+     * Renew this proxy's probe lease and list every proxy whose lease is still valid.
+     * Expiry uses the database clock, so proxies with skewed clocks still agree.
+     * @param proxyId This proxy's id
+     * @param leaseSeconds How long the lease stays valid without another heartbeat
+     * @return Ids of proxies holding a live lease, including this one
+     */
+    public List<String> heartbeatProbeLease(String proxyId, int leaseSeconds) throws SQLException {
+        String renewSql = """
+            INSERT INTO minehub_probe_leases (proxy_id, expires_at)
+            VALUES (?, NOW(3) + INTERVAL ? SECOND)
+            ON DUPLICATE KEY UPDATE expires_at = VALUES(expires_at)
             """;
+        List<String> live = new ArrayList<>();
+
+        try (Timer.Sample timing = time("probe_lease_heartbeat");
+             Connection conn = getConnection()) {
+            try (PreparedStatement stmt = conn.prepareStatement(renewSql)) {
+                stmt.setString(1, proxyId);
+                stmt.setInt(2, leaseSeconds);
+                stmt.executeUpdate();
+            }
+
+            try (Statement stmt = conn.createStatement()) {
+                // Leases from crashed proxies are kept a while for diagnostics, then dropped
+                stmt.executeUpdate("DELETE FROM minehub_probe_leases WHERE expires_at < NOW(3) - INTERVAL 1 DAY");
+                try (ResultSet rs = stmt.executeQuery("SELECT proxy_id FROM minehub_probe_leases WHERE expires_at > NOW(3)")) {
+                    while (rs.next()) {
+                        live.add(rs.getString(1));
+                    }
+                }
+            }
+        }
 
-        try (Connection conn = getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+        return live;
+    }
 
-            stmt.setString(1, playerUuid.toString());
-            stmt.setString(2, username);
-            stmt.setString(3, lastServer);
+    /**
+     * Give up this proxy's probe lease so the others take over its servers right away
+     * @param proxyId This proxy's id
+     */
+    public void releaseProbeLease(String proxyId) throws SQLException {
+        try (Timer.Sample timing = time("probe_lease_release");
+             Connection conn = getConnection();
+             PreparedStatement stmt = conn.prepareStatement("DELETE FROM minehub_probe_leases WHERE proxy_id = ?")) {
+            stmt.setString(1, proxyId);
             stmt.executeUpdate();
         }
     }
 
+    /**
+     * Upsert many players with multi-row INSERT ... ON DUPLICATE KEY UPDATE statements.
+     * join_count is incremented by each entry's coalesced join total.
+     * @param visits Coalesced player activity, at most one entry per UUID
+     */
+    public void updatePlayerData(List<PlayerVisit> visits) throws SQLException {
+        if (visits.isEmpty()) {
+            return;
+        }
+
+        try (Timer.Sample timing = time("update_players");
+             Connection conn = getConnection()) {
+            for (int from = 0; from < visits.size(); from += PLAYER_UPSERT_CHUNK) {
+                List<PlayerVisit> chunk = visits.subList(from, Math.min(from + PLAYER_UPSERT_CHUNK, visits.size()));
+                String sql = "INSERT INTO minehub_players (uuid, username, last_server, last_join, join_count) VALUES "
+                    + String.join(",", Collections.nCopies(chunk.size(), "(?, ?, ?, CURRENT_TIMESTAMP, ?)"))
+                    + """
+                     ON DUPLICATE KEY UPDATE
+                    username = VALUES(username),
+                    last_server = VALUES(last_server),
+                    last_join = CURRENT_TIMESTAMP,
+                    join_count = join_count + VALUES(join_count)
+                    """;
+
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    int index = 1;
+                    for (PlayerVisit visit : chunk) {
+                        stmt.setString(index++, visit.uuid().toString());
+                        stmt.setString(index++, visit.username());
+                        stmt.setString(index++, visit.lastServer());
+                        stmt.setInt(index++, visit.joins());
+                    }
+                    stmt.executeUpdate();
+                }
+            }
+        }
+    }
+
     public void close() {
         if (dataSource != null && !dataSource.isClosed()) {
             dataSource.close();
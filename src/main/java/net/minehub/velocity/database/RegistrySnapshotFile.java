@@ -0,0 +1,178 @@
+package net.minehub.velocity.database;
+
+import net.minehub.velocity.models.ServerChanges;
+import net.minehub.velocity.models.ServerInfo;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Local binary copy of the server registry, used to register servers at boot before the
+ * database is reachable. The file is a fixed header, one length-prefixed record per server
+ * and a CRC32 trailer; it is written to a temporary file and atomically moved into place,
+ * and read through a memory map. A missing, truncated or corrupt file is treated as absent.
+ */
+public class RegistrySnapshotFile {
+
+    private static final int MAGIC = 0x4D485253; // "MHRS"
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_SIZE = 4 + 4 + 8 + 4;
+
+    private final Path file;
+
+    public RegistrySnapshotFile(Path file) {
+        this.file = file;
+    }
+
+    /**
+     * Replace the snapshot on disk
+     * @param revision Registry revision the servers correspond to
+     * @param servers All servers in the registry
+     */
+    public void write(long revision, Collection<ServerInfo> servers) throws IOException {
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        CRC32 crc = new CRC32();
+
+        try {
+            try (OutputStream fileOut = Files.newOutputStream(temp);
+                 DataOutputStream out = new DataOutputStream(new CheckedOutputStream(new BufferedOutputStream(fileOut, 1 << 16), crc))) {
+
+                out.writeInt(MAGIC);
+                out.writeInt(FORMAT_VERSION);
+                out.writeLong(revision);
+                out.writeInt(servers.size());
+
+                for (ServerInfo server : servers) {
+                    writeString(out, server.getName());
+                    writeString(out, server.getHost());
+                    out.writeInt(server.getPort());
+                    out.writeLong(server.getOwnerUuid().getMostSignificantBits());
+                    out.writeLong(server.getOwnerUuid().getLeastSignificantBits());
+                    writeString(out, server.getOwnerName());
+                    writeString(out, server.getDescription());
+                    out.writeInt(server.getMaxPlayers());
+                    out.writeInt(server.getOnlinePlayers());
+                    writeString(out, server.getVersion());
+                    out.writeBoolean(server.isOnline());
+                    out.writeLong(server.getCreatedAt().toEpochSecond(ZoneOffset.UTC));
+                    out.writeLong(server.getLastSeen().toEpochSecond(ZoneOffset.UTC));
+                }
+
+                // The trailer itself is not part of the checksum
+                out.flush();
+                long checksum = crc.getValue();
+                DataOutputStream trailer = new DataOutputStream(fileOut);
+                trailer.writeLong(checksum);
+                trailer.flush();
+            }
+
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | RuntimeException e) {
+            // Don't leave a partial file behind; the previous snapshot stays in place
+            try {
+                Files.deleteIfExists(temp);
+            } catch (IOException suppressed) {
+                e.addSuppressed(suppressed);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Read the snapshot
+     * @return The stored servers and their revision, empty if there is no valid snapshot
+     */
+    public Optional<ServerChanges> read() throws IOException {
+        if (!Files.isRegularFile(file)) {
+            return Optional.empty();
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_SIZE + 8 || size > Integer.MAX_VALUE) {
+                return Optional.empty();
+            }
+
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            int payloadSize = (int) size - 8;
+
+            CRC32 crc = new CRC32();
+            crc.update(buffer.duplicate().limit(payloadSize));
+            if (crc.getValue() != buffer.getLong(payloadSize)) {
+                return Optional.empty();
+            }
+
+            buffer.limit(payloadSize);
+            if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT_VERSION) {
+                return Optional.empty();
+            }
+
+            long revision = buffer.getLong();
+            int count = buffer.getInt();
+            List<ServerInfo> servers = new ArrayList<>(count);
+
+            for (int i = 0; i < count; i++) {
+                String name = readString(buffer);
+                String host = readString(buffer);
+                int port = buffer.getInt();
+                UUID owner = new UUID(buffer.getLong(), buffer.getLong());
+                String ownerName = readString(buffer);
+                String description = readString(buffer);
+                int maxPlayers = buffer.getInt();
+                int onlinePlayers = buffer.getInt();
+                String version = readString(buffer);
+                boolean online = buffer.get() != 0;
+                LocalDateTime createdAt = LocalDateTime.ofEpochSecond(buffer.getLong(), 0, ZoneOffset.UTC);
+                LocalDateTime lastSeen = LocalDateTime.ofEpochSecond(buffer.getLong(), 0, ZoneOffset.UTC);
+
+                servers.add(new ServerInfo(name, host, port, owner, ownerName, description, maxPlayers,
+                        onlinePlayers, version, online, createdAt, lastSeen));
+            }
+
+            return Optional.of(new ServerChanges(revision, servers, List.of()));
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0 || length > buffer.remaining()) {
+            throw new IllegalArgumentException("Corrupt string length " + length);
+        }
+
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
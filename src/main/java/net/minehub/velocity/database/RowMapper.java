@@ -0,0 +1,16 @@
+package net.minehub.velocity.database;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Maps the current row of a result set to an object.
+ * Mappers read columns by index, so they are tied to the column order of the query they
+ * are used with, and they ignore any trailing columns the query selects after theirs.
+ * @param <T> Mapped type
+ */
+@FunctionalInterface
+public interface RowMapper<T> {
+
+    T map(ResultSet rs) throws SQLException;
+}
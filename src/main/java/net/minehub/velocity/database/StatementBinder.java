@@ -0,0 +1,15 @@
+package net.minehub.velocity.database;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+/**
+ * Sets the parameters of a prepared statement.
+ */
+@FunctionalInterface
+public interface StatementBinder {
+
+    StatementBinder NONE = stmt -> { };
+
+    void bind(PreparedStatement stmt) throws SQLException;
+}
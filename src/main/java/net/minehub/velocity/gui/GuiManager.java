@@ -2,6 +2,7 @@ package net.minehub.velocity.gui;
 
 import com.velocitypowered.api.proxy.Player;
 import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.JoinConfiguration;
 import net.kyori.adventure.text.format.NamedTextColor;
 import net.minehub.velocity.models.ServerInfo;
 import net.minehub.velocity.services.ServerManagementService;
@@ -15,10 +16,14 @@ import java.util.List;
  * This would require a separate hub server with GUI capabilities.
  */
 public class GuiManager {
+    private static final int SELECTOR_PAGE_SIZE = 8;
+
     private final ServerManagementService serverManagementService;
+    private final ServerListRenderer selectorRenderer;
 
     public GuiManager(ServerManagementService serverManagementService) {
         this.serverManagementService = serverManagementService;
+        this.selectorRenderer = createSelectorRenderer();
     }
 
     /**
@@ -27,43 +32,50 @@ public class GuiManager {
      * @param player The player to show the GUI to
      */
     public void openServerSelector(Player player) {
-        List<ServerInfo> servers = serverManagementService.getAllManagedServers();
-
-        player.sendMessage(Component.empty());
-        player.sendMessage(Component.text("━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━").color(NamedTextColor.GRAY));
-        player.sendMessage(Component.text("           MineHub Server Selector").color(NamedTextColor.GOLD));
-        player.sendMessage(Component.text("━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━").color(NamedTextColor.GRAY));
-        player.sendMessage(Component.empty());
-
-        if (servers.isEmpty()) {
-            player.sendMessage(Component.text("  No servers are currently available.").color(NamedTextColor.RED));
-        } else {
-            int index = 1;
-            for (ServerInfo server : servers) {
-                Component statusIcon = server.isOnline() 
-                    ? Component.text("✓").color(NamedTextColor.GREEN)
-                    : Component.text("✗").color(NamedTextColor.RED);
-
-                Component serverLine = Component.text("  " + index + ". ")
-                    .color(NamedTextColor.GRAY)
-                    .append(statusIcon)
-                    .append(Component.text(" " + server.getName()).color(NamedTextColor.WHITE))
-                    .append(Component.text(" (" + server.getAddress() + ")").color(NamedTextColor.GRAY));
-
-                player.sendMessage(serverLine);
-
-                if (!server.getDescription().isEmpty()) {
-                    player.sendMessage(Component.text("     " + server.getDescription()).color(NamedTextColor.DARK_GRAY));
-                }
+        openServerSelector(player, 1);
+    }
 
-                index++;
-            }
-        }
+    /**
+     * Opens one page of the server selector, sent as a single message
+     * @param player The player to show the GUI to
+     * @param page 1-based page number
+     */
+    public void openServerSelector(Player player, int page) {
+        player.sendMessage(selectorRenderer.render(serverManagementService.getRegistrySnapshot(), page));
+    }
 
-        player.sendMessage(Component.empty());
-        player.sendMessage(Component.text("  Use /minehub connect <server> to join a server").color(NamedTextColor.YELLOW));
-        player.sendMessage(Component.text("━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━").color(NamedTextColor.GRAY));
-        player.sendMessage(Component.empty());
+    private static ServerListRenderer createSelectorRenderer() {
+        Component header = Component.join(JoinConfiguration.newlines(),
+                Component.empty(),
+                Component.text("━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━").color(NamedTextColor.GRAY),
+                Component.text("           MineHub Server Selector").color(NamedTextColor.GOLD),
+                Component.text("━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━").color(NamedTextColor.GRAY),
+                Component.empty());
+        Component footer = Component.join(JoinConfiguration.newlines(),
+                Component.empty(),
+                Component.text("  Use /minehub connect <server> to join a server").color(NamedTextColor.YELLOW),
+                Component.text("━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━").color(NamedTextColor.GRAY),
+                Component.empty());
+
+        return new ServerListRenderer(header, footer,
+                Component.text("  No servers are currently available.").color(NamedTextColor.RED),
+                SELECTOR_PAGE_SIZE, true, server -> {
+                    Component statusIcon = server.isOnline()
+                        ? Component.text("✓").color(NamedTextColor.GREEN)
+                        : Component.text("✗").color(NamedTextColor.RED);
+
+                    Component serverLine = statusIcon
+                        .append(Component.text(" " + server.getName()).color(NamedTextColor.WHITE))
+                        .append(Component.text(" (" + server.getAddress() + ")").color(NamedTextColor.GRAY))
+                        .append(Component.text(" " + server.getOnlinePlayers() + "/" + server.getMaxPlayers()).color(NamedTextColor.DARK_GRAY));
+
+                    if (!server.getDescription().isEmpty()) {
+                        serverLine = serverLine
+                            .append(Component.newline())
+                            .append(Component.text("     " + server.getDescription()).color(NamedTextColor.DARK_GRAY));
+                    }
+                    return serverLine;
+                });
     }
 
     /**
@@ -71,10 +83,7 @@ public class GuiManager {
      * @param player The player to show the GUI to
      */
     public void openServerManagement(Player player) {
-        List<ServerInfo> ownedServers = serverManagementService.getAllManagedServers()
-            .stream()
-            .filter(server -> server.getOwnerUuid().equals(player.getUniqueId()))
-            .toList();
+        List<ServerInfo> ownedServers = serverManagementService.getServersByOwner(player.getUniqueId());
 
         player.sendMessage(Component.empty());
         player.sendMessage(Component.text("━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━").color(NamedTextColor.GRAY));
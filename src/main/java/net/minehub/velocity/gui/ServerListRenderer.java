@@ -0,0 +1,149 @@
+package net.minehub.velocity.gui;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.JoinConfiguration;
+import net.kyori.adventure.text.format.NamedTextColor;
+import net.minehub.velocity.models.ServerInfo;
+import net.minehub.velocity.services.RegistrySnapshot;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+/**
+ * Render cache for paginated server lists.
+ * Each server's line is built once and reused until that server's status, description or
+ * player count changes. Whole pages are cached per registry snapshot version, so repeated
+ * requests for the same page return the same pre-joined component that can be sent as a
+ * single chat message.
+ */
+public class ServerListRenderer {
+
+    private final Component header;
+    private final Component footer;
+    private final Component emptyMessage;
+    private final int pageSize;
+    private final boolean numbered;
+    private final Function<ServerInfo, Component> lineRenderer;
+
+    private final ConcurrentMap<String, CachedLine> lines = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Integer, CachedPage> pages = new ConcurrentHashMap<>();
+    private volatile long pagesVersion = -1;
+
+    /**
+     * @param header Lines shown above the server list
+     * @param footer Lines shown below the page indicator
+     * @param emptyMessage Line shown when there are no servers
+     * @param pageSize Servers per page
+     * @param numbered Whether to prefix each line with its position in the full list
+     * @param lineRenderer Builds the line for one server; only called when the server changed
+     */
+    public ServerListRenderer(Component header, Component footer, Component emptyMessage, int pageSize,
+                              boolean numbered, Function<ServerInfo, Component> lineRenderer) {
+        this.header = header;
+        this.footer = footer;
+        this.emptyMessage = emptyMessage;
+        this.pageSize = Math.max(1, pageSize);
+        this.numbered = numbered;
+        this.lineRenderer = lineRenderer;
+    }
+
+    /**
+     * Get one page of the list as a single component
+     * @param snapshot Registry snapshot to render
+     * @param page 1-based page number, clamped to the valid range
+     * @return The rendered page
+     */
+    public Component render(RegistrySnapshot snapshot, int page) {
+        int pageCount = getPageCount(snapshot);
+        int current = Math.min(Math.max(page, 1), pageCount);
+
+        if (pagesVersion != snapshot.version()) {
+            synchronized (pages) {
+                if (pagesVersion != snapshot.version()) {
+                    pages.clear();
+                    pruneLines(snapshot);
+                    pagesVersion = snapshot.version();
+                }
+            }
+        }
+
+        CachedPage cached = pages.get(current);
+        if (cached != null && cached.version() == snapshot.version()) {
+            return cached.component();
+        }
+
+        Component rendered = buildPage(snapshot.ordered(), current, pageCount);
+        pages.put(current, new CachedPage(snapshot.version(), rendered));
+        return rendered;
+    }
+
+    /**
+     * @return Number of pages for the snapshot, at least 1
+     */
+    public int getPageCount(RegistrySnapshot snapshot) {
+        return Math.max(1, (snapshot.size() + pageSize - 1) / pageSize);
+    }
+
+    private Component buildPage(List<ServerInfo> servers, int page, int pageCount) {
+        List<Component> parts = new ArrayList<>(pageSize + 3);
+        parts.add(header);
+
+        if (servers.isEmpty()) {
+            parts.add(emptyMessage);
+        } else {
+            int from = (page - 1) * pageSize;
+            int to = Math.min(from + pageSize, servers.size());
+            for (int i = from; i < to; i++) {
+                Component line = line(servers.get(i));
+                parts.add(numbered
+                        ? Component.text("  " + (i + 1) + ". ", NamedTextColor.GRAY).append(line)
+                        : line);
+            }
+        }
+
+        if (pageCount > 1) {
+            parts.add(Component.text("Page " + page + "/" + pageCount, NamedTextColor.GRAY));
+        }
+        parts.add(footer);
+        return Component.join(JoinConfiguration.newlines(), parts);
+    }
+
+    private Component line(ServerInfo server) {
+        String key = server.getName().toLowerCase(Locale.ROOT);
+        Fingerprint fingerprint = Fingerprint.of(server);
+
+        CachedLine cached = lines.get(key);
+        if (cached != null && cached.fingerprint().equals(fingerprint)) {
+            return cached.component();
+        }
+
+        Component component = lineRenderer.apply(server);
+        lines.put(key, new CachedLine(fingerprint, component));
+        return component;
+    }
+
+    private void pruneLines(RegistrySnapshot snapshot) {
+        // Removed servers only leave stale entries behind, so trimming them on a version change is enough
+        if (lines.size() > snapshot.size()) {
+            lines.keySet().removeIf(key -> snapshot.get(key) == null);
+        }
+    }
+
+    private record Fingerprint(String name, String address, boolean online, String description,
+                               int onlinePlayers, int maxPlayers) {
+        static Fingerprint of(ServerInfo server) {
+            return new Fingerprint(server.getName(), server.getAddress(), server.isOnline(),
+                    server.getDescription(), server.getOnlinePlayers(), server.getMaxPlayers());
+        }
+    }
+
+    private record CachedLine(Fingerprint fingerprint, Component component) {
+    }
+
+    private record CachedPage(long version, Component component) {
+    }
+}
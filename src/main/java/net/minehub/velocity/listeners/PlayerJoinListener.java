@@ -1,19 +1,34 @@
 package net.minehub.velocity.listeners;
 
 import com.velocitypowered.api.event.Subscribe;
+import com.velocitypowered.api.event.connection.DisconnectEvent;
 import com.velocitypowered.api.event.connection.LoginEvent;
+import com.velocitypowered.api.event.player.PlayerChooseInitialServerEvent;
 import com.velocitypowered.api.event.player.ServerConnectedEvent;
 import com.velocitypowered.api.proxy.Player;
+import net.minehub.velocity.services.ConnectionQueue;
+import net.minehub.velocity.services.LobbyBalancer;
+import net.minehub.velocity.services.PlayerCounts;
+import net.minehub.velocity.services.PlayerTrackingService;
 import net.minehub.velocity.services.ServerManagementService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 public class PlayerJoinListener {
     private final ServerManagementService serverManagementService;
+    private final PlayerTrackingService playerTrackingService;
+    private final LobbyBalancer lobbyBalancer;
+    private final PlayerCounts playerCounts;
+    private final ConnectionQueue connectionQueue;
     private final Logger logger = LoggerFactory.getLogger(PlayerJoinListener.class);
 
-    public PlayerJoinListener(ServerManagementService serverManagementService) {
+    public PlayerJoinListener(ServerManagementService serverManagementService, PlayerTrackingService playerTrackingService,
+                              LobbyBalancer lobbyBalancer, PlayerCounts playerCounts, ConnectionQueue connectionQueue) {
         this.serverManagementService = serverManagementService;
+        this.playerTrackingService = playerTrackingService;
+        this.lobbyBalancer = lobbyBalancer;
+        this.playerCounts = playerCounts;
+        this.connectionQueue = connectionQueue;
     }
 
     @Subscribe
@@ -25,16 +40,43 @@ public class PlayerJoinListener {
             player.getUsername(), player.getUniqueId());
     }
 
+    @Subscribe
+    public void onChooseInitialServer(PlayerChooseInitialServerEvent event) {
+        // Leave forced hosts and other plugins' picks alone; only spread players headed for a lobby
+        if (event.getInitialServer().isPresent()
+                && !lobbyBalancer.isLobby(event.getInitialServer().get().getServerInfo().getName())) {
+            return;
+        }
+
+        // Without a usable lobby, Velocity's own try list decides
+        lobbyBalancer.chooseLobby().ifPresent(event::setInitialServer);
+    }
+
     @Subscribe
     public void onServerConnected(ServerConnectedEvent event) {
         Player player = event.getPlayer();
         String serverName = event.getServer().getServerInfo().getName();
 
-        // Update player data in database
-        // This is done asynchronously to avoid blocking the main thread
-        // TODO: Implement database update for player tracking
+        playerCounts.playerJoined(serverName);
+        connectionQueue.playerConnected(player.getUniqueId(), serverName);
+        event.getPreviousServer().ifPresent(previous -> serverLeft(previous.getServerInfo().getName()));
+
+        // Buffered and written in batches, never blocks the event thread
+        playerTrackingService.recordServerConnect(player.getUniqueId(), player.getUsername(), serverName);
 
         logger.debug("Player {} connected to server {}", 
             player.getUsername(), serverName);
     }
+
+    @Subscribe
+    public void onDisconnect(DisconnectEvent event) {
+        Player player = event.getPlayer();
+        connectionQueue.leave(player.getUniqueId());
+        player.getCurrentServer().ifPresent(connection -> serverLeft(connection.getServerInfo().getName()));
+    }
+
+    private void serverLeft(String serverName) {
+        playerCounts.playerLeft(serverName);
+        connectionQueue.slotFreed(serverName);
+    }
 }
\ No newline at end of file
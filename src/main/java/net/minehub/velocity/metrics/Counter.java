@@ -0,0 +1,55 @@
+package net.minehub.velocity.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free event counter with a running total and rolling-window rates
+ */
+public final class Counter {
+
+    private final String name;
+    private final LongAdder total = new LongAdder();
+    private final AtomicLongArray slots = new AtomicLongArray(SlotRing.SLOTS);
+    private final SlotRing ring = new SlotRing();
+
+    Counter(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void increment() {
+        add(1);
+    }
+
+    public void add(long amount) {
+        total.add(amount);
+        slots.addAndGet(ring.current(System.nanoTime(), index -> slots.set(index, 0)), amount);
+    }
+
+    /**
+     * @param window Window to count over
+     * @return Events in the window
+     */
+    public long count(Window window) {
+        if (window == Window.ALL) {
+            return total.sum();
+        }
+
+        long[] sum = new long[1];
+        ring.forEach(System.nanoTime(), window, index -> sum[0] += slots.get(index));
+        return sum[0];
+    }
+
+    /**
+     * @param window Window to average over
+     * @return Events per second in the window
+     */
+    public double rate(Window window) {
+        long now = System.nanoTime();
+        return count(window) / ring.coveredSeconds(now, window);
+    }
+}
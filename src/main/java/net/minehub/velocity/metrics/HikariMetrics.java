@@ -0,0 +1,55 @@
+package net.minehub.velocity.metrics;
+
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Feeds HikariCP's pool events into a {@link MetricsRegistry}: how long callers wait for a
+ * connection, how long they hold it, timeouts, and the pool's current size.
+ */
+public class HikariMetrics implements MetricsTrackerFactory {
+
+    private final MetricsRegistry metrics;
+
+    public HikariMetrics(MetricsRegistry metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public IMetricsTracker create(String poolName, PoolStats poolStats) {
+        metrics.gauge("db.pool.active", poolStats::getActiveConnections);
+        metrics.gauge("db.pool.idle", poolStats::getIdleConnections);
+        metrics.gauge("db.pool.total", poolStats::getTotalConnections);
+        metrics.gauge("db.pool.pending", poolStats::getPendingThreads);
+
+        Timer wait = metrics.timer("db.pool.wait");
+        Timer usage = metrics.timer("db.pool.usage");
+        Timer created = metrics.timer("db.pool.connect");
+        Counter timeouts = metrics.counter("db.pool.timeouts");
+
+        return new IMetricsTracker() {
+            @Override
+            public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+                wait.record(elapsedAcquiredNanos);
+            }
+
+            @Override
+            public void recordConnectionUsageMillis(long elapsedBorrowedMillis) {
+                usage.record(TimeUnit.MILLISECONDS.toNanos(elapsedBorrowedMillis));
+            }
+
+            @Override
+            public void recordConnectionCreatedMillis(long connectionCreatedMillis) {
+                created.record(TimeUnit.MILLISECONDS.toNanos(connectionCreatedMillis));
+            }
+
+            @Override
+            public void recordConnectionTimeout() {
+                timeouts.increment();
+            }
+        };
+    }
+}
@@ -0,0 +1,70 @@
+package net.minehub.velocity.metrics;
+
+import java.util.Collections;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Named timers, counters and gauges for the plugin's own operations.
+ * Metrics are created on first use and live for the lifetime of the plugin; names are
+ * dotted, e.g. "db.add_server" or "ping.status".
+ */
+public class MetricsRegistry {
+
+    private final ConcurrentMap<String, Timer> timers = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Counter> counters = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, LongSupplier> gauges = new ConcurrentHashMap<>();
+
+    /**
+     * @param name Timer name
+     * @return The timer, created if it doesn't exist yet
+     */
+    public Timer timer(String name) {
+        Timer timer = timers.get(name);
+        return timer != null ? timer : timers.computeIfAbsent(name, Timer::new);
+    }
+
+    /**
+     * @param name Counter name
+     * @return The counter, created if it doesn't exist yet
+     */
+    public Counter counter(String name) {
+        Counter counter = counters.get(name);
+        return counter != null ? counter : counters.computeIfAbsent(name, Counter::new);
+    }
+
+    /**
+     * Register a value that is read when metrics are reported, replacing any gauge with the same name
+     * @param name Gauge name
+     * @param value Supplies the current value
+     */
+    public void gauge(String name, LongSupplier value) {
+        gauges.put(name, value);
+    }
+
+    /**
+     * @return All timers sorted by name
+     */
+    public SortedMap<String, Timer> getTimers() {
+        return Collections.unmodifiableSortedMap(new TreeMap<>(timers));
+    }
+
+    /**
+     * @return All counters sorted by name
+     */
+    public SortedMap<String, Counter> getCounters() {
+        return Collections.unmodifiableSortedMap(new TreeMap<>(counters));
+    }
+
+    /**
+     * @return Current value of every gauge, sorted by name
+     */
+    public SortedMap<String, Long> readGauges() {
+        SortedMap<String, Long> values = new TreeMap<>();
+        gauges.forEach((name, gauge) -> values.put(name, gauge.getAsLong()));
+        return values;
+    }
+}
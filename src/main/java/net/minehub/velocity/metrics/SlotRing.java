@@ -0,0 +1,78 @@
+package net.minehub.velocity.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.IntConsumer;
+
+/**
+ * Clock for rolling windows: time is cut into 10 second slots and the last few are kept in
+ * a ring. A slot is reused once its epoch has passed out of the longest window; the thread
+ * that claims it clears it, so a value recorded by another thread during that instant can
+ * be lost. That is accepted in exchange for never taking a lock.
+ */
+final class SlotRing {
+
+    static final long SLOT_NANOS = TimeUnit.SECONDS.toNanos(10);
+    // Five minutes plus the slot in progress
+    static final int SLOTS = (int) (TimeUnit.MINUTES.toNanos(5) / SLOT_NANOS) + 1;
+
+    private final long createdNanos = System.nanoTime();
+    private final AtomicLongArray epochs = new AtomicLongArray(SLOTS);
+
+    SlotRing() {
+        for (int i = 0; i < SLOTS; i++) {
+            epochs.set(i, Long.MIN_VALUE);
+        }
+    }
+
+    /**
+     * Find the slot for the current time, clearing it first if it held an older epoch
+     * @param now Current {@link System#nanoTime()}
+     * @param reset Clears the slot with the given index
+     * @return Index of the current slot
+     */
+    int current(long now, IntConsumer reset) {
+        long epoch = Math.floorDiv(now, SLOT_NANOS);
+        int index = (int) Math.floorMod(epoch, (long) SLOTS);
+        long seen = epochs.get(index);
+        if (seen != epoch && epochs.compareAndSet(index, seen, epoch)) {
+            reset.accept(index);
+        }
+        return index;
+    }
+
+    /**
+     * Visit the slots inside a window, including the one in progress
+     * @param now Current {@link System#nanoTime()}
+     * @param window Must not be {@link Window#ALL}
+     * @param action Called with each slot index
+     */
+    void forEach(long now, Window window, IntConsumer action) {
+        long epoch = Math.floorDiv(now, SLOT_NANOS);
+        long oldest = epoch - slots(window) + 1;
+        for (int i = 0; i < SLOTS; i++) {
+            long slotEpoch = epochs.get(i);
+            if (slotEpoch >= oldest && slotEpoch <= epoch) {
+                action.accept(i);
+            }
+        }
+    }
+
+    /**
+     * @return Seconds of data a window actually covers, shorter right after startup
+     */
+    double coveredSeconds(long now, Window window) {
+        long sinceStart = now - createdNanos;
+        if (window == Window.ALL) {
+            return Math.max(sinceStart, 1) / 1e9;
+        }
+
+        long intoSlot = Math.floorMod(now, SLOT_NANOS);
+        long covered = (slots(window) - 1) * SLOT_NANOS + intoSlot;
+        return Math.max(Math.min(covered, sinceStart), 1) / 1e9;
+    }
+
+    private static int slots(Window window) {
+        return (int) Math.min(SLOTS, TimeUnit.SECONDS.toNanos(window.getSeconds()) / SLOT_NANOS);
+    }
+}
@@ -0,0 +1,92 @@
+package net.minehub.velocity.metrics;
+
+/**
+ * Records how long an operation takes, both since startup and over rolling windows.
+ * Recording is lock-free and allocation-free apart from the {@link Sample} handle.
+ */
+public final class Timer {
+
+    private final String name;
+    private final LatencyHistogram total = new LatencyHistogram();
+    private final LatencyHistogram[] slots = new LatencyHistogram[SlotRing.SLOTS];
+    private final SlotRing ring = new SlotRing();
+
+    Timer(String name) {
+        this.name = name;
+        for (int i = 0; i < slots.length; i++) {
+            slots[i] = new LatencyHistogram();
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @param nanos Duration of one call
+     */
+    public void record(long nanos) {
+        total.record(nanos);
+        slots[ring.current(System.nanoTime(), index -> slots[index].reset())].record(nanos);
+    }
+
+    /**
+     * @param startNanos {@link System#nanoTime()} taken when the call started
+     */
+    public void recordSince(long startNanos) {
+        record(System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Start timing a call; closing the sample records it, so it fits try-with-resources
+     * @return The running sample
+     */
+    public Sample start() {
+        return new Sample(this, System.nanoTime());
+    }
+
+    /**
+     * Summarize the calls recorded in a window
+     * @param window Window to report
+     * @return Count, rate and latency percentiles
+     */
+    public TimerSnapshot snapshot(Window window) {
+        long now = System.nanoTime();
+        long[] counts = new long[LatencyHistogram.BUCKETS];
+        long[] max = new long[1];
+
+        if (window == Window.ALL) {
+            max[0] = total.addTo(counts);
+        } else {
+            ring.forEach(now, window, index -> max[0] = Math.max(max[0], slots[index].addTo(counts)));
+        }
+
+        long count = 0;
+        for (long bucket : counts) {
+            count += bucket;
+        }
+
+        return new TimerSnapshot(count, count / ring.coveredSeconds(now, window),
+                LatencyHistogram.valueAt(counts, count, 50, max[0]),
+                LatencyHistogram.valueAt(counts, count, 99, max[0]),
+                max[0]);
+    }
+
+    /**
+     * A call being timed
+     */
+    public static final class Sample implements AutoCloseable {
+        private final Timer timer;
+        private final long startNanos;
+
+        private Sample(Timer timer, long startNanos) {
+            this.timer = timer;
+            this.startNanos = startNanos;
+        }
+
+        @Override
+        public void close() {
+            timer.recordSince(startNanos);
+        }
+    }
+}
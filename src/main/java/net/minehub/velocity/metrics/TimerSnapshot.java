@@ -0,0 +1,12 @@
+package net.minehub.velocity.metrics;
+
+/**
+ * Latency summary of a {@link Timer} over one window. Latencies are in nanoseconds.
+ * @param count Number of recorded calls
+ * @param ratePerSecond Calls per second over the window
+ * @param p50 Median latency
+ * @param p99 99th percentile latency
+ * @param max Largest latency
+ */
+public record TimerSnapshot(long count, double ratePerSecond, long p50, long p99, long max) {
+}
@@ -0,0 +1,45 @@
+package net.minehub.velocity.metrics;
+
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * Time range a metric is reported over
+ */
+public enum Window {
+    ONE_MINUTE("1m", 60),
+    FIVE_MINUTES("5m", 300),
+    ALL("all", 0);
+
+    private final String label;
+    private final int seconds;
+
+    Window(String label, int seconds) {
+        this.label = label;
+        this.seconds = seconds;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    /**
+     * @return Length in seconds, 0 for everything since startup
+     */
+    public int getSeconds() {
+        return seconds;
+    }
+
+    /**
+     * @param label e.g. "1m"
+     * @return The window with that label, if any
+     */
+    public static Optional<Window> fromLabel(String label) {
+        for (Window window : values()) {
+            if (window.label.equals(label.toLowerCase(Locale.ROOT))) {
+                return Optional.of(window);
+            }
+        }
+        return Optional.empty();
+    }
+}
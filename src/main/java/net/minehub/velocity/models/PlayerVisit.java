@@ -0,0 +1,17 @@
+package net.minehub.velocity.models;
+
+import java.util.UUID;
+
+/**
+ * Coalesced player activity waiting to be written to minehub_players.
+ * @param uuid Player UUID
+ * @param username Latest known username
+ * @param lastServer Latest server the player connected to
+ * @param joins Number of server connections folded into this entry
+ */
+public record PlayerVisit(UUID uuid, String username, String lastServer, int joins) {
+
+    public PlayerVisit merge(PlayerVisit newer) {
+        return new PlayerVisit(uuid, newer.username, newer.lastServer, joins + newer.joins);
+    }
+}
@@ -0,0 +1,36 @@
+package net.minehub.velocity.models;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.zip.CRC32;
+
+/**
+ * Order-independent fingerprint of the server registry, comparable between a proxy's
+ * memory and the database: the row count plus the sum of CRC32("name:host:port") per row.
+ * @param revision Registry revision the checksum was taken at
+ * @param count Number of servers
+ * @param sum Sum of the per-server CRC32 values
+ */
+public record RegistryChecksum(long revision, int count, long sum) {
+
+    /**
+     * Compute the checksum of servers held in memory, matching the SQL side
+     * @param revision Revision the servers are synced to
+     * @param servers Servers to include
+     * @return The checksum
+     */
+    public static RegistryChecksum of(long revision, Collection<ServerInfo> servers) {
+        CRC32 crc = new CRC32();
+        long sum = 0;
+        for (ServerInfo server : servers) {
+            crc.reset();
+            crc.update((server.getName() + ":" + server.getHost() + ":" + server.getPort()).getBytes(StandardCharsets.UTF_8));
+            sum += crc.getValue();
+        }
+        return new RegistryChecksum(revision, servers.size(), sum);
+    }
+
+    public boolean matches(RegistryChecksum other) {
+        return count == other.count && sum == other.sum;
+    }
+}
@@ -0,0 +1,17 @@
+package net.minehub.velocity.models;
+
+import java.util.List;
+
+/**
+ * Registry rows changed in the database since a given revision.
+ * A name appears at most once, in whichever list reflects its latest state.
+ * @param revision Registry revision the changes bring the reader up to
+ * @param upserts Servers added or modified
+ * @param removals Names of servers deleted
+ */
+public record ServerChanges(long revision, List<ServerInfo> upserts, List<String> removals) {
+
+    public boolean isEmpty() {
+        return upserts.isEmpty() && removals.isEmpty();
+    }
+}
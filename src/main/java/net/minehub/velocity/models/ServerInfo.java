@@ -3,31 +3,45 @@ package net.minehub.velocity.models;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
-public class ServerInfo {
-    private String name;
-    private String host;
-    private int port;
-    private UUID ownerUuid;
-    private String ownerName;
-    private String description;
-    private int maxPlayers;
-    private String version;
-    private boolean isOnline;
-    private LocalDateTime createdAt;
-    private LocalDateTime lastSeen;
+/**
+ * Immutable description of a player-added server.
+ * Instances are shared between readers and the background status updates, so changes
+ * are made by creating a modified copy with one of the {@code with...} methods.
+ */
+public final class ServerInfo {
+    private final String name;
+    private final String host;
+    private final int port;
+    private final UUID ownerUuid;
+    private final String ownerName;
+    private final String description;
+    private final int maxPlayers;
+    private final int onlinePlayers;
+    private final String version;
+    private final boolean isOnline;
+    private final LocalDateTime createdAt;
+    private final LocalDateTime lastSeen;
 
     public ServerInfo(String name, String host, int port, UUID ownerUuid, String ownerName) {
+        this(name, host, port, ownerUuid, ownerName, "", 20, 0, "Unknown", false,
+                LocalDateTime.now(), LocalDateTime.now());
+    }
+
+    public ServerInfo(String name, String host, int port, UUID ownerUuid, String ownerName,
+                      String description, int maxPlayers, int onlinePlayers, String version, boolean isOnline,
+                      LocalDateTime createdAt, LocalDateTime lastSeen) {
         this.name = name;
         this.host = host;
         this.port = port;
         this.ownerUuid = ownerUuid;
         this.ownerName = ownerName;
-        this.description = "";
-        this.maxPlayers = 20;
-        this.version = "Unknown";
-        this.isOnline = false;
-        this.createdAt = LocalDateTime.now();
-        this.lastSeen = LocalDateTime.now();
+        this.description = description == null ? "" : description;
+        this.maxPlayers = maxPlayers;
+        this.onlinePlayers = onlinePlayers;
+        this.version = version == null ? "Unknown" : version;
+        this.isOnline = isOnline;
+        this.createdAt = createdAt;
+        this.lastSeen = lastSeen;
     }
 
     // Getters
@@ -38,23 +52,27 @@ public class ServerInfo {
     public String getOwnerName() { return ownerName; }
     public String getDescription() { return description; }
     public int getMaxPlayers() { return maxPlayers; }
+    public int getOnlinePlayers() { return onlinePlayers; }
     public String getVersion() { return version; }
     public boolean isOnline() { return isOnline; }
     public LocalDateTime getCreatedAt() { return createdAt; }
     public LocalDateTime getLastSeen() { return lastSeen; }
 
-    // Setters
-    public void setName(String name) { this.name = name; }
-    public void setHost(String host) { this.host = host; }
-    public void setPort(int port) { this.port = port; }
-    public void setOwnerUuid(UUID ownerUuid) { this.ownerUuid = ownerUuid; }
-    public void setOwnerName(String ownerName) { this.ownerName = ownerName; }
-    public void setDescription(String description) { this.description = description; }
-    public void setMaxPlayers(int maxPlayers) { this.maxPlayers = maxPlayers; }
-    public void setVersion(String version) { this.version = version; }
-    public void setOnline(boolean online) { this.isOnline = online; }
-    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
-    public void setLastSeen(LocalDateTime lastSeen) { this.lastSeen = lastSeen; }
+    // Copies
+    public ServerInfo withDescription(String description) {
+        return new ServerInfo(name, host, port, ownerUuid, ownerName, description, maxPlayers, onlinePlayers,
+                version, isOnline, createdAt, lastSeen);
+    }
+
+    public ServerInfo withOnline(boolean online) {
+        return new ServerInfo(name, host, port, ownerUuid, ownerName, description, maxPlayers, onlinePlayers,
+                version, online, createdAt, lastSeen);
+    }
+
+    public ServerInfo withStatus(boolean online, String version, int maxPlayers, int onlinePlayers) {
+        return new ServerInfo(name, host, port, ownerUuid, ownerName, description, maxPlayers, onlinePlayers,
+                version, online, createdAt, lastSeen);
+    }
 
     public String getAddress() {
         return host + ":" + port;
@@ -83,4 +101,4 @@ public class ServerInfo {
     public int hashCode() {
         return name.hashCode();
     }
-}
\ No newline at end of file
+}
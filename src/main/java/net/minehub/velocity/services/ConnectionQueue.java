@@ -0,0 +1,278 @@
+package net.minehub.velocity.services;
+
+import com.velocitypowered.api.proxy.Player;
+import com.velocitypowered.api.proxy.ProxyServer;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.format.NamedTextColor;
+import net.minehub.velocity.config.ConfigManager;
+import net.minehub.velocity.config.PluginSettings;
+import net.minehub.velocity.metrics.Counter;
+import net.minehub.velocity.metrics.MetricsRegistry;
+import net.minehub.velocity.models.ServerInfo;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Waiting line for added servers that are at their max players.
+ * Players connecting to a full server join a FIFO queue instead of being sent to a backend
+ * that will turn them away; players with {@value #PRIORITY_PERMISSION} wait in a line ahead
+ * of everyone else. As players leave the server, waiting players are let in at no more than
+ * queue.admit-per-second, so a freed batch of slots doesn't turn into a connect storm.
+ * Queues are drained when a slot frees up and on every {@link #run()}, which also tells
+ * waiting players their position.
+ */
+public class ConnectionQueue implements Runnable {
+
+    public static final String PRIORITY_PERMISSION = "minehub.queue.priority";
+
+    private static final long ONE_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final ProxyServer proxyServer;
+    private final ServerManagementService serverManagementService;
+    private final PlayerCounts playerCounts;
+    private final ConfigManager configManager;
+    private final Counter joined;
+    private final Counter admitted;
+
+    private final ConcurrentMap<String, ServerQueue> queues = new ConcurrentHashMap<>();
+    // Waiting player -> lowercased name of the server they wait for
+    private final ConcurrentMap<UUID, String> waiting = new ConcurrentHashMap<>();
+    // Only touched by run(), which never overlaps itself
+    private long nextPositionUpdate = System.nanoTime();
+
+    public ConnectionQueue(ProxyServer proxyServer, ServerManagementService serverManagementService,
+                           PlayerCounts playerCounts, ConfigManager configManager, MetricsRegistry metrics) {
+        this.proxyServer = proxyServer;
+        this.serverManagementService = serverManagementService;
+        this.playerCounts = playerCounts;
+        this.configManager = configManager;
+        this.joined = metrics.counter("queue.joined");
+        this.admitted = metrics.counter("queue.admitted");
+        metrics.gauge("queue.waiting", waiting::size);
+    }
+
+    /**
+     * Connect a player to an added server, queueing them if it is full
+     * @param player Player to connect
+     * @param target Online server to connect to
+     */
+    public void connect(Player player, ManagedServer target) {
+        PluginSettings.Queue settings = configManager.getSettings().queue();
+        ServerInfo info = target.info();
+        if (!settings.enabled() || info.getMaxPlayers() <= 0) {
+            sendConnecting(player, info.getName());
+            player.createConnectionRequest(target.registeredServer()).fireAndForget();
+            return;
+        }
+
+        UUID uuid = player.getUniqueId();
+        String key = ServerRegistry.key(info.getName());
+        String previous = waiting.get(uuid);
+        if (previous != null && !previous.equals(key)) {
+            leave(uuid);
+        }
+
+        ServerQueue queue = queues.computeIfAbsent(key, k -> new ServerQueue(k, System.nanoTime()));
+        int position;
+        synchronized (queue) {
+            position = queue.positionOf(uuid);
+            if (position < 0) {
+                if (queue.isEmpty() && freeSlots(queue, target) > 0) {
+                    queue.startAdmission();
+                    position = 0;
+                } else if (queue.size() >= settings.maxLength()) {
+                    player.sendMessage(Component.text("The queue for " + info.getName() + " is full, please try again later!", NamedTextColor.RED));
+                    return;
+                } else {
+                    queue.add(uuid, player.hasPermission(PRIORITY_PERMISSION));
+                    waiting.put(uuid, key);
+                    joined.increment();
+                    position = queue.positionOf(uuid);
+                }
+            }
+        }
+
+        if (position == 0) {
+            admit(player, target, queue);
+        } else {
+            sendPosition(player, info.getName(), position);
+        }
+    }
+
+    /**
+     * Take a player out of the queue they are waiting in
+     * @return Name of the server they were waiting for
+     */
+    public Optional<String> leave(UUID uuid) {
+        String key = waiting.remove(uuid);
+        if (key == null) {
+            return Optional.empty();
+        }
+
+        ServerQueue queue = queues.get(key);
+        if (queue != null) {
+            synchronized (queue) {
+                queue.remove(uuid);
+            }
+        }
+        return Optional.of(serverManagementService.findServer(key).map(server -> server.info().getName()).orElse(key));
+    }
+
+    /**
+     * @return Name of the server the player waits for and their position, if queued
+     */
+    public Optional<Position> getPosition(UUID uuid) {
+        String key = waiting.get(uuid);
+        ServerQueue queue = key != null ? queues.get(key) : null;
+        if (queue == null) {
+            return Optional.empty();
+        }
+
+        int position;
+        synchronized (queue) {
+            position = queue.positionOf(uuid);
+        }
+        if (position < 0) {
+            return Optional.empty();
+        }
+        return Optional.of(new Position(serverManagementService.findServer(key).map(server -> server.info().getName()).orElse(key), position));
+    }
+
+    /**
+     * Called when a player finished connecting to a server
+     */
+    public void playerConnected(UUID uuid, String serverName) {
+        // Got in some other way, e.g. a portal on another server
+        if (ServerRegistry.key(serverName).equals(waiting.get(uuid))) {
+            leave(uuid);
+        }
+    }
+
+    /**
+     * Called when a player left a server; lets the next waiting player in if the rate allows
+     */
+    public void slotFreed(String serverName) {
+        ServerQueue queue = queues.get(ServerRegistry.key(serverName));
+        if (queue != null) {
+            drain(queue, System.nanoTime());
+        }
+    }
+
+    /**
+     * Let in waiting players where slots are free and send position updates when due
+     */
+    @Override
+    public void run() {
+        long now = System.nanoTime();
+        for (ServerQueue queue : queues.values()) {
+            drain(queue, now);
+        }
+
+        if (now - nextPositionUpdate >= 0) {
+            nextPositionUpdate = now + TimeUnit.SECONDS.toNanos(configManager.getSettings().queue().positionUpdateSeconds());
+            queues.values().forEach(this::sendPositions);
+        }
+    }
+
+    private void drain(ServerQueue queue, long now) {
+        Optional<ManagedServer> target = serverManagementService.findServer(queue.key());
+        if (target.isEmpty()) {
+            close(queue);
+            return;
+        }
+        if (!target.get().info().isOnline()) {
+            // Keep waiting; the health checks bring it back
+            return;
+        }
+
+        long spacing = ONE_SECOND / configManager.getSettings().queue().admitPerSecond();
+        List<Player> admitting = null;
+        synchronized (queue) {
+            int free = freeSlots(queue, target.get());
+            while (free > 0 && queue.isAdmissionDue(now) && !queue.isEmpty()) {
+                UUID uuid = queue.poll();
+                waiting.remove(uuid, queue.key());
+                Optional<Player> player = proxyServer.getPlayer(uuid);
+                if (player.isEmpty() || !player.get().isActive()) {
+                    continue;
+                }
+
+                queue.startPacedAdmission(now, spacing);
+                free--;
+                if (admitting == null) {
+                    admitting = new ArrayList<>();
+                }
+                admitting.add(player.get());
+            }
+        }
+
+        if (admitting != null) {
+            for (Player player : admitting) {
+                admitted.increment();
+                admit(player, target.get(), queue);
+            }
+        }
+    }
+
+    private void admit(Player player, ManagedServer target, ServerQueue queue) {
+        sendConnecting(player, target.info().getName());
+        player.createConnectionRequest(target.registeredServer()).connectWithIndication()
+                .whenComplete((connected, e) -> {
+                    synchronized (queue) {
+                        queue.finishAdmission();
+                    }
+                });
+    }
+
+    private void close(ServerQueue queue) {
+        queues.remove(queue.key(), queue);
+
+        List<UUID> players = new ArrayList<>();
+        synchronized (queue) {
+            UUID uuid;
+            while ((uuid = queue.poll()) != null) {
+                players.add(uuid);
+            }
+        }
+
+        for (UUID uuid : players) {
+            waiting.remove(uuid, queue.key());
+            proxyServer.getPlayer(uuid).ifPresent(player -> player.sendMessage(
+                    Component.text("The server you were queued for was removed.", NamedTextColor.RED)));
+        }
+    }
+
+    private void sendPositions(ServerQueue queue) {
+        String name = serverManagementService.findServer(queue.key()).map(server -> server.info().getName()).orElse(queue.key());
+        synchronized (queue) {
+            queue.forEach((uuid, position) -> proxyServer.getPlayer(uuid)
+                    .ifPresent(player -> sendPosition(player, name, position)));
+        }
+    }
+
+    private int freeSlots(ServerQueue queue, ManagedServer target) {
+        ServerInfo info = target.info();
+        return queue.freeSlots(info.getMaxPlayers(), info.getOnlinePlayers(), playerCounts.get(target.registeredServer()));
+    }
+
+    private static void sendConnecting(Player player, String serverName) {
+        player.sendMessage(Component.text("Connecting to " + serverName + "...", NamedTextColor.YELLOW));
+    }
+
+    private static void sendPosition(Player player, String serverName, int position) {
+        player.sendMessage(Component.text(serverName + " is full. You are #" + position + " in the queue.", NamedTextColor.YELLOW));
+    }
+
+    /**
+     * @param server Display name of the server
+     * @param position 1-based position in its queue
+     */
+    public record Position(String server, int position) {
+    }
+}
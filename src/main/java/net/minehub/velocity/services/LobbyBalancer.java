@@ -0,0 +1,128 @@
+package net.minehub.velocity.services;
+
+import com.velocitypowered.api.proxy.ProxyServer;
+import com.velocitypowered.api.proxy.server.RegisteredServer;
+import net.minehub.velocity.config.ConfigManager;
+import net.minehub.velocity.metrics.Counter;
+import net.minehub.velocity.metrics.MetricsRegistry;
+import net.minehub.velocity.models.ServerInfo;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Spreads players over the lobby pool from server.lobby-servers.
+ * Each pick samples two random lobbies and takes the one with fewer players (power of two
+ * choices): constant time however large the pool, and unlike always taking the global
+ * minimum, a burst of logins reading the same counts does not all land on one lobby.
+ * <p>
+ * Player counts come from {@link PlayerCounts}.
+ */
+public class LobbyBalancer {
+
+    private final ProxyServer proxyServer;
+    private final ServerManagementService serverManagementService;
+    private final PlayerCounts playerCounts;
+    private final ConfigManager configManager;
+    private final Counter assignments;
+    private final Counter unavailable;
+
+    public LobbyBalancer(ProxyServer proxyServer, ServerManagementService serverManagementService,
+                         PlayerCounts playerCounts, ConfigManager configManager, MetricsRegistry metrics) {
+        this.proxyServer = proxyServer;
+        this.serverManagementService = serverManagementService;
+        this.playerCounts = playerCounts;
+        this.configManager = configManager;
+        this.assignments = metrics.counter("lobby.assignments");
+        this.unavailable = metrics.counter("lobby.unavailable");
+    }
+
+    /**
+     * Pick a lobby for a player
+     * @return The less loaded of two sampled lobbies that are online and not full, or empty if
+     *         no lobby in the pool can take a player
+     */
+    public Optional<RegisteredServer> chooseLobby() {
+        List<String> pool = configManager.getSettings().server().lobbyServers();
+        int size = pool.size();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        int firstIndex = random.nextInt(size);
+        Lobby first = resolve(pool.get(firstIndex));
+        Lobby second = null;
+        if (size > 1) {
+            // Second sample distinct from the first
+            int secondIndex = random.nextInt(size - 1);
+            second = resolve(pool.get(secondIndex >= firstIndex ? secondIndex + 1 : secondIndex));
+        }
+
+        Lobby chosen = lessLoaded(first, second);
+        if (chosen == null && size > 2) {
+            // Both samples down or full; fall back to the whole pool
+            for (String name : pool) {
+                chosen = lessLoaded(chosen, resolve(name));
+            }
+        }
+
+        if (chosen == null) {
+            unavailable.increment();
+            return Optional.empty();
+        }
+        assignments.increment();
+        return Optional.of(chosen.server());
+    }
+
+    /**
+     * @return true if the server is part of the lobby pool
+     */
+    public boolean isLobby(String serverName) {
+        for (String lobby : configManager.getSettings().server().lobbyServers()) {
+            if (lobby.equalsIgnoreCase(serverName)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Lobby resolve(String name) {
+        RegisteredServer server;
+        int capacity = 0;
+
+        Optional<ManagedServer> managed = serverManagementService.findServer(name);
+        if (managed.isPresent()) {
+            ServerInfo info = managed.get().info();
+            if (!info.isOnline()) {
+                return null;
+            }
+            server = managed.get().registeredServer();
+            capacity = info.getMaxPlayers();
+        } else {
+            // A lobby from velocity.toml; we don't probe those, so treat it as up
+            Optional<RegisteredServer> configured = proxyServer.getServer(name);
+            if (configured.isEmpty()) {
+                return null;
+            }
+            server = configured.get();
+        }
+
+        int load = playerCounts.get(server);
+        if (capacity > 0 && load >= capacity) {
+            return null;
+        }
+        return new Lobby(server, load);
+    }
+
+    private static Lobby lessLoaded(Lobby a, Lobby b) {
+        if (a == null) {
+            return b;
+        }
+        if (b == null) {
+            return a;
+        }
+        return b.players() < a.players() ? b : a;
+    }
+
+    private record Lobby(RegisteredServer server, int players) {
+    }
+}
@@ -0,0 +1,12 @@
+package net.minehub.velocity.services;
+
+import com.velocitypowered.api.proxy.server.RegisteredServer;
+import net.minehub.velocity.models.ServerInfo;
+
+/**
+ * A player-added server together with the handle Velocity returned when it was registered.
+ * @param info Our server model
+ * @param registeredServer Velocity's registered server, used to connect players
+ */
+public record ManagedServer(ServerInfo info, RegisteredServer registeredServer) {
+}
@@ -0,0 +1,75 @@
+package net.minehub.velocity.services;
+
+import com.velocitypowered.api.proxy.ProxyServer;
+import com.velocitypowered.api.proxy.server.RegisteredServer;
+
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Live count of players this proxy has connected to each server, for lobby balancing and
+ * queue admission. Counters are updated from connect and disconnect events, so reading one
+ * never copies Velocity's player list. A server is only tracked once someone asks for its
+ * count; the counter is then seeded from Velocity and periodically corrected by {@link #resync()}.
+ */
+public class PlayerCounts {
+
+    private final ProxyServer proxyServer;
+
+    // Lowercased server name -> players connected
+    private final ConcurrentMap<String, AtomicInteger> counts = new ConcurrentHashMap<>();
+
+    public PlayerCounts(ProxyServer proxyServer) {
+        this.proxyServer = proxyServer;
+    }
+
+    /**
+     * @param server Server to count, tracked from now on
+     * @return Players currently connected to it through this proxy
+     */
+    public int get(RegisteredServer server) {
+        String key = ServerRegistry.key(server.getServerInfo().getName());
+        AtomicInteger count = counts.get(key);
+        if (count == null) {
+            count = counts.computeIfAbsent(key, k -> new AtomicInteger(server.getPlayersConnected().size()));
+        }
+        return count.get();
+    }
+
+    /**
+     * Count a player who finished connecting to a server
+     */
+    public void playerJoined(String serverName) {
+        AtomicInteger count = counts.get(ServerRegistry.key(serverName));
+        if (count != null) {
+            count.incrementAndGet();
+        }
+    }
+
+    /**
+     * Count a player who left a server, by switching or disconnecting
+     */
+    public void playerLeft(String serverName) {
+        AtomicInteger count = counts.get(ServerRegistry.key(serverName));
+        if (count != null) {
+            count.updateAndGet(value -> Math.max(0, value - 1));
+        }
+    }
+
+    /**
+     * Reset the counters from Velocity's player lists, correcting drift from events that raced
+     * with seeding, and stop tracking servers that were unregistered
+     */
+    public void resync() {
+        counts.forEach((key, count) -> {
+            Optional<RegisteredServer> server = proxyServer.getServer(key);
+            if (server.isPresent()) {
+                count.set(server.get().getPlayersConnected().size());
+            } else {
+                counts.remove(key, count);
+            }
+        });
+    }
+}
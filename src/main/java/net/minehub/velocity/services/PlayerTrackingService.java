@@ -0,0 +1,182 @@
+package net.minehub.velocity.services;
+
+import net.minehub.velocity.database.DatabaseManager;
+import net.minehub.velocity.models.PlayerVisit;
+import org.slf4j.Logger;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Write-behind buffer for player tracking.
+ * Server switches are coalesced per UUID in memory and flushed to the database in
+ * multi-row upserts, either on a timer or as soon as the buffer reaches the batch size.
+ * The buffer is bounded by distinct players: once full, events for players not already
+ * buffered are dropped and counted, while buffered players keep coalescing.
+ */
+public class PlayerTrackingService {
+
+    private final DatabaseManager databaseManager;
+    private final Logger logger;
+    private final Executor flushExecutor;
+    private final int batchSize;
+    private final int maxPending;
+
+    private final ConcurrentHashMap<UUID, PlayerVisit> pending = new ConcurrentHashMap<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final AtomicLong dropped = new AtomicLong();
+
+    /**
+     * @param flushExecutor Executor used for size-triggered flushes
+     * @param batchSize Buffered players that trigger an early flush
+     * @param maxPending Maximum distinct players held in memory
+     */
+    public PlayerTrackingService(DatabaseManager databaseManager, Logger logger, Executor flushExecutor,
+                                 int batchSize, int maxPending) {
+        this.databaseManager = databaseManager;
+        this.logger = logger;
+        this.flushExecutor = flushExecutor;
+        this.batchSize = Math.max(1, batchSize);
+        this.maxPending = Math.max(this.batchSize, maxPending);
+    }
+
+    /**
+     * Record that a player connected to a server. Never blocks on the database.
+     * @param uuid Player UUID
+     * @param username Player name
+     * @param serverName Server the player connected to
+     */
+    public void recordServerConnect(UUID uuid, String username, String serverName) {
+        PlayerVisit visit = new PlayerVisit(uuid, username, serverName, 1);
+        if (!offer(visit)) {
+            dropped.incrementAndGet();
+            return;
+        }
+
+        if (pendingCount.get() >= batchSize && flushScheduled.compareAndSet(false, true)) {
+            try {
+                flushExecutor.execute(() -> {
+                    flushScheduled.set(false);
+                    flush();
+                });
+            } catch (RejectedExecutionException e) {
+                // Executor saturated or shutting down, the periodic flush picks these up
+                flushScheduled.set(false);
+            }
+        }
+    }
+
+    private boolean offer(PlayerVisit visit) {
+        // Coalescing into an existing entry never grows the buffer
+        if (pending.computeIfPresent(visit.uuid(), (uuid, existing) -> existing.merge(visit)) != null) {
+            return true;
+        }
+
+        if (pendingCount.incrementAndGet() > maxPending) {
+            pendingCount.decrementAndGet();
+            return false;
+        }
+
+        PlayerVisit previous = pending.merge(visit.uuid(), visit, PlayerVisit::merge);
+        if (previous != visit) {
+            // Another thread inserted the same player in between, we did not add an entry after all
+            pendingCount.decrementAndGet();
+        }
+        return true;
+    }
+
+    /**
+     * Write everything buffered so far. Safe to call from several threads; concurrent calls are skipped.
+     */
+    public void flush() {
+        if (!flushLock.tryLock()) {
+            return;
+        }
+
+        try {
+            writePending();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void writePending() {
+        long droppedSinceLast = dropped.getAndSet(0);
+        if (droppedSinceLast > 0) {
+            logger.warn("Player tracking buffer full, dropped {} updates", droppedSinceLast);
+        }
+
+        while (!pending.isEmpty()) {
+            List<PlayerVisit> batch = drain(batchSize);
+            try {
+                databaseManager.updatePlayerData(batch);
+            } catch (SQLException e) {
+                logger.error("Failed to write {} player updates, keeping them for the next flush", batch.size(), e);
+                batch.forEach(this::requeue);
+                return;
+            }
+        }
+    }
+
+    private void requeue(PlayerVisit older) {
+        if (pending.computeIfPresent(older.uuid(), (uuid, newer) -> older.merge(newer)) != null) {
+            return;
+        }
+
+        if (pendingCount.incrementAndGet() > maxPending) {
+            pendingCount.decrementAndGet();
+            dropped.incrementAndGet();
+            return;
+        }
+
+        if (pending.putIfAbsent(older.uuid(), older) != null) {
+            pendingCount.decrementAndGet();
+            pending.computeIfPresent(older.uuid(), (uuid, newer) -> older.merge(newer));
+        }
+    }
+
+    private List<PlayerVisit> drain(int limit) {
+        List<PlayerVisit> batch = new ArrayList<>(Math.min(limit, pendingCount.get()));
+        Iterator<Map.Entry<UUID, PlayerVisit>> iterator = pending.entrySet().iterator();
+
+        while (batch.size() < limit && iterator.hasNext()) {
+            PlayerVisit visit = pending.remove(iterator.next().getKey());
+            if (visit != null) {
+                pendingCount.decrementAndGet();
+                batch.add(visit);
+            }
+        }
+
+        return batch;
+    }
+
+    /**
+     * Flush remaining updates before the database pool closes
+     */
+    public void shutdown() {
+        // Wait for a flush already running on the scheduler so nothing is left behind
+        flushLock.lock();
+        try {
+            writePending();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    public int getPendingCount() {
+        return pendingCount.get();
+    }
+}
@@ -0,0 +1,87 @@
+package net.minehub.velocity.services;
+
+import net.minehub.velocity.database.DatabaseManager;
+import net.minehub.velocity.metrics.MetricsRegistry;
+import net.minehub.velocity.utils.ConsistentHashRing;
+import org.slf4j.Logger;
+
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Divides health checks between the proxies sharing one database.
+ * Every proxy renews a lease in minehub_probe_leases on each heartbeat and builds a consistent
+ * hash ring from all proxies with a live lease. A server is probed only by the proxy that owns
+ * its name on the ring; the others read the result through the registry sync. When a proxy
+ * stops renewing, its lease expires and the remaining proxies take over its servers.
+ */
+public class ProbeLeaseService {
+
+    private static final int VIRTUAL_NODES = 128;
+
+    private final DatabaseManager databaseManager;
+    private final Logger logger;
+    private final String proxyId;
+    private final int leaseSeconds;
+
+    private volatile ConsistentHashRing ring = ConsistentHashRing.empty();
+
+    /**
+     * @param proxyId Unique id of this proxy in the cluster
+     * @param leaseSeconds How long a lease survives without a heartbeat
+     */
+    public ProbeLeaseService(DatabaseManager databaseManager, Logger logger, String proxyId, int leaseSeconds,
+                             MetricsRegistry metrics) {
+        this.databaseManager = databaseManager;
+        this.logger = logger;
+        this.proxyId = proxyId;
+        this.leaseSeconds = Math.max(1, leaseSeconds);
+        metrics.gauge("probe.ring.proxies", () -> ring.members().size());
+    }
+
+    /**
+     * Renew this proxy's lease and rebuild the ring from the live proxies
+     */
+    public void heartbeat() {
+        try {
+            List<String> live = databaseManager.heartbeatProbeLease(proxyId, leaseSeconds);
+            ConsistentHashRing current = ring;
+            if (!current.members().equals(live.stream().sorted().distinct().toList())) {
+                ring = ConsistentHashRing.of(live, VIRTUAL_NODES);
+                logger.info("Probe ring now has {} proxies: {}", live.size(), ring.members());
+            }
+        } catch (SQLException e) {
+            logger.error("Failed to renew probe lease for proxy '{}'", proxyId, e);
+        }
+    }
+
+    /**
+     * Check whether this proxy should probe a server. Until the first successful heartbeat,
+     * or if this proxy's own lease has lapsed, it probes everything rather than nothing.
+     * @param key Lowercased server name
+     * @return true if this proxy is responsible for the server
+     */
+    public boolean owns(String key) {
+        ConsistentHashRing current = ring;
+        if (!current.contains(proxyId)) {
+            return true;
+        }
+        return proxyId.equals(current.owner(key));
+    }
+
+    /**
+     * Drop this proxy's lease so its servers move to the other proxies immediately
+     */
+    public void release() {
+        try {
+            databaseManager.releaseProbeLease(proxyId);
+            ring = ConsistentHashRing.empty();
+        } catch (SQLException e) {
+            logger.error("Failed to release probe lease for proxy '{}'", proxyId, e);
+        }
+    }
+
+    public String getProxyId() {
+        return proxyId;
+    }
+}
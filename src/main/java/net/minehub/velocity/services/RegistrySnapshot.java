@@ -0,0 +1,35 @@
+package net.minehub.velocity.services;
+
+import net.minehub.velocity.models.ServerInfo;
+import net.minehub.velocity.utils.PrefixIndex;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * One consistent, immutable version of the server registry.
+ * Every view is precomputed when the snapshot is published, so readers never allocate.
+ * @param version Increases by one with every publication
+ * @param byKey Managed servers keyed by lowercased name
+ * @param ordered All servers sorted by name
+ * @param byOwner Lowercased names of each owner's servers
+ * @param names Prefix index over all names
+ */
+public record RegistrySnapshot(long version,
+                               Map<String, ManagedServer> byKey,
+                               List<ServerInfo> ordered,
+                               Map<UUID, Set<String>> byOwner,
+                               PrefixIndex names) {
+
+    static final RegistrySnapshot EMPTY = new RegistrySnapshot(0, Map.of(), List.of(), Map.of(), PrefixIndex.empty());
+
+    public ManagedServer get(String key) {
+        return byKey.get(key);
+    }
+
+    public int size() {
+        return byKey.size();
+    }
+}
@@ -0,0 +1,249 @@
+package net.minehub.velocity.services;
+
+import net.minehub.velocity.config.ConfigManager;
+import net.minehub.velocity.config.PluginSettings;
+import net.minehub.velocity.metrics.Counter;
+import net.minehub.velocity.metrics.MetricsRegistry;
+import net.minehub.velocity.models.ServerInfo;
+import net.minehub.velocity.tasks.TimingWheel;
+import net.minehub.velocity.utils.ServerPingUtil;
+import org.slf4j.Logger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Gives every server this proxy probes its own next-check time.
+ * Online servers are checked on a steady interval; servers that stay offline back off
+ * exponentially up to a cap. Every delay gets random jitter so checks spread out instead of
+ * firing together. A server's published online state only flips after several consecutive
+ * probes agree, re-checked at a shorter interval meanwhile, so a flapping server does not
+ * churn database writes and registry snapshots.
+ * <p>
+ * Each server has one timer on the shared {@link TimingWheel} that starts its probe. Results
+ * are collected and published on every run of this task as one registry update and one
+ * database transaction.
+ */
+public class ServerHealthScheduler implements Runnable {
+
+    private final ServerManagementService serverManagementService;
+    private final ProbeLeaseService probeLeases;
+    private final ConfigManager configManager;
+    private final TimingWheel timers;
+    private final Logger logger;
+    private final Counter probes;
+    private final Counter transitions;
+
+    private final ConcurrentMap<String, Health> servers = new ConcurrentHashMap<>();
+    private final Queue<ServerInfo> changed = new ConcurrentLinkedQueue<>();
+    private final Queue<String> seenOnline = new ConcurrentLinkedQueue<>();
+    // Only touched by run(), which never overlaps itself
+    private long registryVersion = -1;
+    private volatile boolean running = true;
+
+    public ServerHealthScheduler(ServerManagementService serverManagementService, ProbeLeaseService probeLeases,
+                                 ConfigManager configManager, TimingWheel timers, MetricsRegistry metrics, Logger logger) {
+        this.serverManagementService = serverManagementService;
+        this.probeLeases = probeLeases;
+        this.configManager = configManager;
+        this.timers = timers;
+        this.logger = logger;
+        this.probes = metrics.counter("health.probes");
+        this.transitions = metrics.counter("health.transitions");
+    }
+
+    /**
+     * Pick up registry changes and publish the results gathered since the last run
+     */
+    @Override
+    public void run() {
+        if (!running) return;
+
+        try {
+            RegistrySnapshot snapshot = serverManagementService.getRegistrySnapshot();
+            if (snapshot.version() != registryVersion) {
+                reconcile(snapshot, configManager.getSettings().health());
+            }
+            publish();
+        } catch (Exception e) {
+            logger.error("Error during health check tick", e);
+        }
+    }
+
+    public void stop() {
+        running = false;
+        servers.values().forEach(health -> health.timeout.cancel());
+    }
+
+    /**
+     * Track servers added to the registry and forget removed ones. New servers get their first
+     * check spread over one interval so a full registry load doesn't probe everything at once.
+     */
+    private void reconcile(RegistrySnapshot snapshot, PluginSettings.Health settings) {
+        servers.values().removeIf(health -> {
+            boolean removed = snapshot.get(health.key) == null;
+            if (removed) {
+                health.timeout.cancel();
+            }
+            return removed;
+        });
+
+        for (ServerInfo info : snapshot.ordered()) {
+            String key = ServerRegistry.key(info.getName());
+            if (!servers.containsKey(key)) {
+                Health health = new Health(key);
+                health.timeout = timers.newTimeout(() -> probe(health));
+                servers.put(key, health);
+                health.timeout.schedule(ThreadLocalRandom.current().nextLong(settings.checkIntervalMs() + 1L),
+                        TimeUnit.MILLISECONDS);
+            }
+        }
+        registryVersion = snapshot.version();
+    }
+
+    private void publish() {
+        if (changed.isEmpty() && seenOnline.isEmpty()) {
+            return;
+        }
+
+        List<ServerInfo> batch = drain(changed);
+        List<String> seen = drain(seenOnline);
+        serverManagementService.publishStatuses(batch, seen)
+                .exceptionally(e -> {
+                    logger.error("Failed to publish health check results", e);
+                    return null;
+                });
+    }
+
+    /**
+     * Runs on the I/O executor when a server's timer fires
+     */
+    private void probe(Health health) {
+        if (!running || servers.get(health.key) != health) {
+            return;
+        }
+
+        PluginSettings settings = configManager.getSettings();
+        ManagedServer managed = serverManagementService.getRegistrySnapshot().get(health.key);
+        if (managed == null) {
+            // Removed; the next reconcile drops it
+            return;
+        }
+        if (!probeLeases.owns(health.key)) {
+            // Another proxy probes it; look again later in case the ring changes
+            reschedule(health, settings.health().checkIntervalMs(), settings.health());
+            return;
+        }
+
+        ServerInfo info = managed.info();
+        probes.increment();
+        ServerPingUtil.queryStatus(info.getHost(), info.getPort(), settings.server().pingTimeoutMs())
+                .thenAccept(result -> {
+                    PluginSettings.Health current = configManager.getSettings().health();
+                    if (result.throttled()) {
+                        // Never reached the server, so it neither confirms nor contradicts its state
+                        reschedule(health, health.nextDelayMs(info.isOnline(), current), current);
+                        return;
+                    }
+                    boolean online = health.observe(result.reachable(), info.isOnline(), current.confirmations());
+                    ServerInfo next = ServerManagementService.applyProbeResult(info, result, online);
+                    if (next != info) {
+                        changed.add(next);
+                        if (next.isOnline() != info.isOnline()) {
+                            transitions.increment();
+                            logTransition(next);
+                        }
+                    }
+                    if (result.reachable()) {
+                        seenOnline.add(info.getName());
+                    }
+                    reschedule(health, health.nextDelayMs(online, current), current);
+                })
+                .exceptionally(e -> {
+                    logger.error("Health check of server '{}' failed", info.getName(), e);
+                    reschedule(health, settings.health().checkIntervalMs(), settings.health());
+                    return null;
+                });
+    }
+
+    private void reschedule(Health health, long delayMs, PluginSettings.Health settings) {
+        if (!running || servers.get(health.key) != health) {
+            return;
+        }
+
+        long jitter = delayMs * settings.jitterPercent() / 100;
+        long jittered = delayMs + (jitter > 0 ? ThreadLocalRandom.current().nextLong(-jitter, jitter + 1) : 0);
+        health.timeout.schedule(Math.max(jittered, 1), TimeUnit.MILLISECONDS);
+    }
+
+    private void logTransition(ServerInfo server) {
+        if (configManager.getBoolean("logging.log-status-changes", true)) {
+            logger.info("Server '{}' is now {}", server.getName(), server.isOnline() ? "online" : "offline");
+        }
+    }
+
+    private static <T> List<T> drain(Queue<T> queue) {
+        List<T> items = new ArrayList<>();
+        T item;
+        while ((item = queue.poll()) != null) {
+            items.add(item);
+        }
+        return items;
+    }
+
+    /**
+     * Probe history of one server. Only touched by the thread completing its probe, and a
+     * server has at most one probe in flight.
+     */
+    private static final class Health {
+        private final String key;
+        private TimingWheel.Timeout timeout;
+        // Consecutive probes disagreeing with the published state
+        private int streak;
+        // Consecutive unreachable probes, for the backoff
+        private int failures;
+
+        Health(String key) {
+            this.key = key;
+        }
+
+        /**
+         * Record a probe result
+         * @param reachable Whether the probe connected
+         * @param published Online state currently in the registry
+         * @param confirmations Consecutive disagreeing results needed to flip it
+         * @return Online state to publish
+         */
+        boolean observe(boolean reachable, boolean published, int confirmations) {
+            failures = reachable ? 0 : failures + 1;
+            if (reachable == published) {
+                streak = 0;
+                return published;
+            }
+
+            if (++streak >= confirmations) {
+                streak = 0;
+                return reachable;
+            }
+            return published;
+        }
+
+        long nextDelayMs(boolean online, PluginSettings.Health settings) {
+            if (streak > 0) {
+                return settings.confirmIntervalMs();
+            }
+            if (online) {
+                return settings.checkIntervalMs();
+            }
+            // Doubles with every failed probe once the server is confirmed offline
+            int doublings = Math.min(Math.max(failures - settings.confirmations(), 0), 30);
+            return Math.min((long) settings.checkIntervalMs() << doublings, settings.maxBackoffMs());
+        }
+    }
+}
@@ -3,50 +3,99 @@ package net.minehub.velocity.services;
 import com.velocitypowered.api.proxy.ProxyServer;
 import com.velocitypowered.api.proxy.server.RegisteredServer;
 import com.velocitypowered.api.proxy.server.ServerInfo;
+import net.minehub.velocity.config.ConfigManager;
 import net.minehub.velocity.database.DatabaseManager;
+import net.minehub.velocity.database.RegistrySnapshotFile;
+import net.minehub.velocity.models.RegistryChecksum;
+import net.minehub.velocity.models.ServerChanges;
+import net.minehub.velocity.tasks.PluginExecutors;
+import net.minehub.velocity.utils.PrefixIndex;
+import net.minehub.velocity.utils.ProbeResult;
 import net.minehub.velocity.utils.ServerPingUtil;
 import org.slf4j.Logger;
 
+import java.io.IOException;
 import java.net.InetSocketAddress;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
 
 public class ServerManagementService {
 
+    // Width of minehub_servers.version
+    private static final int MAX_VERSION_LENGTH = 50;
+    // Margin over the ping timeout before a probe that never completes is given up on
+    private static final long PROBE_WAIT_SLACK_MS = 1000;
+
     private final ProxyServer proxyServer;
     private final DatabaseManager databaseManager;
     private final Logger logger;
-    private final ConcurrentMap<String, net.minehub.velocity.models.ServerInfo> managedServers;
+    private final ConfigManager configManager;
+    private final PluginExecutors executors;
+    private final RegistrySnapshotFile snapshotFile;
+    // Copy-on-write registry: lookups, owner index, ordered list and name index all come from one snapshot
+    private final ServerRegistry registry;
+    // Serializes database writes with the registry updates that follow them, so a concurrent
+    // sync never applies a stale row over a newer local change
+    private final ReentrantLock syncLock = new ReentrantLock();
+    // Caps additions and removals in flight, each of which holds a database connection and may ping
+    private final Semaphore mutations;
+    private long syncedRevision = -1;
+    private long savedVersion = -1;
 
-    public ServerManagementService(ProxyServer proxyServer, DatabaseManager databaseManager, Logger logger) {
+    public ServerManagementService(ProxyServer proxyServer, DatabaseManager databaseManager, Logger logger,
+                                   PluginExecutors executors,
+                                   RegistrySnapshotFile snapshotFile, ConfigManager configManager) {
         this.proxyServer = proxyServer;
         this.databaseManager = databaseManager;
         this.logger = logger;
-        this.managedServers = new ConcurrentHashMap<>();
+        this.executors = executors;
+        this.snapshotFile = snapshotFile;
+        this.configManager = configManager;
+        this.registry = new ServerRegistry();
+        this.mutations = new Semaphore(configManager.getSettings().limits().maxConcurrentMutations());
     }
 
+    /**
+     * Probe, store and register a new server
+     * @return Future with true on success, failed with RejectedExecutionException if too many
+     *         changes are already in progress
+     */
     public CompletableFuture<Boolean> addServer(String name, String host, int port, UUID ownerUuid, String ownerName) {
-        return CompletableFuture.supplyAsync(() -> {
+        return mutate(() -> {
             try {
                 if (proxyServer.getServer(name).isPresent()) {
                     logger.warn("Server '{}' already exists", name);
                     return false;
                 }
 
-                var info = new net.minehub.velocity.models.ServerInfo(name, host, port, ownerUuid, ownerName);
-                info.setOnline(ServerPingUtil.pingServer(host, port, 3000));
-
-                databaseManager.addServer(info);
+                int pingTimeoutMs = configManager.getSettings().server().pingTimeoutMs();
+                ProbeResult probe = ServerPingUtil.queryStatus(host, port, pingTimeoutMs)
+                        .orTimeout(pingTimeoutMs + PROBE_WAIT_SLACK_MS, TimeUnit.MILLISECONDS)
+                        .join();
+                var info = applyProbeResult(new net.minehub.velocity.models.ServerInfo(name, host, port, ownerUuid, ownerName),
+                        probe, probe.reachable());
 
-                ServerInfo serverInfo = new ServerInfo(name, new InetSocketAddress(host, port));
-                proxyServer.registerServer(serverInfo);
+                syncLock.lock();
+                try {
+                    databaseManager.addServer(info);
 
-                managedServers.put(name, info);
+                    ServerInfo serverInfo = new ServerInfo(name, InetSocketAddress.createUnresolved(host, port));
+                    RegisteredServer registered = proxyServer.registerServer(serverInfo);
+                    registry.update(batch -> batch.put(info, registered));
+                } finally {
+                    syncLock.unlock();
+                }
                 logger.info("Server '{}' added successfully", name);
 
                 return true;
@@ -58,71 +107,452 @@ public class ServerManagementService {
         });
     }
 
+    /**
+     * Unregister and delete a server
+     * @return Future with true on success, failed with RejectedExecutionException if too many
+     *         changes are already in progress
+     */
     public CompletableFuture<Boolean> removeServer(String name) {
-        return CompletableFuture.supplyAsync(() -> {
+        return mutate(() -> removeServerNow(name));
+    }
+
+    private boolean removeServerNow(String name) {
+        syncLock.lock();
+        try {
+            proxyServer.getServer(name)
+                    .map(RegisteredServer::getServerInfo)
+                    .ifPresent(proxyServer::unregisterServer);
+
+            databaseManager.removeServer(name);
+            registry.update(batch -> batch.remove(name));
+            logger.info("Server '{}' removed", name);
+            return true;
+        } catch (Exception e) {
+            logger.error("Failed to remove server '{}'", name, e);
+            return false;
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    /**
+     * Register the servers from the local snapshot file, without touching the database
+     * @return true if a snapshot was found and loaded
+     */
+    public boolean warmStart() {
+        long start = System.nanoTime();
+        syncLock.lock();
+        try {
+            Optional<ServerChanges> stored = snapshotFile.read();
+            if (stored.isEmpty()) {
+                return false;
+            }
+
+            applyChanges(stored.get(), true);
+            syncedRevision = stored.get().revision();
+            savedVersion = registry.snapshot().version();
+            logger.info("Registered {} servers from {} in {} ms", stored.get().upserts().size(),
+                    snapshotFile.getFile().getFileName(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            return true;
+        } catch (IOException e) {
+            logger.warn("Couldn't read registry snapshot, waiting for the database", e);
+            return false;
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    /**
+     * Write the registry to the local snapshot file if it changed since the last write
+     */
+    public void saveSnapshot() {
+        syncLock.lock();
+        try {
+            RegistrySnapshot snapshot = registry.snapshot();
+            if (snapshot.version() == savedVersion || syncedRevision < 0) {
+                return;
+            }
+
+            snapshotFile.write(syncedRevision, snapshot.ordered());
+            savedVersion = snapshot.version();
+        } catch (IOException e) {
+            logger.warn("Couldn't write registry snapshot", e);
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    /**
+     * Replace the registry with the database contents, read with a streaming cursor
+     * @throws SQLException if the database couldn't be read; the registry is left as it was
+     */
+    public void loadServersFromDatabase() throws SQLException {
+        long start = System.nanoTime();
+        syncLock.lock();
+        try {
+            ServerChanges all = databaseManager.loadServerRegistry();
+            applyChanges(all, true);
+            syncedRevision = all.revision();
+            logger.info("Loaded {} servers from database at revision {} in {} ms", all.upserts().size(),
+                    all.revision(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        } finally {
+            syncLock.unlock();
+        }
+
+        saveSnapshot();
+    }
+
+    /**
+     * Apply servers added, changed or deleted by other proxies since the last sync
+     * @return CompletableFuture that completes once the changes are applied
+     */
+    public CompletableFuture<Void> syncChanges() {
+        return supplyIo(() -> {
+            syncLock.lock();
             try {
-                proxyServer.getServer(name)
-                        .map(RegisteredServer::getServerInfo)
-                        .ifPresent(proxyServer::unregisterServer);
+                ServerChanges changes = databaseManager.getServerChanges(syncedRevision);
+                if (!changes.isEmpty()) {
+                    applyChanges(changes, false);
+                    logger.debug("Synced {} changed and {} removed servers up to revision {}",
+                            changes.upserts().size(), changes.removals().size(), changes.revision());
+                }
+                syncedRevision = changes.revision();
+            } catch (SQLException e) {
+                logger.error("Failed to sync server changes", e);
+            } finally {
+                syncLock.unlock();
+            }
+            return null;
+        });
+    }
 
-                databaseManager.removeServer(name);
-                managedServers.remove(name);
-                logger.info("Server '{}' removed", name);
-                return true;
-            } catch (Exception e) {
-                logger.error("Failed to remove server '{}'", name, e);
+    /**
+     * Compare the in-memory registry with the database checksum and reload everything if they drifted.
+     * Skipped when the database has moved past the last synced revision, the next sync covers that.
+     * @return CompletableFuture with false if a full resync was needed
+     */
+    public CompletableFuture<Boolean> verifyRegistryChecksum() {
+        return supplyIo(() -> {
+            syncLock.lock();
+            try {
+                RegistryChecksum remote = databaseManager.getRegistryChecksum();
+                if (remote.revision() != syncedRevision) {
+                    return true;
+                }
+
+                RegistryChecksum local = RegistryChecksum.of(syncedRevision, registry.snapshot().ordered());
+                if (local.matches(remote)) {
+                    saveSnapshot();
+                    return true;
+                }
+
+                logger.warn("Server registry drifted from the database ({} local, {} stored), reloading",
+                        local.count(), remote.count());
+                ServerChanges all = databaseManager.loadServerRegistry();
+                applyChanges(all, true);
+                syncedRevision = all.revision();
+                saveSnapshot();
                 return false;
+            } catch (SQLException e) {
+                logger.error("Failed to verify server registry", e);
+                return true;
+            } finally {
+                syncLock.unlock();
             }
         });
     }
 
-    public void loadServersFromDatabase() {
+    /**
+     * Apply database changes to the proxy and the registry in one publish
+     * @param changes Rows to add, update or remove
+     * @param fullResync Whether {@code changes} is the whole registry, so anything not in it is removed
+     */
+    private void applyChanges(ServerChanges changes, boolean fullResync) {
+        registry.update(batch -> {
+            if (fullResync) {
+                Set<String> present = new HashSet<>();
+                changes.upserts().forEach(server -> present.add(ServerRegistry.key(server.getName())));
+                for (var server : registry.snapshot().ordered()) {
+                    if (!present.contains(ServerRegistry.key(server.getName()))) {
+                        unregister(batch, server.getName());
+                    }
+                }
+            }
+
+            changes.removals().forEach(name -> unregister(batch, name));
+            changes.upserts().forEach(server -> register(batch, server));
+        });
+    }
+
+    private void register(ServerRegistry.Batch batch, net.minehub.velocity.models.ServerInfo server) {
+        ManagedServer existing = batch.get(server.getName());
+        if (existing != null && existing.info().getHost().equals(server.getHost())
+                && existing.info().getPort() == server.getPort()) {
+            // Same address: keep the Velocity handle
+            batch.update(server);
+            return;
+        }
+
         try {
-            for (var s : databaseManager.getAllServers()) {
-                var si = new ServerInfo(s.getName(), new InetSocketAddress(s.getHost(), s.getPort()));
-                proxyServer.registerServer(si);
-                managedServers.put(s.getName(), s);
+            if (existing != null) {
+                proxyServer.unregisterServer(existing.registeredServer().getServerInfo());
             }
-            logger.info("Loaded servers from database");
-        } catch (SQLException e) {
-            logger.error("Failed to load servers", e);
+            // Unresolved: Velocity resolves on connect, so registering never waits on DNS
+            ServerInfo serverInfo = new ServerInfo(server.getName(),
+                    InetSocketAddress.createUnresolved(server.getHost(), server.getPort()));
+            batch.put(server, proxyServer.registerServer(serverInfo));
+        } catch (IllegalArgumentException e) {
+            logger.warn("Couldn't register server '{}': {}", server.getName(), e.getMessage());
         }
     }
 
-    public CompletableFuture<Void> cleanupOfflineServers(int hoursOffline) {
-        return CompletableFuture.runAsync(() -> {
+    private void unregister(ServerRegistry.Batch batch, String name) {
+        ManagedServer removed = batch.remove(name);
+        if (removed != null) {
+            proxyServer.unregisterServer(removed.registeredServer().getServerInfo());
+        }
+    }
+
+    /**
+     * Remove every server that has been offline for too long, in one database transaction
+     * and one registry publish
+     * @param hoursOffline Hours since a server was last seen after which it is removed
+     * @return CompletableFuture with the number of servers removed
+     */
+    public CompletableFuture<Integer> cleanupOfflineServers(int hoursOffline) {
+        return supplyIo(() -> {
+            long start = System.nanoTime();
+            List<String> expired;
+            syncLock.lock();
             try {
-                var list = databaseManager.getOfflineServers(hoursOffline);
-                list.forEach(s -> {
-                    removeServer(s.getName()).join();
-                    logger.info("Removed inactive server '{}'", s.getName());
-                });
+                expired = databaseManager.removeExpiredServers(hoursOffline);
+                if (expired.isEmpty()) {
+                    return 0;
+                }
+
+                for (String name : expired) {
+                    proxyServer.getServer(name)
+                            .map(RegisteredServer::getServerInfo)
+                            .ifPresent(proxyServer::unregisterServer);
+                }
+                registry.update(batch -> expired.forEach(batch::remove));
             } catch (SQLException e) {
                 logger.error("Cleanup failed", e);
+                return 0;
+            } finally {
+                syncLock.unlock();
+            }
+
+            logger.info("Removed {} servers offline for more than {} hours in {} ms", expired.size(), hoursOffline,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            return expired.size();
+        });
+    }
+
+    /**
+     * Publish probe outcomes as one registry snapshot, then store them in one batched transaction.
+     * Only the status fields are taken from {@code changed}, so edits made while the probes ran
+     * are kept; results for servers removed or moved meanwhile are dropped. A saturated executor
+     * never loses the results: the step it rejects runs on the calling thread instead.
+     * @param changed Servers whose state changed, as the probes saw them
+     * @param seenOnline Names of servers that answered, whose last_seen is refreshed
+     * @return CompletableFuture that completes once the changes are stored
+     */
+    CompletableFuture<Void> publishStatuses(List<net.minehub.velocity.models.ServerInfo> changed, List<String> seenOnline) {
+        if (changed.isEmpty() && seenOnline.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        CompletableFuture<List<net.minehub.velocity.models.ServerInfo>> merged;
+        try {
+            merged = CompletableFuture.supplyAsync(() -> mergeStatuses(changed), executors.cpu());
+        } catch (RejectedExecutionException e) {
+            merged = CompletableFuture.completedFuture(mergeStatuses(changed));
+        }
+
+        return merged.thenCompose(servers -> {
+            try {
+                return CompletableFuture.runAsync(() -> storeStatuses(servers, seenOnline), executors.io());
+            } catch (RejectedExecutionException e) {
+                logger.warn("I/O executor is saturated, storing server statuses inline");
+                storeStatuses(servers, seenOnline);
+                return CompletableFuture.completedFuture(null);
             }
         });
     }
 
+    private List<net.minehub.velocity.models.ServerInfo> mergeStatuses(List<net.minehub.velocity.models.ServerInfo> changed) {
+        List<net.minehub.velocity.models.ServerInfo> merged = new ArrayList<>(changed.size());
+        if (!changed.isEmpty()) {
+            registry.update(batch -> {
+                for (var server : changed) {
+                    var next = batch.updateStatus(server);
+                    if (next != null) {
+                        merged.add(next);
+                    }
+                }
+            });
+        }
+        return merged;
+    }
+
+    private void storeStatuses(List<net.minehub.velocity.models.ServerInfo> changed, List<String> seenOnline) {
+        try {
+            databaseManager.updateServerStatuses(changed, seenOnline);
+        } catch (SQLException e) {
+            logger.error("Failed to store server statuses", e);
+        }
+    }
+
+    /**
+     * Run a registry change on the I/O executor, unless limits.max-concurrent-mutations are already running
+     */
+    private <T> CompletableFuture<T> mutate(Supplier<T> task) {
+        if (!mutations.tryAcquire()) {
+            return CompletableFuture.failedFuture(new RejectedExecutionException("Too many server changes in progress"));
+        }
+        return supplyIo(task).whenComplete((result, e) -> mutations.release());
+    }
+
+    /**
+     * Run blocking work on the plugin's I/O executor
+     * @param task Work to run
+     * @return Future with the result, failed with RejectedExecutionException if the executor is saturated
+     */
+    private <T> CompletableFuture<T> supplyIo(Supplier<T> task) {
+        try {
+            return CompletableFuture.supplyAsync(task, executors.io());
+        } catch (RejectedExecutionException e) {
+            logger.warn("I/O executor is saturated, rejecting task");
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Derive a server's new state from a probe: liveness always, and players and version
+     * when the server answered the status request
+     * @param info Current server state
+     * @param result Probe outcome
+     * @param online Online state to publish, which a damped caller may hold back from the probe's own
+     * @return Updated copy, or {@code info} itself if nothing changed
+     */
+    static net.minehub.velocity.models.ServerInfo applyProbeResult(net.minehub.velocity.models.ServerInfo info,
+                                                                   ProbeResult result, boolean online) {
+        if (online != result.reachable()) {
+            // The probe disagrees with the state being kept; its details would contradict it
+            return info.isOnline() == online ? info : info.withOnline(online);
+        }
+
+        String version = info.getVersion();
+        int maxPlayers = info.getMaxPlayers();
+        int onlinePlayers = 0;
+
+        if (result.hasStatus()) {
+            version = result.status().versionName();
+            if (version.length() > MAX_VERSION_LENGTH) {
+                version = version.substring(0, MAX_VERSION_LENGTH);
+            }
+            maxPlayers = result.status().maxPlayers();
+            onlinePlayers = result.status().onlinePlayers();
+        }
+
+        if (info.isOnline() == online && info.getVersion().equals(version)
+                && info.getMaxPlayers() == maxPlayers && info.getOnlinePlayers() == onlinePlayers) {
+            return info;
+        }
+        return info.withStatus(online, version, maxPlayers, onlinePlayers);
+    }
+
     public boolean isServerOnline(String name) {
-        return Optional.ofNullable(managedServers.get(name))
-                .map(net.minehub.velocity.models.ServerInfo::isOnline)
-                .orElse(false);
+        ManagedServer managed = registry.snapshot().get(ServerRegistry.key(name));
+        return managed != null && managed.info().isOnline();
     }
 
     public Optional<net.minehub.velocity.models.ServerInfo> getServerInfo(String name) {
-        return Optional.ofNullable(managedServers.get(name));
+        ManagedServer managed = registry.snapshot().get(ServerRegistry.key(name));
+        return managed == null ? Optional.empty() : Optional.of(managed.info());
+    }
+
+    /**
+     * Case-insensitive lookup of a player-added server and its Velocity handle in one hash probe
+     * @param name Server name in any case
+     * @return The managed server, empty if no player-added server has that name
+     */
+    public Optional<ManagedServer> findServer(String name) {
+        return Optional.ofNullable(registry.snapshot().get(ServerRegistry.key(name)));
+    }
+
+    /**
+     * Tab-complete server names without scanning or copying the registry
+     * @param prefix Typed prefix, any case
+     * @param limit Maximum number of suggestions
+     * @return Matching names in alphabetical order
+     */
+    public List<String> suggestServerNames(String prefix, int limit) {
+        return registry.snapshot().names().complete(prefix, limit);
+    }
+
+    /**
+     * Tab-complete the names of one player's servers
+     * @param ownerUuid Owner UUID
+     * @param prefix Typed prefix, any case
+     * @param limit Maximum number of suggestions
+     * @return Matching names in alphabetical order
+     */
+    public List<String> suggestOwnedServerNames(UUID ownerUuid, String prefix, int limit) {
+        RegistrySnapshot snapshot = registry.snapshot();
+        Set<String> keys = snapshot.byOwner().get(ownerUuid);
+        if (keys == null) {
+            return List.of();
+        }
+
+        List<String> names = new ArrayList<>(keys.size());
+        for (String key : keys) {
+            names.add(snapshot.get(key).info().getName());
+        }
+        return PrefixIndex.complete(names, prefix, limit);
     }
 
+    /**
+     * @return All managed servers sorted by name, as an immutable list shared by all callers
+     */
     public List<net.minehub.velocity.models.ServerInfo> getAllManagedServers() {
-        return List.copyOf(managedServers.values());
+        return registry.snapshot().ordered();
     }
 
-    public int getServerCountByOwner(UUID ownerUuid) {
-        try {
-            return databaseManager.getServerCountByOwner(ownerUuid);
-        } catch (SQLException e) {
-            logger.error("Couldn't count servers for owner {}", ownerUuid);
-            return 0;
+    /**
+     * @return The current registry snapshot, for callers that need several consistent views
+     */
+    public RegistrySnapshot getRegistrySnapshot() {
+        return registry.snapshot();
+    }
+
+    /**
+     * Get the servers owned by a player from the in-memory owner index
+     * @param ownerUuid Owner UUID
+     * @return Owned servers, empty if none
+     */
+    public List<net.minehub.velocity.models.ServerInfo> getServersByOwner(UUID ownerUuid) {
+        RegistrySnapshot snapshot = registry.snapshot();
+        Set<String> keys = snapshot.byOwner().get(ownerUuid);
+        if (keys == null) {
+            return List.of();
+        }
+
+        List<net.minehub.velocity.models.ServerInfo> owned = new ArrayList<>(keys.size());
+        for (String key : keys) {
+            owned.add(snapshot.get(key).info());
         }
+        return owned;
+    }
+
+    /**
+     * Count a player's servers from the in-memory owner index
+     * @param ownerUuid Owner UUID
+     * @return Number of servers owned
+     */
+    public int getServerCountByOwner(UUID ownerUuid) {
+        Set<String> keys = registry.snapshot().byOwner().get(ownerUuid);
+        return keys == null ? 0 : keys.size();
     }
 }
@@ -0,0 +1,123 @@
+package net.minehub.velocity.services;
+
+import net.minehub.velocity.utils.UuidQueue;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Waiting line and admission state for one server in the {@link ConnectionQueue}.
+ * Players with priority wait in a line ahead of everyone else. Not thread-safe; the
+ * connection queue guards each instance by synchronizing on it.
+ */
+final class ServerQueue {
+
+    private static final long ONE_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final String key;
+    private final UuidQueue priority = new UuidQueue();
+    private final UuidQueue normal = new UuidQueue();
+    // Players let in whose connection hasn't completed yet
+    private int admitting;
+    private long nextAdmitNanos;
+
+    /**
+     * @param key Lowercased server name
+     * @param nowNanos Current {@link System#nanoTime()}
+     */
+    ServerQueue(String key, long nowNanos) {
+        this.key = key;
+        this.nextAdmitNanos = nowNanos - ONE_SECOND;
+    }
+
+    String key() {
+        return key;
+    }
+
+    /**
+     * The probed count covers players on every proxy but lags behind; the local count is
+     * current but only covers this proxy. The larger of the two is the safer estimate.
+     * @param probedPlayers Online players from the last health check
+     * @param localPlayers Players this proxy has connected to the server
+     * @return Slots not taken by players on the server or by players still being let in
+     */
+    int freeSlots(int maxPlayers, int probedPlayers, int localPlayers) {
+        return maxPlayers - Math.max(probedPlayers, localPlayers) - admitting;
+    }
+
+    /**
+     * @return Whether the admission rate allows letting another player in
+     */
+    boolean isAdmissionDue(long nowNanos) {
+        return nextAdmitNanos - nowNanos < 0;
+    }
+
+    /**
+     * Count a waiting player let in at the admission rate
+     * @param spacingNanos Time between admissions, one second divided by the rate
+     */
+    void startPacedAdmission(long nowNanos, long spacingNanos) {
+        // At most one second's worth of admissions saved up while idle
+        nextAdmitNanos = Math.max(nextAdmitNanos, nowNanos - ONE_SECOND) + spacingNanos;
+        admitting++;
+    }
+
+    /**
+     * Count a player let in straight away because nobody was waiting
+     */
+    void startAdmission() {
+        admitting++;
+    }
+
+    /**
+     * A player let in finished connecting, successfully or not
+     */
+    void finishAdmission() {
+        admitting--;
+    }
+
+    void add(UUID uuid, boolean hasPriority) {
+        (hasPriority ? priority : normal).add(uuid);
+    }
+
+    /**
+     * @return Next player in line, priority first, or null if nobody is waiting
+     */
+    UUID poll() {
+        UUID uuid = priority.poll();
+        return uuid != null ? uuid : normal.poll();
+    }
+
+    void remove(UUID uuid) {
+        if (!priority.remove(uuid)) {
+            normal.remove(uuid);
+        }
+    }
+
+    /**
+     * @return 1-based position counting the priority line first, -1 if not waiting
+     */
+    int positionOf(UUID uuid) {
+        int position = priority.positionOf(uuid);
+        if (position > 0) {
+            return position;
+        }
+        position = normal.positionOf(uuid);
+        return position > 0 ? priority.size() + position : -1;
+    }
+
+    void forEach(ObjIntConsumer<UUID> action) {
+        priority.forEach(action);
+        int offset = priority.size();
+        normal.forEach((uuid, position) -> action.accept(uuid, offset + position));
+    }
+
+    int size() {
+        return priority.size() + normal.size();
+    }
+
+    boolean isEmpty() {
+        return priority.isEmpty() && normal.isEmpty();
+    }
+}
@@ -0,0 +1,200 @@
+package net.minehub.velocity.services;
+
+import com.velocitypowered.api.proxy.server.RegisteredServer;
+import net.minehub.velocity.models.ServerInfo;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Copy-on-write registry of player-added servers.
+ * Readers take the current {@link RegistrySnapshot} from a single volatile field and get a
+ * consistent, immutable view without locking or copying. Writers are serialized and can
+ * group any number of changes into one {@link Batch}, which is published as one new snapshot.
+ */
+public class ServerRegistry {
+
+    private volatile RegistrySnapshot snapshot = RegistrySnapshot.EMPTY;
+
+    /**
+     * @return The latest published snapshot
+     */
+    public RegistrySnapshot snapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Normalize a server name into a registry key
+     * @param name Server name in any case
+     * @return Lowercased key
+     */
+    public static String key(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Apply a group of changes and publish them together
+     * @param changes Callback that records the changes on the batch
+     * @return The snapshot that is current after the call
+     */
+    public synchronized RegistrySnapshot update(Consumer<Batch> changes) {
+        Batch batch = new Batch(snapshot);
+        changes.accept(batch);
+
+        if (!batch.changes.isEmpty()) {
+            snapshot = batch.build();
+        }
+        return snapshot;
+    }
+
+    /**
+     * Pending changes against a base snapshot. Only valid inside {@link #update(Consumer)}.
+     */
+    public static final class Batch {
+        private final RegistrySnapshot base;
+        // Null values mark removals
+        private final Map<String, ManagedServer> changes = new LinkedHashMap<>();
+
+        private Batch(RegistrySnapshot base) {
+            this.base = base;
+        }
+
+        /**
+         * Look a server up, seeing changes already made in this batch
+         * @param name Server name in any case
+         * @return The managed server or null
+         */
+        public ManagedServer get(String name) {
+            String key = key(name);
+            return changes.containsKey(key) ? changes.get(key) : base.get(key);
+        }
+
+        /**
+         * Add or replace a server
+         * @param info Server model
+         * @param registeredServer Velocity handle for the server
+         */
+        public void put(ServerInfo info, RegisteredServer registeredServer) {
+            changes.put(key(info.getName()), new ManagedServer(info, registeredServer));
+        }
+
+        /**
+         * Replace a server's model, keeping its Velocity handle. Ignored if the server was removed meanwhile.
+         * @param info Updated server model
+         * @return true if the server was present
+         */
+        public boolean update(ServerInfo info) {
+            ManagedServer current = get(info.getName());
+            if (current == null) {
+                return false;
+            }
+
+            changes.put(key(info.getName()), new ManagedServer(info, current.registeredServer()));
+            return true;
+        }
+
+        /**
+         * Copy a probe's status fields (online, players, version) onto the server's current
+         * model, keeping everything else as it is now. Ignored if the server was removed or
+         * moved to another address since the probe started.
+         * @param probed Model the probe result was applied to
+         * @return The merged model, or null if the result was dropped
+         */
+        public ServerInfo updateStatus(ServerInfo probed) {
+            ManagedServer current = get(probed.getName());
+            if (current == null || !current.info().getHost().equals(probed.getHost())
+                    || current.info().getPort() != probed.getPort()) {
+                return null;
+            }
+
+            ServerInfo merged = current.info().withStatus(probed.isOnline(), probed.getVersion(),
+                    probed.getMaxPlayers(), probed.getOnlinePlayers());
+            changes.put(key(probed.getName()), new ManagedServer(merged, current.registeredServer()));
+            return merged;
+        }
+
+        /**
+         * Remove a server
+         * @param name Server name in any case
+         * @return The removed server or null if it was not present
+         */
+        public ManagedServer remove(String name) {
+            ManagedServer current = get(name);
+            if (current != null) {
+                changes.put(key(name), null);
+            }
+            return current;
+        }
+
+        private RegistrySnapshot build() {
+            Map<String, ManagedServer> byKey = new HashMap<>(base.byKey());
+            Map<UUID, Set<String>> byOwner = new HashMap<>(base.byOwner());
+            Map<UUID, Set<String>> touchedOwners = new HashMap<>();
+            List<String> added = new ArrayList<>();
+            List<String> removed = new ArrayList<>();
+
+            for (Map.Entry<String, ManagedServer> change : changes.entrySet()) {
+                String key = change.getKey();
+                ManagedServer next = change.getValue();
+                ManagedServer previous = next == null ? byKey.remove(key) : byKey.put(key, next);
+
+                if (previous != null && (next == null || !previous.info().getOwnerUuid().equals(next.info().getOwnerUuid()))) {
+                    mutableOwnerSet(byOwner, touchedOwners, previous.info().getOwnerUuid()).remove(key);
+                }
+                if (next != null && (previous == null || !previous.info().getOwnerUuid().equals(next.info().getOwnerUuid()))) {
+                    mutableOwnerSet(byOwner, touchedOwners, next.info().getOwnerUuid()).add(key);
+                }
+
+                if (next == null) {
+                    if (previous != null) {
+                        removed.add(key);
+                    }
+                } else if (previous == null || !previous.info().getName().equals(next.info().getName())) {
+                    added.add(next.info().getName());
+                }
+            }
+
+            for (Map.Entry<UUID, Set<String>> owner : touchedOwners.entrySet()) {
+                if (owner.getValue().isEmpty()) {
+                    byOwner.remove(owner.getKey());
+                } else {
+                    byOwner.put(owner.getKey(), Collections.unmodifiableSet(owner.getValue()));
+                }
+            }
+
+            var names = base.names().withoutAll(removed).withAll(added);
+
+            // The prefix index is already sorted, so the ordered view needs no sort of its own
+            ServerInfo[] ordered = new ServerInfo[names.size()];
+            int i = 0;
+            for (String key : names.keys()) {
+                ordered[i++] = byKey.get(key).info();
+            }
+
+            return new RegistrySnapshot(
+                    base.version() + 1,
+                    Collections.unmodifiableMap(byKey),
+                    Collections.unmodifiableList(Arrays.asList(ordered)),
+                    Collections.unmodifiableMap(byOwner),
+                    names
+            );
+        }
+
+        private static Set<String> mutableOwnerSet(Map<UUID, Set<String>> byOwner, Map<UUID, Set<String>> touched, UUID owner) {
+            return touched.computeIfAbsent(owner, uuid -> {
+                Set<String> current = byOwner.get(uuid);
+                return current == null ? new HashSet<>() : new HashSet<>(current);
+            });
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package net.minehub.velocity.tasks;
+
+import org.slf4j.Logger;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Plugin-owned executors, so blocking work never lands on the JVM-wide common pool.
+ * The I/O executor runs JDBC and other blocking calls on virtual threads when the runtime
+ * provides them (Java 21+), otherwise on a bounded platform thread pool. The CPU executor is
+ * a small fixed pool for pure computation. Both reject work once their queue limit is reached.
+ */
+public class PluginExecutors {
+
+    private final Logger logger;
+    private final ExecutorService ioService;
+    private final Executor io;
+    private final ThreadPoolExecutor cpu;
+    private final boolean virtualThreads;
+
+    /**
+     * @param preferVirtualThreads Use virtual threads for I/O if the runtime supports them
+     * @param ioThreads Platform threads for I/O when virtual threads are not used
+     * @param ioQueueLimit Maximum I/O tasks queued or running before new ones are rejected
+     * @param cpuThreads Threads for CPU-bound work
+     * @param cpuQueueLimit Maximum queued CPU tasks before new ones are rejected
+     */
+    public PluginExecutors(Logger logger, boolean preferVirtualThreads, int ioThreads, int ioQueueLimit,
+                           int cpuThreads, int cpuQueueLimit) {
+        this.logger = logger;
+
+        ExecutorService virtual = preferVirtualThreads ? newVirtualThreadExecutor() : null;
+        this.virtualThreads = virtual != null;
+
+        if (virtual != null) {
+            this.ioService = virtual;
+            this.io = new BoundedExecutor(virtual, Math.max(1, ioQueueLimit));
+        } else {
+            int threads = Math.max(1, ioThreads);
+            // Running tasks count against the limit too, as they do for virtual threads
+            ThreadPoolExecutor pool = newPool("minehub-io-", threads, Math.max(1, ioQueueLimit - threads));
+            pool.allowCoreThreadTimeOut(true);
+            this.ioService = pool;
+            this.io = pool;
+        }
+
+        this.cpu = newPool("minehub-cpu-", Math.max(1, cpuThreads), Math.max(1, cpuQueueLimit));
+    }
+
+    /**
+     * @return Executor for blocking work such as JDBC calls
+     */
+    public Executor io() {
+        return io;
+    }
+
+    /**
+     * @return Executor for short CPU-bound work
+     */
+    public Executor cpu() {
+        return cpu;
+    }
+
+    public boolean isUsingVirtualThreads() {
+        return virtualThreads;
+    }
+
+    /**
+     * Stop accepting work and wait for running tasks to finish
+     * @param timeout Maximum time to wait per executor
+     * @param unit Unit of the timeout
+     */
+    public void shutdown(long timeout, TimeUnit unit) {
+        shutdown(ioService, "I/O", timeout, unit);
+        shutdown(cpu, "CPU", timeout, unit);
+    }
+
+    private void shutdown(ExecutorService executor, String name, long timeout, TimeUnit unit) {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(timeout, unit)) {
+                logger.warn("{} executor did not finish in time, interrupting {} tasks", name,
+                        executor.shutdownNow().size());
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            // Looked up reflectively so the plugin still runs on Java 17
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException | UnsupportedOperationException e) {
+            return null;
+        }
+    }
+
+    private static ThreadPoolExecutor newPool(String prefix, int threads, int queueLimit) {
+        AtomicInteger counter = new AtomicInteger();
+        ThreadFactory factory = runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        return new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueLimit), factory, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Caps the number of tasks submitted to an unbounded executor that are not yet finished
+     */
+    private static final class BoundedExecutor implements Executor {
+        private final Executor delegate;
+        private final Semaphore permits;
+
+        BoundedExecutor(Executor delegate, int limit) {
+            this.delegate = delegate;
+            this.permits = new Semaphore(limit);
+        }
+
+        @Override
+        public void execute(Runnable command) {
+            if (!permits.tryAcquire()) {
+                throw new RejectedExecutionException("I/O executor queue is full");
+            }
+
+            try {
+                delegate.execute(() -> {
+                    try {
+                        command.run();
+                    } finally {
+                        permits.release();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                permits.release();
+                throw e;
+            }
+        }
+    }
+}
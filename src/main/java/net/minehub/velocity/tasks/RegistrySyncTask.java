@@ -0,0 +1,41 @@
+package net.minehub.velocity.tasks;
+
+import net.minehub.velocity.services.ServerManagementService;
+import org.slf4j.Logger;
+
+/**
+ * Pulls registry changes made by other proxies from the database, and every few runs
+ * verifies the registry checksum to catch anything the delta sync missed.
+ */
+public class RegistrySyncTask implements Runnable {
+    private final ServerManagementService serverManagementService;
+    private final Logger logger;
+    private final int checksumEveryRuns;
+    private int runs;
+    private volatile boolean running = true;
+
+    public RegistrySyncTask(ServerManagementService serverManagementService, Logger logger, int checksumEveryRuns) {
+        this.serverManagementService = serverManagementService;
+        this.logger = logger;
+        this.checksumEveryRuns = Math.max(1, checksumEveryRuns);
+    }
+
+    @Override
+    public void run() {
+        if (!running) return;
+
+        try {
+            serverManagementService.syncChanges().join();
+
+            if (++runs % checksumEveryRuns == 0) {
+                serverManagementService.verifyRegistryChecksum().join();
+            }
+        } catch (Exception e) {
+            logger.error("Error during registry sync", e);
+        }
+    }
+
+    public void stop() {
+        running = false;
+    }
+}
@@ -1,31 +1,36 @@
 package net.minehub.velocity.tasks;
 
+import net.minehub.velocity.config.ConfigManager;
+import net.minehub.velocity.metrics.MetricsRegistry;
+import net.minehub.velocity.metrics.Timer;
 import net.minehub.velocity.services.ServerManagementService;
 import org.slf4j.Logger;
 
 public class ServerCleanupTask implements Runnable {
     private final ServerManagementService serverManagementService;
     private final Logger logger;
+    private final ConfigManager configManager;
+    private final Timer runTimer;
     private volatile boolean running = true;
 
-    public ServerCleanupTask(ServerManagementService serverManagementService, Logger logger) {
+    public ServerCleanupTask(ServerManagementService serverManagementService, Logger logger, MetricsRegistry metrics,
+                             ConfigManager configManager) {
         this.serverManagementService = serverManagementService;
         this.logger = logger;
+        this.configManager = configManager;
+        this.runTimer = metrics.timer("task.cleanup");
     }
 
     @Override
     public void run() {
         if (!running) return;
 
-        try {
+        try (Timer.Sample timing = runTimer.start()) {
             logger.debug("Starting server cleanup task...");
 
-            // Update all server statuses first
-            serverManagementService.updateAllServerStatuses().join();
-
-            // Clean up servers offline for more than 72 hours (3 days)
-            int hoursOffline = 72; // TODO: Get from config
-            serverManagementService.cleanupOfflineServers(hoursOffline).join();
+            // Statuses are kept current by ServerHealthScheduler; clean up servers offline
+            // for longer than the configured period
+            serverManagementService.cleanupOfflineServers(configManager.getSettings().server().cleanupIntervalHours()).join();
 
             logger.debug("Server cleanup task completed successfully");
 
@@ -0,0 +1,271 @@
+package net.minehub.velocity.tasks;
+
+import org.slf4j.Logger;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Hashed timing wheel for large numbers of per-server timers.
+ * Timers hash into one of a fixed number of buckets by their deadline tick; a single thread
+ * advances one bucket per tick and hands due timers to an executor, so the timer thread never
+ * runs task code. Scheduling and cancelling are O(1) list operations, and a {@link Timeout}
+ * can be rescheduled any number of times, so a long-lived timer allocates nothing after it is
+ * created. Timers fire up to one tick late, never early.
+ */
+public class TimingWheel implements AutoCloseable {
+
+    private final Logger logger;
+    private final Executor dispatcher;
+    private final long tickNanos;
+    private final long startNanos = System.nanoTime();
+    private final Bucket[] wheel;
+    private final int mask;
+    private final Thread worker;
+
+    // Guarded by this
+    private long currentTick;
+    private int pending;
+    private volatile boolean running = true;
+
+    /**
+     * @param name Name of the timer thread
+     * @param tick Timer resolution
+     * @param wheelSize Number of buckets, rounded up to a power of two
+     * @param dispatcher Executor that runs expired timers
+     */
+    public TimingWheel(String name, long tick, TimeUnit unit, int wheelSize, Executor dispatcher, Logger logger) {
+        this.logger = logger;
+        this.dispatcher = dispatcher;
+        this.tickNanos = Math.max(1, unit.toNanos(tick));
+
+        int size = Integer.highestOneBit(Math.max(1, Math.min(wheelSize, 1 << 20)) * 2 - 1);
+        this.wheel = new Bucket[size];
+        for (int i = 0; i < size; i++) {
+            wheel[i] = new Bucket();
+        }
+        this.mask = size - 1;
+
+        this.worker = new Thread(this::work, name);
+        this.worker.setDaemon(true);
+    }
+
+    public void start() {
+        worker.start();
+    }
+
+    /**
+     * Stop the timer thread; pending timers never fire
+     */
+    @Override
+    public void close() {
+        running = false;
+        LockSupport.unpark(worker);
+    }
+
+    /**
+     * Create a timer that is not scheduled yet
+     * @param task Runs on the dispatcher each time the timer fires
+     * @return Timer to schedule
+     */
+    public Timeout newTimeout(Runnable task) {
+        return new Timeout(task, 0);
+    }
+
+    /**
+     * Run a task once after a delay
+     * @return Timer that can be cancelled or rescheduled
+     */
+    public Timeout schedule(Runnable task, long delay, TimeUnit unit) {
+        Timeout timeout = new Timeout(task, 0);
+        timeout.schedule(delay, unit);
+        return timeout;
+    }
+
+    /**
+     * Run a task repeatedly, each run starting a period after the previous one finished
+     * @return Timer; cancel it to stop the repetition
+     */
+    public Timeout scheduleWithFixedDelay(Runnable task, long initialDelay, long period, TimeUnit unit) {
+        Timeout timeout = new Timeout(task, Math.max(1, unit.toNanos(period)));
+        timeout.schedule(initialDelay, unit);
+        return timeout;
+    }
+
+    /**
+     * @return Number of scheduled timers
+     */
+    public synchronized int size() {
+        return pending;
+    }
+
+    private void work() {
+        long tick = 0;
+
+        while (running) {
+            long deadline = startNanos + (tick + 1) * tickNanos;
+            long wait = deadline - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(this, wait);
+                continue;
+            }
+
+            tick++;
+            Timeout expired = expire(tick);
+            while (expired != null) {
+                Timeout next = expired.nextExpired;
+                expired.nextExpired = null;
+                dispatch(expired);
+                expired = next;
+            }
+        }
+    }
+
+    /**
+     * Advance to a tick and unlink its due timers
+     * @return Due timers chained through {@link Timeout#nextExpired}
+     */
+    private synchronized Timeout expire(long tick) {
+        currentTick = tick;
+        Bucket bucket = wheel[(int) (tick & mask)];
+        Timeout head = null;
+
+        Timeout timeout = bucket.head;
+        while (timeout != null) {
+            Timeout next = timeout.next;
+            // Timers more than one revolution away stay for a later pass
+            if (timeout.deadlineTick <= tick) {
+                unlink(timeout);
+                timeout.nextExpired = head;
+                head = timeout;
+            }
+            timeout = next;
+        }
+        return head;
+    }
+
+    private void dispatch(Timeout timeout) {
+        try {
+            dispatcher.execute(timeout);
+        } catch (RejectedExecutionException e) {
+            logger.warn("Timer task rejected, retrying next tick");
+            synchronized (this) {
+                if (!timeout.cancelled && timeout.bucket == null) {
+                    link(timeout, tickNanos);
+                }
+            }
+        }
+    }
+
+    // Caller holds the lock
+    private void link(Timeout timeout, long delayNanos) {
+        // Round the deadline up so a timer never fires before its delay has passed
+        long elapsed = System.nanoTime() - startNanos + Math.max(0, delayNanos);
+        timeout.deadlineTick = Math.max(currentTick + 1, (elapsed + tickNanos - 1) / tickNanos);
+        Bucket bucket = wheel[(int) (timeout.deadlineTick & mask)];
+        timeout.bucket = bucket;
+        timeout.prev = null;
+        timeout.next = bucket.head;
+        if (bucket.head != null) {
+            bucket.head.prev = timeout;
+        }
+        bucket.head = timeout;
+        pending++;
+    }
+
+    // Caller holds the lock
+    private void unlink(Timeout timeout) {
+        Bucket bucket = timeout.bucket;
+        if (timeout.prev != null) {
+            timeout.prev.next = timeout.next;
+        } else {
+            bucket.head = timeout.next;
+        }
+        if (timeout.next != null) {
+            timeout.next.prev = timeout.prev;
+        }
+        timeout.bucket = null;
+        timeout.prev = null;
+        timeout.next = null;
+        pending--;
+    }
+
+    private static final class Bucket {
+        private Timeout head;
+    }
+
+    /**
+     * A timer on the wheel. Scheduling an already scheduled timer moves it to the new deadline.
+     */
+    public final class Timeout implements Runnable {
+        private final Runnable task;
+        private final long periodNanos;
+
+        // Guarded by the wheel
+        private Bucket bucket;
+        private Timeout prev;
+        private Timeout next;
+        private long deadlineTick;
+        private boolean cancelled;
+        // Only touched by the timer thread
+        private Timeout nextExpired;
+
+        private Timeout(Runnable task, long periodNanos) {
+            this.task = task;
+            this.periodNanos = periodNanos;
+        }
+
+        /**
+         * Fire after a delay, replacing any earlier deadline
+         */
+        public void schedule(long delay, TimeUnit unit) {
+            synchronized (TimingWheel.this) {
+                cancelled = false;
+                if (bucket != null) {
+                    unlink(this);
+                }
+                link(this, unit.toNanos(delay));
+            }
+        }
+
+        /**
+         * Stop the timer; a run already handed to the dispatcher still completes
+         * @return true if the timer was scheduled
+         */
+        public boolean cancel() {
+            synchronized (TimingWheel.this) {
+                cancelled = true;
+                if (bucket == null) {
+                    return false;
+                }
+                unlink(this);
+                return true;
+            }
+        }
+
+        public boolean isScheduled() {
+            synchronized (TimingWheel.this) {
+                return bucket != null;
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                logger.error("Error in timer task", e);
+            }
+
+            if (periodNanos > 0) {
+                synchronized (TimingWheel.this) {
+                    if (!cancelled && bucket == null) {
+                        link(this, periodNanos);
+                    }
+                }
+            }
+        }
+    }
+}
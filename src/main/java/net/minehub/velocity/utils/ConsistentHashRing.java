@@ -0,0 +1,116 @@
+package net.minehub.velocity.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Immutable consistent hash ring.
+ * Each member is placed on the ring at several virtual points; a key belongs to the member
+ * owning the first point at or after the key's hash. Adding or removing a member only moves
+ * the keys adjacent to its points, so the rest of the assignment stays stable.
+ */
+public final class ConsistentHashRing {
+
+    private static final ConsistentHashRing EMPTY = new ConsistentHashRing(new long[0], new String[0], List.of());
+
+    private final long[] points;
+    private final String[] owners;
+    private final List<String> members;
+
+    private ConsistentHashRing(long[] points, String[] owners, List<String> members) {
+        this.points = points;
+        this.owners = owners;
+        this.members = members;
+    }
+
+    public static ConsistentHashRing empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Build a ring
+     * @param members Member ids, duplicates are ignored
+     * @param virtualNodes Points per member; more points give a more even split
+     * @return New ring
+     */
+    public static ConsistentHashRing of(Collection<String> members, int virtualNodes) {
+        if (members.isEmpty()) {
+            return EMPTY;
+        }
+
+        // Sorted so every proxy builds exactly the same ring from the same members
+        List<String> sorted = List.copyOf(new TreeSet<>(members));
+        int perMember = Math.max(1, virtualNodes);
+        long[][] entries = new long[sorted.size() * perMember][];
+
+        int count = 0;
+        for (int m = 0; m < sorted.size(); m++) {
+            for (int v = 0; v < perMember; v++) {
+                entries[count++] = new long[] {hash(sorted.get(m) + "#" + v), m};
+            }
+        }
+        Arrays.sort(entries, (a, b) -> a[0] != b[0] ? Long.compare(a[0], b[0]) : Long.compare(a[1], b[1]));
+
+        long[] points = new long[count];
+        String[] owners = new String[count];
+        for (int i = 0; i < count; i++) {
+            points[i] = entries[i][0];
+            owners[i] = sorted.get((int) entries[i][1]);
+        }
+        return new ConsistentHashRing(points, owners, sorted);
+    }
+
+    /**
+     * Find the member responsible for a key
+     * @param key Key to place, e.g. a lowercased server name
+     * @return Owning member, or null if the ring is empty
+     */
+    public String owner(String key) {
+        if (points.length == 0) {
+            return null;
+        }
+
+        int index = Arrays.binarySearch(points, hash(key));
+        if (index < 0) {
+            index = -index - 1;
+        }
+        return owners[index == points.length ? 0 : index];
+    }
+
+    public boolean contains(String member) {
+        return members.contains(member);
+    }
+
+    /**
+     * @return Members in sorted order
+     */
+    public List<String> members() {
+        return members;
+    }
+
+    public boolean isEmpty() {
+        return members.isEmpty();
+    }
+
+    /**
+     * 64-bit FNV-1a over UTF-8 bytes, finished with the MurmurHash3 mixer so that similar
+     * keys such as "proxy-1#0" and "proxy-1#1" spread over the whole ring
+     */
+    static long hash(String value) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b & 0xff;
+            h *= 0x100000001b3L;
+        }
+
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb93fe53a6b2bL;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,291 @@
+package net.minehub.velocity.utils;
+
+import net.minehub.velocity.metrics.Counter;
+import net.minehub.velocity.metrics.MetricsRegistry;
+import net.minehub.velocity.metrics.Timer;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
+import java.util.function.LongSupplier;
+
+/**
+ * Asynchronous hostname resolver with a TTL cache.
+ * Lookups run on the given executor, never on the caller, and concurrent lookups of one host
+ * share a single query. Failed lookups are cached too, for a shorter time, so a typo'd host
+ * does not cost a resolver round trip on every probe. Once an entry expires its old address
+ * keeps being served while a refresh runs in the background, so a slow resolver never stalls
+ * a probe of a host that resolved before. A host that stops resolving keeps its last address
+ * for at most the max stale age counted from its first failed lookup, then resolves to nothing.
+ */
+public class DnsCache {
+
+    private final Executor executor;
+    private final Resolver resolver;
+    private final LongSupplier clock;
+    private final IntSupplier ttlSeconds;
+    private final IntSupplier negativeTtlSeconds;
+    private final IntSupplier maxStaleSeconds;
+    private final Timer lookups;
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter failures;
+
+    private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * @param executor Runs the blocking lookups
+     * @param ttlSeconds How long a resolved address is used before it is refreshed
+     * @param negativeTtlSeconds How long a failed lookup is remembered
+     * @param maxStaleSeconds How long a host that stopped resolving keeps its last address
+     */
+    public DnsCache(Executor executor, IntSupplier ttlSeconds, IntSupplier negativeTtlSeconds,
+                    IntSupplier maxStaleSeconds, MetricsRegistry metrics) {
+        this(executor, InetAddress::getByName, System::nanoTime, ttlSeconds, negativeTtlSeconds, maxStaleSeconds, metrics);
+    }
+
+    /**
+     * @param resolver Blocking lookup of one host
+     * @param clock Source of {@link System#nanoTime()} readings
+     */
+    DnsCache(Executor executor, Resolver resolver, LongSupplier clock, IntSupplier ttlSeconds,
+             IntSupplier negativeTtlSeconds, IntSupplier maxStaleSeconds, MetricsRegistry metrics) {
+        this.executor = executor;
+        this.resolver = resolver;
+        this.clock = clock;
+        this.ttlSeconds = ttlSeconds;
+        this.negativeTtlSeconds = negativeTtlSeconds;
+        this.maxStaleSeconds = maxStaleSeconds;
+        this.lookups = metrics.timer("dns.lookup");
+        this.hits = metrics.counter("dns.hits");
+        this.misses = metrics.counter("dns.misses");
+        this.failures = metrics.counter("dns.failures");
+        metrics.gauge("dns.cached", entries::size);
+    }
+
+    /**
+     * Resolve a hostname
+     * @param host Hostname or IP literal
+     * @return Future with the address, or null if the host doesn't resolve; never completes exceptionally
+     */
+    public CompletableFuture<InetAddress> resolve(String host) {
+        if (isIpLiteral(host)) {
+            try {
+                // Parsed locally, no lookup
+                return CompletableFuture.completedFuture(InetAddress.getByName(host));
+            } catch (UnknownHostException e) {
+                return CompletableFuture.completedFuture(null);
+            }
+        }
+
+        String key = host.toLowerCase(Locale.ROOT);
+        long now = clock.getAsLong();
+        Entry entry = entries.get(key);
+        if (entry != null) {
+            hits.increment();
+            if (now - entry.expiresNanos >= 0) {
+                entry = refresh(key, entry);
+            }
+            return serve(entry, now);
+        }
+
+        misses.increment();
+        Entry pending = new Entry(null, 0, now, new CompletableFuture<>());
+        Entry existing = entries.putIfAbsent(key, pending);
+        if (existing != null) {
+            return serve(existing, now);
+        }
+        lookup(key, pending);
+        return pending.pending;
+    }
+
+    /**
+     * Resolve hosts in parallel ahead of their first probe
+     * @param hosts Hostnames, duplicates allowed
+     * @return Future completed once every lookup finished
+     */
+    public CompletableFuture<Void> preResolve(Collection<String> hosts) {
+        Set<String> distinct = new HashSet<>();
+        for (String host : hosts) {
+            distinct.add(host.toLowerCase(Locale.ROOT));
+        }
+        return CompletableFuture.allOf(distinct.stream().map(this::resolve).toArray(CompletableFuture[]::new));
+    }
+
+    /**
+     * Forget hosts nobody has asked for in a full TTL since their entry expired
+     */
+    public void evictStale() {
+        long cutoff = clock.getAsLong() - TimeUnit.SECONDS.toNanos(ttlSeconds.getAsInt());
+        entries.values().removeIf(entry -> entry.pending == null && cutoff - entry.expiresNanos > 0);
+    }
+
+    /**
+     * Serve an entry's address while it is usable, otherwise wait for its lookup if one is running
+     */
+    private CompletableFuture<InetAddress> serve(Entry entry, long now) {
+        boolean usable = entry.address != null && (entry.failingSinceNanos == 0
+                || now - entry.failingSinceNanos < TimeUnit.SECONDS.toNanos(maxStaleSeconds.getAsInt()));
+        if (usable || entry.pending == null) {
+            return CompletableFuture.completedFuture(usable ? entry.address : null);
+        }
+        return entry.pending;
+    }
+
+    /**
+     * @return The entry to serve: the refreshing one, or whatever replaced the expired entry meanwhile
+     */
+    private Entry refresh(String key, Entry expired) {
+        if (expired.pending != null) {
+            return expired;
+        }
+        Entry refreshing = new Entry(expired.address, expired.failingSinceNanos, expired.expiresNanos, new CompletableFuture<>());
+        if (entries.replace(key, expired, refreshing)) {
+            lookup(key, refreshing);
+            return refreshing;
+        }
+        Entry current = entries.get(key);
+        return current != null ? current : expired;
+    }
+
+    private void lookup(String host, Entry inFlight) {
+        CompletableFuture<InetAddress> result = inFlight.pending;
+        Runnable task = () -> {
+            long start = System.nanoTime();
+            InetAddress address;
+            try {
+                address = resolver.lookup(host);
+                lookups.recordSince(start);
+            } catch (UnknownHostException | SecurityException e) {
+                address = null;
+                failures.increment();
+            }
+            store(host, address);
+            result.complete(address);
+        };
+
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            // Try again on the next request rather than caching a failure that isn't the host's fault
+            if (inFlight.address != null) {
+                entries.replace(host, inFlight, new Entry(inFlight.address, inFlight.failingSinceNanos, inFlight.expiresNanos, null));
+            } else {
+                entries.remove(host, inFlight);
+            }
+            result.complete(inFlight.address);
+        }
+    }
+
+    private void store(String host, InetAddress address) {
+        long now = clock.getAsLong();
+        if (address != null) {
+            entries.put(host, new Entry(address, 0, now + TimeUnit.SECONDS.toNanos(ttlSeconds.getAsInt()), null));
+            return;
+        }
+
+        // A host that stopped resolving keeps its last address until max stale age after its first failure
+        Entry previous = entries.get(host);
+        long expires = now + TimeUnit.SECONDS.toNanos(negativeTtlSeconds.getAsInt());
+        if (previous == null || previous.address == null) {
+            entries.put(host, new Entry(null, 0, expires, null));
+            return;
+        }
+
+        long failingSince = previous.failingSinceNanos != 0 ? previous.failingSinceNanos : now;
+        long staleUntil = failingSince + TimeUnit.SECONDS.toNanos(maxStaleSeconds.getAsInt());
+        if (now - staleUntil >= 0) {
+            entries.put(host, new Entry(null, 0, expires, null));
+        } else {
+            // Look again no later than the address stops being usable
+            entries.put(host, new Entry(previous.address, failingSince, expires - staleUntil > 0 ? staleUntil : expires, null));
+        }
+    }
+
+    /**
+     * Check whether a host is an IP literal InetAddress parses without a lookup: a dotted-quad IPv4
+     * address, or an IPv6 address, optionally in brackets and with a zone id. Other all-digit forms
+     * such as "123" are left to the resolver rather than read as a packed IPv4 address.
+     */
+    static boolean isIpLiteral(String host) {
+        return isIpv4Literal(host) || isIpv6Literal(host);
+    }
+
+    private static boolean isIpv4Literal(String host) {
+        int parts = 0;
+        int start = 0;
+        while (start <= host.length()) {
+            int end = host.indexOf('.', start);
+            if (end < 0) {
+                end = host.length();
+            }
+            int length = end - start;
+            if (length < 1 || length > 3 || ++parts > 4) {
+                return false;
+            }
+            int value = 0;
+            for (int i = start; i < end; i++) {
+                char c = host.charAt(i);
+                if (c < '0' || c > '9') {
+                    return false;
+                }
+                value = value * 10 + (c - '0');
+            }
+            if (value > 255) {
+                return false;
+            }
+            start = end + 1;
+        }
+        return parts == 4;
+    }
+
+    private static boolean isIpv6Literal(String host) {
+        String address = host;
+        if (address.startsWith("[") && address.endsWith("]")) {
+            address = address.substring(1, address.length() - 1);
+        }
+        int zone = address.indexOf('%');
+        if (zone >= 0) {
+            address = address.substring(0, zone);
+        }
+
+        int colons = 0;
+        for (int i = 0; i < address.length(); i++) {
+            char c = address.charAt(i);
+            if (c == ':') {
+                colons++;
+            } else if (c != '.' && Character.digit(c, 16) < 0) {
+                return false;
+            }
+        }
+        // The shortest forms, "::" and "::1", already have two
+        return colons >= 2 && colons <= 7;
+    }
+
+    /**
+     * Blocking lookup of one host, {@link InetAddress#getByName} outside of tests
+     */
+    @FunctionalInterface
+    interface Resolver {
+        InetAddress lookup(String host) throws UnknownHostException;
+    }
+
+    /**
+     * @param address Last resolved address, null if the host doesn't resolve
+     * @param failingSinceNanos When lookups of a host with an address started failing, 0 if they succeed
+     * @param expiresNanos When the entry should be refreshed
+     * @param pending Lookup in progress, if any
+     */
+    private record Entry(InetAddress address, long failingSinceNanos, long expiresNanos, CompletableFuture<InetAddress> pending) {
+    }
+}
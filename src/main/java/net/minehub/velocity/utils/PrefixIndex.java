@@ -0,0 +1,226 @@
+package net.minehub.velocity.utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Immutable, case-insensitive prefix index over server names.
+ * Names are kept in two parallel arrays sorted by lowercased key, so a prefix query is a
+ * binary search followed by a scan over the matching range only. Updates return a new
+ * index and copy the arrays once, which makes it safe to publish through a volatile field.
+ */
+public final class PrefixIndex {
+
+    private static final PrefixIndex EMPTY = new PrefixIndex(new String[0], new String[0]);
+
+    private final String[] keys;
+    private final String[] names;
+
+    private PrefixIndex(String[] keys, String[] names) {
+        this.keys = keys;
+        this.names = names;
+    }
+
+    public static PrefixIndex empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Build an index in one pass
+     * @param names Server names in original case
+     * @return New index
+     */
+    public static PrefixIndex of(Collection<String> names) {
+        return EMPTY.withAll(names);
+    }
+
+    /**
+     * Add or replace a name
+     * @param name Server name in original case
+     * @return Index containing the name
+     */
+    public PrefixIndex with(String name) {
+        String key = key(name);
+        int index = Arrays.binarySearch(keys, key);
+
+        if (index >= 0) {
+            if (names[index].equals(name)) {
+                return this;
+            }
+            String[] newNames = names.clone();
+            newNames[index] = name;
+            return new PrefixIndex(keys, newNames);
+        }
+
+        int insertAt = -index - 1;
+        String[] newKeys = new String[keys.length + 1];
+        String[] newNames = new String[names.length + 1];
+        System.arraycopy(keys, 0, newKeys, 0, insertAt);
+        System.arraycopy(names, 0, newNames, 0, insertAt);
+        newKeys[insertAt] = key;
+        newNames[insertAt] = name;
+        System.arraycopy(keys, insertAt, newKeys, insertAt + 1, keys.length - insertAt);
+        System.arraycopy(names, insertAt, newNames, insertAt + 1, names.length - insertAt);
+        return new PrefixIndex(newKeys, newNames);
+    }
+
+    /**
+     * Add many names with a single sort and merge instead of one copy per name
+     * @param added Server names in original case
+     * @return Index containing all names
+     */
+    public PrefixIndex withAll(Collection<String> added) {
+        if (added.isEmpty()) {
+            return this;
+        }
+
+        String[][] entries = new String[added.size()][];
+        int count = 0;
+        for (String name : added) {
+            entries[count++] = new String[] {key(name), name};
+        }
+        Arrays.sort(entries, (a, b) -> a[0].compareTo(b[0]));
+
+        String[] newKeys = new String[keys.length + count];
+        String[] newNames = new String[names.length + count];
+        int i = 0;
+        int j = 0;
+        int size = 0;
+
+        while (i < keys.length || j < count) {
+            int cmp = i == keys.length ? 1 : j == count ? -1 : keys[i].compareTo(entries[j][0]);
+            if (cmp < 0) {
+                newKeys[size] = keys[i];
+                newNames[size++] = names[i++];
+            } else {
+                if (cmp == 0) {
+                    i++;
+                }
+                // Later duplicates in the batch win over earlier ones
+                while (j + 1 < count && entries[j + 1][0].equals(entries[j][0])) {
+                    j++;
+                }
+                newKeys[size] = entries[j][0];
+                newNames[size++] = entries[j++][1];
+            }
+        }
+
+        return new PrefixIndex(Arrays.copyOf(newKeys, size), Arrays.copyOf(newNames, size));
+    }
+
+    /**
+     * Remove a name
+     * @param name Server name in any case
+     * @return Index without the name
+     */
+    public PrefixIndex without(String name) {
+        int index = Arrays.binarySearch(keys, key(name));
+        if (index < 0) {
+            return this;
+        }
+
+        String[] newKeys = new String[keys.length - 1];
+        String[] newNames = new String[names.length - 1];
+        System.arraycopy(keys, 0, newKeys, 0, index);
+        System.arraycopy(names, 0, newNames, 0, index);
+        System.arraycopy(keys, index + 1, newKeys, index, keys.length - index - 1);
+        System.arraycopy(names, index + 1, newNames, index, names.length - index - 1);
+        return new PrefixIndex(newKeys, newNames);
+    }
+
+    /**
+     * Remove many names in a single pass
+     * @param removed Server names in any case
+     * @return Index without those names
+     */
+    public PrefixIndex withoutAll(Collection<String> removed) {
+        if (removed.isEmpty()) {
+            return this;
+        }
+        if (removed.size() == 1) {
+            return without(removed.iterator().next());
+        }
+
+        Set<String> removedKeys = new HashSet<>();
+        for (String name : removed) {
+            removedKeys.add(key(name));
+        }
+
+        String[] newKeys = new String[keys.length];
+        String[] newNames = new String[names.length];
+        int size = 0;
+        for (int i = 0; i < keys.length; i++) {
+            if (!removedKeys.contains(keys[i])) {
+                newKeys[size] = keys[i];
+                newNames[size++] = names[i];
+            }
+        }
+
+        return size == keys.length ? this : new PrefixIndex(Arrays.copyOf(newKeys, size), Arrays.copyOf(newNames, size));
+    }
+
+    /**
+     * Find names starting with a prefix, ignoring case
+     * @param prefix Typed prefix
+     * @param limit Maximum number of results
+     * @return Up to {@code limit} names in alphabetical order
+     */
+    public List<String> complete(String prefix, int limit) {
+        String keyPrefix = key(prefix);
+        int start = Arrays.binarySearch(keys, keyPrefix);
+        if (start < 0) {
+            start = -start - 1;
+        }
+
+        int end = start;
+        while (end < keys.length && end - start < limit && keys[end].startsWith(keyPrefix)) {
+            end++;
+        }
+
+        if (end == start) {
+            return List.of();
+        }
+        return Collections.unmodifiableList(Arrays.asList(names).subList(start, end));
+    }
+
+    public int size() {
+        return keys.length;
+    }
+
+    /**
+     * @return All lowercased keys in sorted order, as a read-only view
+     */
+    public List<String> keys() {
+        return Collections.unmodifiableList(Arrays.asList(keys));
+    }
+
+    /**
+     * Filter an arbitrary small set of names by prefix, ignoring case
+     * @param candidates Server names in original case
+     * @param prefix Typed prefix
+     * @param limit Maximum number of results
+     * @return Up to {@code limit} matching names in alphabetical order
+     */
+    public static List<String> complete(Collection<String> candidates, String prefix, int limit) {
+        String keyPrefix = key(prefix);
+        List<String> matches = new ArrayList<>();
+        for (String name : candidates) {
+            if (key(name).startsWith(keyPrefix)) {
+                matches.add(name);
+            }
+        }
+
+        matches.sort(String.CASE_INSENSITIVE_ORDER);
+        return matches.size() > limit ? matches.subList(0, limit) : matches;
+    }
+
+    private static String key(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,262 @@
+package net.minehub.velocity.utils;
+
+import net.minehub.velocity.metrics.Counter;
+import net.minehub.velocity.metrics.MetricsRegistry;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.ArrayDeque;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.IntSupplier;
+
+/**
+ * Front for {@link ProbeEngine} that avoids probing the same server twice at once.
+ * Concurrent requests for one endpoint share a single probe, and a result stays valid for a
+ * short TTL, so a health check and an admin lookup that land together cost one connection. A
+ * finished status query also answers plain reachability probes. Cached results are bounded in
+ * number; the least recently used is dropped first.
+ * <p>
+ * Many servers share one machine on different ports, so probes are also capped per resolved
+ * IP. Probes over the cap wait in a FIFO for that IP and start as earlier ones finish. The
+ * timeout counts from when the probe starts. A request that waits longer than the queue limit,
+ * resolving included, completes as {@link ProbeResult#throttled() throttled}; that result is not
+ * cached, so the next request probes again.
+ */
+public class ProbeCache {
+
+    private final DnsCache dnsCache;
+    private final Executor executor;
+    private final IntSupplier ttlMs;
+    private final IntSupplier maxEntries;
+    private final IntSupplier maxPerHost;
+    private final IntSupplier maxQueueWaitMs;
+    private final Counter hits;
+    private final Counter coalesced;
+    private final Counter misses;
+    private final Counter throttled;
+
+    private final ConcurrentMap<Endpoint, CompletableFuture<ProbeResult>> inFlight = new ConcurrentHashMap<>();
+    // Guarded by itself; access order, so iteration starts at the least recently used
+    private final LinkedHashMap<Endpoint, Cached> results = new LinkedHashMap<>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Endpoint, Cached> eldest) {
+            return size() > maxEntries.getAsInt();
+        }
+    };
+    private final ConcurrentMap<InetAddress, HostSlots> hosts = new ConcurrentHashMap<>();
+
+    /**
+     * @param dnsCache Resolves hostnames to the IP the per-host cap applies to
+     * @param executor Completes requests that ran out of time before their probe could start
+     * @param ttlMs How long a probe result is reused
+     * @param maxEntries Most results kept
+     * @param maxPerHost Most probes running against one IP at once
+     * @param maxQueueWaitMs Longest a request may wait for its probe to start
+     */
+    public ProbeCache(DnsCache dnsCache, Executor executor, IntSupplier ttlMs, IntSupplier maxEntries,
+                      IntSupplier maxPerHost, IntSupplier maxQueueWaitMs, MetricsRegistry metrics) {
+        this.dnsCache = dnsCache;
+        this.executor = executor;
+        this.ttlMs = ttlMs;
+        this.maxEntries = maxEntries;
+        this.maxPerHost = maxPerHost;
+        this.maxQueueWaitMs = maxQueueWaitMs;
+        this.hits = metrics.counter("probe.cache.hits");
+        this.coalesced = metrics.counter("probe.cache.coalesced");
+        this.misses = metrics.counter("probe.cache.misses");
+        this.throttled = metrics.counter("probe.host.throttled");
+        metrics.gauge("probe.cache.size", this::size);
+    }
+
+    /**
+     * Check reachability, reusing a recent or running probe of the same server
+     * @return future completed with the probe result, never exceptionally
+     */
+    public CompletableFuture<ProbeResult> probe(String host, int port, int timeoutMs) {
+        Endpoint status = new Endpoint(host.toLowerCase(Locale.ROOT), port, true);
+        CompletableFuture<ProbeResult> shared = lookup(status);
+        return shared != null ? shared : get(new Endpoint(status.host, port, false), timeoutMs);
+    }
+
+    /**
+     * Query status, reusing a recent or running status query of the same server
+     * @return future completed with the probe result, never exceptionally
+     */
+    public CompletableFuture<ProbeResult> queryStatus(String host, int port, int timeoutMs) {
+        return get(new Endpoint(host.toLowerCase(Locale.ROOT), port, true), timeoutMs);
+    }
+
+    private CompletableFuture<ProbeResult> get(Endpoint endpoint, int timeoutMs) {
+        CompletableFuture<ProbeResult> shared = lookup(endpoint);
+        if (shared != null) {
+            return shared;
+        }
+
+        CompletableFuture<ProbeResult> future = new CompletableFuture<>();
+        CompletableFuture<ProbeResult> running = inFlight.putIfAbsent(endpoint, future);
+        if (running != null) {
+            coalesced.increment();
+            return running;
+        }
+
+        misses.increment();
+        future.whenComplete((result, e) -> {
+            if (!result.throttled()) {
+                synchronized (results) {
+                    results.put(endpoint, new Cached(result, System.nanoTime()));
+                }
+            }
+            inFlight.remove(endpoint, future);
+        });
+        AtomicBoolean started = new AtomicBoolean();
+        CompletableFuture.delayedExecutor(maxQueueWaitMs.getAsInt(), TimeUnit.MILLISECONDS, executor).execute(() -> {
+            if (started.compareAndSet(false, true)) {
+                future.complete(ProbeResult.notStarted());
+            }
+        });
+        dnsCache.resolve(endpoint.host).thenAccept(ip -> {
+            if (ip == null) {
+                future.complete(ProbeResult.unreachable());
+            } else {
+                runLimited(ip, new Waiter(new InetSocketAddress(ip, endpoint.port), endpoint.status, timeoutMs, started, future));
+            }
+        });
+        return future;
+    }
+
+    private CompletableFuture<ProbeResult> lookup(Endpoint endpoint) {
+        Cached cached;
+        synchronized (results) {
+            cached = results.get(endpoint);
+        }
+        if (cached != null && System.nanoTime() - cached.completedNanos < TimeUnit.MILLISECONDS.toNanos(ttlMs.getAsInt())) {
+            hits.increment();
+            return CompletableFuture.completedFuture(cached.result);
+        }
+
+        CompletableFuture<ProbeResult> running = inFlight.get(endpoint);
+        if (running != null) {
+            coalesced.increment();
+        }
+        return running;
+    }
+
+    private static CompletableFuture<ProbeResult> start(Waiter waiter) {
+        if (!waiter.started.compareAndSet(false, true)) {
+            // Already completed as throttled after waiting too long for a slot
+            return CompletableFuture.completedFuture(ProbeResult.notStarted());
+        }
+
+        ProbeEngine engine = ServerPingUtil.getEngine();
+        return waiter.status
+                ? ServerPingUtil.timed(engine.queryStatus(waiter.address, waiter.timeoutMs), "ping.status")
+                : ServerPingUtil.timed(engine.probe(waiter.address, waiter.timeoutMs), "ping.probe");
+    }
+
+    private void runLimited(InetAddress ip, Waiter waiter) {
+        while (true) {
+            HostSlots slots = hosts.computeIfAbsent(ip, k -> new HostSlots());
+            synchronized (slots) {
+                if (slots.removed) {
+                    continue;
+                }
+                if (slots.running >= maxPerHost.getAsInt()) {
+                    throttled.increment();
+                    slots.waiting.add(waiter);
+                    return;
+                }
+                slots.running++;
+            }
+            run(ip, waiter);
+            return;
+        }
+    }
+
+    /**
+     * Run a probe in a slot that is already taken, then hand the slot on to the next waiting
+     * probe. Probes that complete at once are drained in this loop rather than by recursion,
+     * so a long queue can't overflow the stack.
+     */
+    private void run(InetAddress ip, Waiter waiter) {
+        while (waiter != null) {
+            CompletableFuture<ProbeResult> probe = start(waiter);
+            if (!probe.isDone()) {
+                Waiter current = waiter;
+                probe.whenComplete((value, e) -> {
+                    current.result.complete(value != null ? value : ProbeResult.unreachable());
+                    run(ip, next(ip));
+                });
+                return;
+            }
+
+            ProbeResult value = probe.getNow(null);
+            waiter.result.complete(value != null ? value : ProbeResult.unreachable());
+            waiter = next(ip);
+        }
+    }
+
+    /**
+     * @return The next probe waiting for this IP, which takes over the slot, or null after
+     *         giving the slot back
+     */
+    private Waiter next(InetAddress ip) {
+        HostSlots slots = hosts.get(ip);
+        if (slots == null) {
+            return null;
+        }
+
+        synchronized (slots) {
+            Waiter next = slots.waiting.poll();
+            if (next == null) {
+                slots.running--;
+                if (slots.running == 0) {
+                    slots.removed = true;
+                    hosts.remove(ip, slots);
+                }
+            }
+            return next;
+        }
+    }
+
+    private long size() {
+        synchronized (results) {
+            return results.size();
+        }
+    }
+
+    /**
+     * @param status true for a status query, false for a plain reachability probe
+     */
+    private record Endpoint(String host, int port, boolean status) {
+    }
+
+    private record Cached(ProbeResult result, long completedNanos) {
+    }
+
+    /**
+     * A probe to run once a slot for its IP is free
+     * @param started Claimed by whichever comes first: the probe starting, or the queue limit
+     * @param result Future handed to the requesters
+     */
+    private record Waiter(InetSocketAddress address, boolean status, int timeoutMs, AtomicBoolean started,
+                          CompletableFuture<ProbeResult> result) {
+    }
+
+    /**
+     * Probes running and waiting for one IP. Guarded by itself.
+     */
+    private static final class HostSlots {
+        private final ArrayDeque<Waiter> waiting = new ArrayDeque<>();
+        private int running;
+        // Set once dropped from the map; callers holding it look it up again
+        private boolean removed;
+    }
+}
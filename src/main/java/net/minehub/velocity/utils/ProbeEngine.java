@@ -0,0 +1,507 @@
+package net.minehub.velocity.utils;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntSupplier;
+
+/**
+ * Non-blocking reachability prober.
+ * All connects are driven by a single selector thread, so thousands of probes can be
+ * in flight without parking a thread per probe. At most {@code maxInFlight} connects
+ * are open at once; the rest wait in a FIFO until a slot frees up. A probe's timeout starts
+ * when it gets its slot. One that waits in the FIFO longer than the queue limit completes as
+ * {@link ProbeResult#throttled() throttled}, so local congestion never shows up as an
+ * unreachable server.
+ * Status probes additionally run the Server List Ping exchange on the same connection.
+ */
+public class ProbeEngine implements Closeable {
+
+    private static final int BUFFER_SIZE = 16 * 1024;
+    private static final int MAX_POOLED_BUFFERS = 256;
+    private static final int DEFAULT_MAX_QUEUE_WAIT_MS = 10000;
+    // Lets the selector finish a probe that connected by its deadline with its own result
+    private static final long TIMEOUT_GRACE_MS = 250;
+
+    private final Selector selector;
+    private final Thread ioThread;
+    private final ExecutorService workerPool;
+    private final BufferPool bufferPool = new BufferPool(BUFFER_SIZE, MAX_POOLED_BUFFERS);
+    private final int maxInFlight;
+    private final DnsCache dnsCache;
+    private final IntSupplier maxQueueWaitMs;
+
+    private final Queue<Probe> submissions = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean wakeupPending = new AtomicBoolean();
+    private volatile boolean running = true;
+
+    // Only touched by the selector thread
+    private final ArrayDeque<Probe> waiting = new ArrayDeque<>();
+    private final PriorityQueue<Probe> deadlines = new PriorityQueue<>(Comparator.comparingLong(p -> p.deadlineNanos));
+    private int inFlight;
+
+    /**
+     * @param maxInFlight Maximum number of connects open at the same time
+     * @param workerThreads Threads used for DNS resolution, status parsing and completing futures
+     */
+    public ProbeEngine(int maxInFlight, int workerThreads) throws IOException {
+        this(maxInFlight, workerThreads, null, () -> DEFAULT_MAX_QUEUE_WAIT_MS);
+    }
+
+    /**
+     * @param maxInFlight Maximum number of connects open at the same time
+     * @param workerThreads Threads used for status parsing and completing futures
+     * @param dnsCache Resolves hostnames, or null to resolve each probe on the worker pool
+     * @param maxQueueWaitMs Longest a probe may wait for a slot, resolving included
+     */
+    public ProbeEngine(int maxInFlight, int workerThreads, DnsCache dnsCache, IntSupplier maxQueueWaitMs) throws IOException {
+        this.maxInFlight = Math.max(1, maxInFlight);
+        this.dnsCache = dnsCache;
+        this.maxQueueWaitMs = maxQueueWaitMs;
+        this.selector = Selector.open();
+
+        AtomicInteger counter = new AtomicInteger();
+        this.workerPool = Executors.newFixedThreadPool(Math.max(1, workerThreads), r -> {
+            Thread thread = new Thread(r, "minehub-probe-worker-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.ioThread = new Thread(this::runLoop, "minehub-probe-selector");
+        this.ioThread.setDaemon(true);
+        this.ioThread.start();
+    }
+
+    /**
+     * Probe a server without blocking the caller
+     * @param host Server hostname/IP
+     * @param port Server port
+     * @param timeoutMs Deadline in milliseconds, counted from when the connect starts
+     * @return future completed with the probe result, never exceptionally
+     */
+    public CompletableFuture<ProbeResult> probe(String host, int port, int timeoutMs) {
+        return submit(host, port, timeoutMs, false);
+    }
+
+    /**
+     * Probe an address without blocking the caller.
+     * Unresolved addresses are resolved through the DNS cache or on the worker pool, never on
+     * the selector thread.
+     * @param address Server address
+     * @param timeoutMs Deadline in milliseconds, counted from when the connect starts
+     * @return future completed with the probe result, never exceptionally
+     */
+    public CompletableFuture<ProbeResult> probe(InetSocketAddress address, int timeoutMs) {
+        return submit(address, timeoutMs, false);
+    }
+
+    /**
+     * Connect and run a Server List Ping status request in the same round trip
+     * @param host Server hostname/IP
+     * @param port Server port
+     * @param timeoutMs Deadline for the whole exchange in milliseconds, counted from when the connect starts
+     * @return future completed with the probe result; the status is null if the server
+     *         accepted the connection but did not answer the status request
+     */
+    public CompletableFuture<ProbeResult> queryStatus(String host, int port, int timeoutMs) {
+        return submit(host, port, timeoutMs, true);
+    }
+
+    /**
+     * Connect and run a Server List Ping status request in the same round trip
+     * @param address Server address
+     * @param timeoutMs Deadline for the whole exchange in milliseconds, counted from when the connect starts
+     * @return future completed with the probe result, never exceptionally
+     */
+    public CompletableFuture<ProbeResult> queryStatus(InetSocketAddress address, int timeoutMs) {
+        return submit(address, timeoutMs, true);
+    }
+
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    private CompletableFuture<ProbeResult> submit(String host, int port, int timeoutMs, boolean wantStatus) {
+        try {
+            return submit(InetSocketAddress.createUnresolved(host, port), timeoutMs, wantStatus);
+        } catch (IllegalArgumentException e) {
+            // Bad host or port out of range
+            return CompletableFuture.completedFuture(ProbeResult.unreachable());
+        }
+    }
+
+    private CompletableFuture<ProbeResult> submit(InetSocketAddress address, int timeoutMs, boolean wantStatus) {
+        CompletableFuture<ProbeResult> future = new CompletableFuture<>();
+        if (!running) {
+            future.complete(ProbeResult.notStarted());
+            return future;
+        }
+
+        // Waiting covers resolving too; the connect timeout only starts with the slot
+        Probe probe = new Probe(address, timeoutMs, wantStatus, future);
+        CompletableFuture.delayedExecutor(maxQueueWaitMs.getAsInt(), TimeUnit.MILLISECONDS, workerPool).execute(() -> {
+            if (probe.started.compareAndSet(false, true)) {
+                future.complete(ProbeResult.notStarted());
+            }
+        });
+
+        if (address.isUnresolved() && dnsCache != null) {
+            dnsCache.resolve(address.getHostString()).thenAccept(ip -> {
+                if (ip == null) {
+                    future.complete(ProbeResult.unreachable());
+                } else {
+                    probe.address = new InetSocketAddress(ip, address.getPort());
+                    enqueue(probe);
+                }
+            });
+        } else if (address.isUnresolved()) {
+            workerPool.execute(() -> {
+                try {
+                    InetSocketAddress resolved = new InetSocketAddress(address.getHostString(), address.getPort());
+                    if (resolved.isUnresolved()) {
+                        future.complete(ProbeResult.unreachable());
+                    } else {
+                        probe.address = resolved;
+                        enqueue(probe);
+                    }
+                } catch (RuntimeException e) {
+                    future.complete(ProbeResult.unreachable());
+                }
+            });
+        } else {
+            enqueue(probe);
+        }
+
+        return future;
+    }
+
+    private void enqueue(Probe probe) {
+        submissions.add(probe);
+        if (!running) {
+            // Closed while this probe was resolving; the selector thread may already be gone
+            submissions.remove(probe);
+            probe.future.complete(ProbeResult.notStarted());
+            return;
+        }
+        if (wakeupPending.compareAndSet(false, true)) {
+            selector.wakeup();
+        }
+    }
+
+    private void runLoop() {
+        while (running) {
+            try {
+                Probe next = deadlines.peek();
+                if (next == null) {
+                    selector.select();
+                } else {
+                    long waitMs = TimeUnit.NANOSECONDS.toMillis(next.deadlineNanos - System.nanoTime());
+                    if (waitMs > 0) {
+                        selector.select(waitMs);
+                    } else {
+                        selector.selectNow();
+                    }
+                }
+
+                wakeupPending.set(false);
+                processSelectedKeys();
+                expireDeadlines();
+                drainSubmissions();
+            } catch (ClosedSelectorException e) {
+                break;
+            } catch (IOException e) {
+                // Selector hiccup, keep serving the remaining probes
+            }
+        }
+
+        failOutstanding();
+    }
+
+    private void drainSubmissions() {
+        Probe probe;
+        while ((probe = submissions.poll()) != null) {
+            waiting.add(probe);
+        }
+
+        while (inFlight < maxInFlight && (probe = waiting.poll()) != null) {
+            if (!probe.started.compareAndSet(false, true)) {
+                // Already completed as throttled after waiting too long for a slot
+                continue;
+            }
+            startConnect(probe);
+        }
+    }
+
+    private void startConnect(Probe probe) {
+        inFlight++;
+        probe.startNanos = System.nanoTime();
+        probe.deadlineNanos = probe.startNanos + TimeUnit.MILLISECONDS.toNanos(probe.timeoutMs);
+        CompletableFuture.delayedExecutor(probe.timeoutMs + TIMEOUT_GRACE_MS, TimeUnit.MILLISECONDS, workerPool)
+                .execute(() -> probe.future.complete(ProbeResult.unreachable()));
+
+        try {
+            SocketChannel channel = SocketChannel.open();
+            probe.channel = channel;
+            channel.configureBlocking(false);
+            channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+
+            if (channel.connect(probe.address)) {
+                onConnected(probe);
+                return;
+            }
+
+            probe.key = channel.register(selector, SelectionKey.OP_CONNECT, probe);
+            deadlines.add(probe);
+        } catch (IOException | RuntimeException e) {
+            fail(probe);
+        }
+    }
+
+    private void processSelectedKeys() {
+        Iterator<SelectionKey> iterator = selector.selectedKeys().iterator();
+        while (iterator.hasNext()) {
+            SelectionKey key = iterator.next();
+            iterator.remove();
+
+            Probe probe = (Probe) key.attachment();
+            try {
+                if (!key.isValid()) {
+                    continue;
+                }
+                if (key.isConnectable()) {
+                    if (((SocketChannel) key.channel()).finishConnect()) {
+                        onConnected(probe);
+                    }
+                } else if (key.isWritable()) {
+                    writeRequest(probe);
+                } else if (key.isReadable()) {
+                    readResponse(probe);
+                }
+            } catch (IOException | CancelledKeyException e) {
+                fail(probe);
+            }
+        }
+    }
+
+    private void onConnected(Probe probe) throws IOException {
+        probe.connectedNanos = System.nanoTime();
+        if (!probe.wantStatus) {
+            finish(probe, connectedResult(probe));
+            return;
+        }
+
+        probe.buffer = bufferPool.acquire();
+        StatusProtocol.writeStatusRequest(probe.buffer, probe.address.getHostString(), probe.address.getPort());
+        probe.buffer.flip();
+
+        if (probe.key == null) {
+            probe.key = probe.channel.register(selector, 0, probe);
+            deadlines.add(probe);
+        }
+        writeRequest(probe);
+    }
+
+    private void writeRequest(Probe probe) throws IOException {
+        probe.channel.write(probe.buffer);
+        if (probe.buffer.hasRemaining()) {
+            probe.key.interestOps(SelectionKey.OP_WRITE);
+            return;
+        }
+
+        probe.buffer.clear();
+        probe.key.interestOps(SelectionKey.OP_READ);
+    }
+
+    private void readResponse(Probe probe) throws IOException {
+        if (probe.channel.read(probe.buffer) < 0) {
+            // Accepted the connection but closed it without answering
+            finish(probe, connectedResult(probe));
+            return;
+        }
+
+        ByteBuffer buffer = probe.buffer;
+        buffer.flip();
+        int frameSize = StatusProtocol.frameSize(buffer);
+
+        if (frameSize > 0 && frameSize <= buffer.limit()) {
+            // Whole frame buffered, hand it off so JSON parsing never runs on the selector thread
+            probe.buffer = null;
+            long latency = connectedResult(probe).latencyMillis();
+            if (close(probe)) {
+                workerPool.execute(() -> parseAndComplete(probe.future, buffer, latency));
+            } else {
+                bufferPool.release(buffer);
+            }
+            return;
+        }
+
+        if (frameSize > buffer.capacity()) {
+            // Frame does not fit a pooled buffer, move to a one-off buffer of the exact size
+            ByteBuffer larger = ByteBuffer.allocate(frameSize);
+            larger.put(buffer);
+            bufferPool.release(buffer);
+            probe.buffer = larger;
+            return;
+        }
+
+        // Back to write mode and wait for the rest of the frame
+        buffer.position(buffer.limit());
+        buffer.limit(buffer.capacity());
+    }
+
+    private void parseAndComplete(CompletableFuture<ProbeResult> future, ByteBuffer buffer, long latency) {
+        ServerStatus status;
+        try {
+            status = StatusProtocol.readStatusResponse(buffer);
+        } catch (IOException e) {
+            status = null;
+        } finally {
+            bufferPool.release(buffer);
+        }
+
+        future.complete(new ProbeResult(true, latency, status));
+    }
+
+    private void expireDeadlines() {
+        long now = System.nanoTime();
+        Probe probe;
+        while ((probe = deadlines.peek()) != null && (probe.done || probe.deadlineNanos <= now)) {
+            deadlines.poll();
+            if (!probe.done) {
+                fail(probe);
+            }
+        }
+    }
+
+    private ProbeResult connectedResult(Probe probe) {
+        return new ProbeResult(true, TimeUnit.NANOSECONDS.toMillis(probe.connectedNanos - probe.startNanos), null);
+    }
+
+    /**
+     * A server that accepted the connection is still reachable even if the status exchange failed.
+     */
+    private void fail(Probe probe) {
+        finish(probe, probe.connectedNanos == 0 ? ProbeResult.unreachable() : connectedResult(probe));
+    }
+
+    private void finish(Probe probe, ProbeResult result) {
+        if (close(probe)) {
+            // Never run caller continuations on the selector thread
+            completeAsync(probe.future, result);
+        }
+    }
+
+    private boolean close(Probe probe) {
+        if (probe.done) {
+            return false;
+        }
+        probe.done = true;
+        inFlight--;
+
+        if (probe.key != null) {
+            probe.key.cancel();
+        }
+        if (probe.channel != null) {
+            try {
+                probe.channel.close();
+            } catch (IOException ignored) {
+                // Nothing useful to do with a failed close
+            }
+        }
+        if (probe.buffer != null) {
+            bufferPool.release(probe.buffer);
+            probe.buffer = null;
+        }
+
+        return true;
+    }
+
+    private void completeAsync(CompletableFuture<ProbeResult> future, ProbeResult result) {
+        try {
+            workerPool.execute(() -> future.complete(result));
+        } catch (RuntimeException e) {
+            future.complete(result);
+        }
+    }
+
+    private void failOutstanding() {
+        for (SelectionKey key : selector.keys()) {
+            if (key.attachment() instanceof Probe probe) {
+                finish(probe, ProbeResult.unreachable());
+            }
+        }
+
+        // Never started, so they say nothing about their servers
+        Probe probe;
+        while ((probe = waiting.poll()) != null) {
+            probe.future.complete(ProbeResult.notStarted());
+        }
+        while ((probe = submissions.poll()) != null) {
+            probe.future.complete(ProbeResult.notStarted());
+        }
+
+        try {
+            selector.close();
+        } catch (IOException ignored) {
+            // Shutting down anyway
+        }
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        selector.wakeup();
+
+        try {
+            ioThread.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        workerPool.shutdown();
+    }
+
+    private static final class Probe {
+        private final int timeoutMs;
+        private final boolean wantStatus;
+        private final CompletableFuture<ProbeResult> future;
+        // Claimed by whichever comes first: the selector starting the connect, or the queue limit
+        private final AtomicBoolean started = new AtomicBoolean();
+
+        // Resolved before the probe is queued
+        private InetSocketAddress address;
+        private long deadlineNanos;
+        private SocketChannel channel;
+        private SelectionKey key;
+        private ByteBuffer buffer;
+        private long startNanos;
+        private long connectedNanos;
+        private boolean done;
+
+        private Probe(InetSocketAddress address, int timeoutMs, boolean wantStatus, CompletableFuture<ProbeResult> future) {
+            this.address = address;
+            this.timeoutMs = timeoutMs;
+            this.wantStatus = wantStatus;
+            this.future = future;
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package net.minehub.velocity.utils;
+
+/**
+ * Outcome of a single reachability probe.
+ * @param reachable whether the TCP connect succeeded before the deadline
+ * @param latencyMillis connect round trip in milliseconds, -1 if unreachable
+ * @param status parsed Server List Ping response, null for plain probes or if the server did not answer it
+ * @param throttled whether the probe never connected because of local limits, such as waiting
+ *                  too long for a slot; such a result says nothing about the server
+ */
+public record ProbeResult(boolean reachable, long latencyMillis, ServerStatus status, boolean throttled) {
+
+    private static final ProbeResult UNREACHABLE = new ProbeResult(false, -1, null, false);
+    private static final ProbeResult THROTTLED = new ProbeResult(false, -1, null, true);
+
+    public ProbeResult(boolean reachable, long latencyMillis, ServerStatus status) {
+        this(reachable, latencyMillis, status, false);
+    }
+
+    public static ProbeResult unreachable() {
+        return UNREACHABLE;
+    }
+
+    /**
+     * @return Result for a probe that was given up before it connected, e.g. after waiting
+     *         too long for a slot or because the engine shut down
+     */
+    public static ProbeResult notStarted() {
+        return THROTTLED;
+    }
+
+    public boolean hasStatus() {
+        return status != null;
+    }
+}
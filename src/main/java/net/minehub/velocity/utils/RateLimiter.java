@@ -0,0 +1,96 @@
+package net.minehub.velocity.utils;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket per key, e.g. per player for one command.
+ * Each bucket is a single timestamp (the generic cell rate algorithm): the time at which the
+ * bucket will be full again. Taking a token is one compare-and-set, with no locks. A bucket
+ * whose timestamp has passed is full, which is exactly how a missing bucket behaves, so idle
+ * buckets are dropped by a sweep every few hundred calls. Memory therefore stays bounded by the
+ * keys active within one refill period.
+ * @param <K> Key type
+ */
+public final class RateLimiter<K> {
+
+    private static final long MINUTE = TimeUnit.MINUTES.toNanos(1);
+    private static final int SWEEP_EVERY = 512;
+    // Marks a bucket the sweep is removing; callers holding it look it up again
+    private static final long REMOVED = Long.MIN_VALUE;
+
+    private final ConcurrentMap<K, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final AtomicInteger calls = new AtomicInteger();
+
+    /**
+     * Take a token if one is available
+     * @param key Bucket to take from
+     * @param perMinute Sustained rate
+     * @param burst Tokens a full bucket holds
+     * @return 0 if a token was taken, otherwise nanoseconds until one will be available
+     */
+    public long tryAcquire(K key, int perMinute, int burst) {
+        long now = System.nanoTime();
+        long interval = MINUTE / Math.max(1, perMinute);
+        long tolerance = interval * (Math.max(1, burst) - 1);
+
+        if ((calls.incrementAndGet() & (SWEEP_EVERY - 1)) == 0) {
+            sweep(now);
+        }
+
+        while (true) {
+            AtomicLong bucket = buckets.get(key);
+            if (bucket == null) {
+                bucket = buckets.computeIfAbsent(key, k -> new AtomicLong(now));
+            }
+
+            long full = bucket.get();
+            if (full == REMOVED) {
+                continue;
+            }
+
+            long base = full - now > 0 ? full : now;
+            long wait = base - tolerance - now;
+            if (wait > 0) {
+                return wait;
+            }
+            if (bucket.compareAndSet(full, base + interval)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Give back a token taken by {@link #tryAcquire}, e.g. because the action it paid for was
+     * turned away before it ran
+     * @param key Bucket the token was taken from
+     * @param perMinute Sustained rate the token was taken at
+     */
+    public void refund(K key, int perMinute) {
+        long interval = MINUTE / Math.max(1, perMinute);
+        AtomicLong bucket = buckets.get(key);
+        if (bucket != null) {
+            // A timestamp moved into the past just means a full bucket
+            bucket.updateAndGet(full -> full == REMOVED ? full : full - interval);
+        }
+    }
+
+    /**
+     * @return Number of buckets currently held
+     */
+    public int size() {
+        return buckets.size();
+    }
+
+    private void sweep(long now) {
+        buckets.forEach((key, bucket) -> {
+            long full = bucket.get();
+            if (full != REMOVED && full - now <= 0 && bucket.compareAndSet(full, REMOVED)) {
+                buckets.remove(key, bucket);
+            }
+        });
+    }
+}
@@ -1,14 +1,128 @@
 package net.minehub.velocity.utils;
 
+import net.minehub.velocity.metrics.MetricsRegistry;
+import net.minehub.velocity.metrics.Timer;
+
 import java.io.IOException;
-import java.net.InetSocketAddress;
-import java.net.Socket;
-import java.net.SocketTimeoutException;
+import java.io.UncheckedIOException;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.TimeUnit;
 
 public class ServerPingUtil {
 
+    private static final int DEFAULT_MAX_IN_FLIGHT = 1024;
+    private static final int DEFAULT_WORKER_THREADS = 4;
+
+    private static volatile ProbeEngine engine;
+    private static volatile MetricsRegistry metrics = new MetricsRegistry();
+    private static volatile ProbeCache probeCache;
+
+    /**
+     * Install the probe engine used by all ping methods, closing the previous one
+     * @param newEngine Engine to use from now on
+     */
+    public static synchronized void setEngine(ProbeEngine newEngine) {
+        ProbeEngine previous = engine;
+        engine = newEngine;
+        if (previous != null && previous != newEngine) {
+            previous.close();
+        }
+    }
+
+    /**
+     * Get the shared probe engine, creating one with default limits if none was installed
+     * @return The active probe engine
+     */
+    public static ProbeEngine getEngine() {
+        ProbeEngine current = engine;
+        if (current != null) {
+            return current;
+        }
+
+        synchronized (ServerPingUtil.class) {
+            if (engine == null) {
+                try {
+                    engine = new ProbeEngine(DEFAULT_MAX_IN_FLIGHT, DEFAULT_WORKER_THREADS);
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Failed to open probe selector", e);
+                }
+            }
+            return engine;
+        }
+    }
+
+    /**
+     * Report probe latencies and failures to a registry instead of the private default one
+     * @param registry Registry to record into
+     */
+    public static void setMetrics(MetricsRegistry registry) {
+        metrics = registry;
+    }
+
+    /**
+     * Route probes through a cache that shares concurrent and recent probes of one server
+     * @param cache Cache to use, or null to probe every call
+     */
+    public static void setProbeCache(ProbeCache cache) {
+        probeCache = cache;
+    }
+
+    /**
+     * Close the shared probe engine, failing any probes still in flight
+     */
+    public static synchronized void shutdown() {
+        probeCache = null;
+        if (engine != null) {
+            engine.close();
+            engine = null;
+        }
+    }
+
+    /**
+     * Probe a server without blocking
+     * @param host Server hostname/IP
+     * @param port Server port
+     * @param timeoutMs Timeout in milliseconds
+     * @return CompletableFuture with reachability and connect latency
+     */
+    public static CompletableFuture<ProbeResult> probe(String host, int port, int timeoutMs) {
+        ProbeCache cache = probeCache;
+        if (cache != null) {
+            return cache.probe(host, port, timeoutMs);
+        }
+        return timed(getEngine().probe(host, port, timeoutMs), "ping.probe");
+    }
+
+    /**
+     * Query a server's status (players, version) in the same round trip as the liveness check
+     * @param host Server hostname/IP
+     * @param port Server port
+     * @param timeoutMs Timeout in milliseconds for the whole exchange
+     * @return CompletableFuture with reachability, latency and the parsed status if the server answered
+     */
+    public static CompletableFuture<ProbeResult> queryStatus(String host, int port, int timeoutMs) {
+        ProbeCache cache = probeCache;
+        if (cache != null) {
+            return cache.queryStatus(host, port, timeoutMs);
+        }
+        return timed(getEngine().queryStatus(host, port, timeoutMs), "ping.status");
+    }
+
+    static CompletableFuture<ProbeResult> timed(CompletableFuture<ProbeResult> probe, String name) {
+        MetricsRegistry registry = metrics;
+        Timer timer = registry.timer(name);
+        long start = System.nanoTime();
+        // Unreachable servers are counted separately so their timeouts don't hide in the latency
+        return probe.whenComplete((result, error) -> {
+            if (result != null && result.reachable()) {
+                timer.recordSince(start);
+            } else if (result != null && result.throttled()) {
+                registry.counter(name + ".throttled").increment();
+            } else {
+                registry.counter(name + ".unreachable").increment();
+            }
+        });
+    }
+
     /**
      * Ping a server to check if it's online
      * @param host Server hostname/IP
@@ -17,19 +131,7 @@ public class ServerPingUtil {
      * @return true if server is reachable, false otherwise
      */
     public static boolean pingServer(String host, int port, int timeoutMs) {
-        try (Socket socket = new Socket()) {
-            socket.connect(new InetSocketAddress(host, port), timeoutMs);
-            return true;
-        } catch (SocketTimeoutException e) {
-            // Server is unreachable or too slow
-            return false;
-        } catch (IOException e) {
-            // Connection failed
-            return false;
-        } catch (Exception e) {
-            // Other errors
-            return false;
-        }
+        return probe(host, port, timeoutMs).join().reachable();
     }
 
     /**
@@ -40,7 +142,7 @@ public class ServerPingUtil {
      * @return CompletableFuture<Boolean> indicating if server is online
      */
     public static CompletableFuture<Boolean> pingServerAsync(String host, int port, int timeoutMs) {
-        return CompletableFuture.supplyAsync(() -> pingServer(host, port, timeoutMs));
+        return probe(host, port, timeoutMs).thenApply(ProbeResult::reachable);
     }
 
     /**
@@ -59,15 +161,16 @@ public class ServerPingUtil {
      * @param timeoutMs Timeout in milliseconds per server
      * @return CompletableFuture that completes when all pings are done
      */
+    @SuppressWarnings("unchecked")
     public static CompletableFuture<Boolean[]> pingMultipleServers(String[] servers, int timeoutMs) {
         CompletableFuture<Boolean>[] futures = new CompletableFuture[servers.length];
 
         for (int i = 0; i < servers.length; i++) {
-            String[] parts = servers[i].split(":");
-            if (parts.length == 2) {
+            int separator = servers[i].lastIndexOf(':');
+            if (separator > 0) {
                 try {
-                    String host = parts[0];
-                    int port = Integer.parseInt(parts[1]);
+                    String host = servers[i].substring(0, separator);
+                    int port = Integer.parseInt(servers[i].substring(separator + 1));
                     futures[i] = pingServerAsync(host, port, timeoutMs);
                 } catch (NumberFormatException e) {
                     futures[i] = CompletableFuture.completedFuture(false);
@@ -77,15 +180,12 @@ public class ServerPingUtil {
             }
         }
 
+        // Probe futures never complete exceptionally, so join() cannot throw here
         return CompletableFuture.allOf(futures)
             .thenApply(v -> {
                 Boolean[] results = new Boolean[futures.length];
                 for (int i = 0; i < futures.length; i++) {
-                    try {
-                        results[i] = futures[i].get(1, TimeUnit.SECONDS);
-                    } catch (Exception e) {
-                        results[i] = false;
-                    }
+                    results[i] = futures[i].join();
                 }
                 return results;
             });
@@ -99,14 +199,6 @@ public class ServerPingUtil {
      * @return Ping time in milliseconds, -1 if unreachable
      */
     public static long getPingTime(String host, int port, int timeoutMs) {
-        long startTime = System.currentTimeMillis();
-
-        try (Socket socket = new Socket()) {
-            socket.connect(new InetSocketAddress(host, port), timeoutMs);
-            long endTime = System.currentTimeMillis();
-            return endTime - startTime;
-        } catch (Exception e) {
-            return -1;
-        }
+        return probe(host, port, timeoutMs).join().latencyMillis();
     }
 }
\ No newline at end of file
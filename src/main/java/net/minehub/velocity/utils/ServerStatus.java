@@ -0,0 +1,11 @@
+package net.minehub.velocity.utils;
+
+/**
+ * Fields we keep from a Server List Ping status response.
+ * @param versionName Version string advertised by the server, e.g. "Paper 1.21.1"
+ * @param protocol Protocol number advertised by the server
+ * @param onlinePlayers Players currently online
+ * @param maxPlayers Player slots
+ */
+public record ServerStatus(String versionName, int protocol, int onlinePlayers, int maxPlayers) {
+}
@@ -0,0 +1,217 @@
+package net.minehub.velocity.utils;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Client side of the Minecraft Server List Ping exchange:
+ * handshake (next state = status), status request, and the status response.
+ */
+public final class StatusProtocol {
+
+    /** Protocol version sent when the client only wants to learn the server's version. */
+    private static final int PING_PROTOCOL_VERSION = -1;
+    private static final int PACKET_HANDSHAKE = 0x00;
+    private static final int PACKET_STATUS_REQUEST = 0x00;
+    private static final int PACKET_STATUS_RESPONSE = 0x00;
+    private static final int NEXT_STATE_STATUS = 1;
+    private static final int MAX_HOST_LENGTH = 255;
+
+    /** Upper bound for a status frame, favicon included. */
+    public static final int MAX_FRAME_LENGTH = 256 * 1024;
+
+    private static final int FIELD_VERSION_NAME = 1;
+    private static final int FIELD_PROTOCOL = 1 << 1;
+    private static final int FIELD_ONLINE = 1 << 2;
+    private static final int FIELD_MAX = 1 << 3;
+    private static final int ALL_FIELDS = FIELD_VERSION_NAME | FIELD_PROTOCOL | FIELD_ONLINE | FIELD_MAX;
+
+    private StatusProtocol() {
+    }
+
+    /**
+     * Write the handshake and status request packets into the buffer
+     * @param buffer Target buffer in write mode
+     * @param host Hostname the client claims to connect to
+     * @param port Port the client claims to connect to
+     */
+    public static void writeStatusRequest(ByteBuffer buffer, String host, int port) {
+        if (host.length() > MAX_HOST_LENGTH) {
+            host = host.substring(0, MAX_HOST_LENGTH);
+        }
+        byte[] hostBytes = host.getBytes(StandardCharsets.UTF_8);
+
+        int handshakeLength = VarInts.size(PACKET_HANDSHAKE)
+                + VarInts.size(PING_PROTOCOL_VERSION)
+                + VarInts.size(hostBytes.length) + hostBytes.length
+                + Short.BYTES
+                + VarInts.size(NEXT_STATE_STATUS);
+
+        VarInts.write(buffer, handshakeLength);
+        VarInts.write(buffer, PACKET_HANDSHAKE);
+        VarInts.write(buffer, PING_PROTOCOL_VERSION);
+        VarInts.write(buffer, hostBytes.length);
+        buffer.put(hostBytes);
+        buffer.putShort((short) port);
+        VarInts.write(buffer, NEXT_STATE_STATUS);
+
+        VarInts.write(buffer, VarInts.size(PACKET_STATUS_REQUEST));
+        VarInts.write(buffer, PACKET_STATUS_REQUEST);
+    }
+
+    /**
+     * Check whether a complete frame is buffered.
+     * The buffer must be in read mode; its position is not moved.
+     * @param buffer Received bytes
+     * @return Total frame size including the length prefix, or -1 if the length prefix itself is incomplete
+     * @throws IOException if the frame is malformed or larger than {@link #MAX_FRAME_LENGTH}
+     */
+    public static int frameSize(ByteBuffer buffer) throws IOException {
+        int start = buffer.position();
+        int length;
+        try {
+            length = VarInts.read(buffer);
+        } catch (IllegalStateException e) {
+            throw new IOException("Malformed frame length", e);
+        }
+
+        if (length == VarInts.INCOMPLETE) {
+            return -1;
+        }
+
+        int prefix = buffer.position() - start;
+        buffer.position(start);
+
+        if (length <= 0 || length > MAX_FRAME_LENGTH) {
+            throw new IOException("Bad frame length " + length);
+        }
+
+        return prefix + length;
+    }
+
+    /**
+     * Decode a complete status response frame.
+     * The JSON is streamed straight out of the buffer and parsing stops as soon as
+     * the version and player fields have been seen, so the favicon is usually never read.
+     * @param buffer Buffer in read mode positioned at the start of the frame
+     * @return Parsed status
+     * @throws IOException if the frame is not a valid status response
+     */
+    public static ServerStatus readStatusResponse(ByteBuffer buffer) throws IOException {
+        try {
+            VarInts.read(buffer);
+            int packetId = VarInts.read(buffer);
+            if (packetId != PACKET_STATUS_RESPONSE) {
+                throw new IOException("Unexpected packet id " + packetId);
+            }
+
+            int jsonLength = VarInts.read(buffer);
+            if (jsonLength < 0 || jsonLength > buffer.remaining()) {
+                throw new IOException("Bad status length " + jsonLength);
+            }
+
+            ByteBuffer json = buffer.slice();
+            json.limit(jsonLength);
+            return parseStatus(json);
+        } catch (IllegalStateException e) {
+            throw new IOException("Malformed status response", e);
+        }
+    }
+
+    private static ServerStatus parseStatus(ByteBuffer json) throws IOException {
+        String versionName = "Unknown";
+        int protocol = -1;
+        int online = 0;
+        int max = 0;
+        int seen = 0;
+
+        try (JsonReader reader = new JsonReader(new InputStreamReader(new ByteBufferInputStream(json), StandardCharsets.UTF_8))) {
+            reader.setLenient(true);
+            reader.beginObject();
+
+            while (seen != ALL_FIELDS && reader.hasNext()) {
+                String name = reader.nextName();
+                if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+                    reader.skipValue();
+                    continue;
+                }
+
+                if (name.equals("version")) {
+                    reader.beginObject();
+                    while (reader.hasNext()) {
+                        String field = reader.nextName();
+                        if (field.equals("name") && reader.peek() == JsonToken.STRING) {
+                            versionName = reader.nextString();
+                            seen |= FIELD_VERSION_NAME;
+                        } else if (field.equals("protocol") && reader.peek() == JsonToken.NUMBER) {
+                            protocol = reader.nextInt();
+                            seen |= FIELD_PROTOCOL;
+                        } else {
+                            reader.skipValue();
+                        }
+                    }
+                    reader.endObject();
+                } else if (name.equals("players")) {
+                    reader.beginObject();
+                    while (reader.hasNext()) {
+                        String field = reader.nextName();
+                        if (field.equals("online") && reader.peek() == JsonToken.NUMBER) {
+                            online = reader.nextInt();
+                            seen |= FIELD_ONLINE;
+                        } else if (field.equals("max") && reader.peek() == JsonToken.NUMBER) {
+                            max = reader.nextInt();
+                            seen |= FIELD_MAX;
+                        } else {
+                            reader.skipValue();
+                        }
+                    }
+                    reader.endObject();
+                } else {
+                    reader.skipValue();
+                }
+            }
+        } catch (IllegalStateException | NumberFormatException e) {
+            throw new IOException("Malformed status JSON", e);
+        }
+
+        return new ServerStatus(versionName, protocol, online, max);
+    }
+
+    /**
+     * Read-only stream over a buffer's remaining bytes, so the JSON is decoded without copying it out first.
+     */
+    private static final class ByteBufferInputStream extends InputStream {
+        private final ByteBuffer buffer;
+
+        private ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) {
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+
+            int count = Math.min(length, buffer.remaining());
+            buffer.get(bytes, offset, count);
+            return count;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+    }
+}
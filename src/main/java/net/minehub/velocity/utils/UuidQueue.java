@@ -0,0 +1,148 @@
+package net.minehub.velocity.utils;
+
+import java.util.UUID;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * FIFO queue of player UUIDs kept as pairs of longs in a growable ring, 16 bytes per entry
+ * with no per-entry objects. Removing from the middle leaves a hole that polling skips, so
+ * leaving a queue never shifts the players behind. Not thread-safe.
+ */
+public final class UuidQueue {
+
+    private long[] most = new long[16];
+    private long[] least = new long[16];
+    // Ring positions; entries live in [head, tail)
+    private int head;
+    private int tail;
+    private int size;
+
+    public void add(UUID uuid) {
+        if (tail - head == most.length) {
+            grow();
+        }
+        int slot = tail++ & (most.length - 1);
+        most[slot] = uuid.getMostSignificantBits();
+        least[slot] = uuid.getLeastSignificantBits();
+        size++;
+    }
+
+    /**
+     * @return The first player in the queue, or null if it is empty
+     */
+    public UUID poll() {
+        while (head != tail) {
+            int slot = head++ & (most.length - 1);
+            if (!isHole(slot)) {
+                UUID uuid = new UUID(most[slot], least[slot]);
+                clear(slot);
+                size--;
+                return uuid;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return true if the player was queued
+     */
+    public boolean remove(UUID uuid) {
+        int slot = find(uuid);
+        if (slot < 0) {
+            return false;
+        }
+
+        clear(slot);
+        size--;
+        // Drop leading holes so they don't hold ring space
+        while (head != tail && isHole(head & (most.length - 1))) {
+            head++;
+        }
+        return true;
+    }
+
+    /**
+     * @return 1-based position of the player, or -1 if not queued
+     */
+    public int positionOf(UUID uuid) {
+        long msb = uuid.getMostSignificantBits();
+        long lsb = uuid.getLeastSignificantBits();
+        int position = 0;
+        for (int i = head; i != tail; i++) {
+            int slot = i & (most.length - 1);
+            if (!isHole(slot)) {
+                position++;
+                if (most[slot] == msb && least[slot] == lsb) {
+                    return position;
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Visit every queued player in order
+     * @param action Called with each player and their 1-based position
+     */
+    public void forEach(ObjIntConsumer<UUID> action) {
+        int position = 0;
+        for (int i = head; i != tail; i++) {
+            int slot = i & (most.length - 1);
+            if (!isHole(slot)) {
+                action.accept(new UUID(most[slot], least[slot]), ++position);
+            }
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    private int find(UUID uuid) {
+        long msb = uuid.getMostSignificantBits();
+        long lsb = uuid.getLeastSignificantBits();
+        for (int i = head; i != tail; i++) {
+            int slot = i & (most.length - 1);
+            if (most[slot] == msb && least[slot] == lsb && !isHole(slot)) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    // The nil UUID marks a hole; no player has it
+    private boolean isHole(int slot) {
+        return most[slot] == 0 && least[slot] == 0;
+    }
+
+    private void clear(int slot) {
+        most[slot] = 0;
+        least[slot] = 0;
+    }
+
+    /**
+     * Compact out holes, doubling the ring unless holes took up most of it
+     */
+    private void grow() {
+        int capacity = size >= most.length / 2 ? most.length * 2 : most.length;
+        long[] newMost = new long[capacity];
+        long[] newLeast = new long[capacity];
+        int count = 0;
+        for (int i = head; i != tail; i++) {
+            int slot = i & (most.length - 1);
+            if (!isHole(slot)) {
+                newMost[count] = most[slot];
+                newLeast[count] = least[slot];
+                count++;
+            }
+        }
+        most = newMost;
+        least = newLeast;
+        head = 0;
+        tail = count;
+    }
+}
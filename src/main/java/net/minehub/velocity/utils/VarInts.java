@@ -0,0 +1,74 @@
+package net.minehub.velocity.utils;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Minecraft protocol VarInt codec working directly on {@link ByteBuffer}s,
+ * so framing can be decoded in place without copying into intermediate arrays.
+ */
+public final class VarInts {
+
+    /** Returned by {@link #read(ByteBuffer)} when the buffer ends mid-VarInt. */
+    public static final int INCOMPLETE = Integer.MIN_VALUE;
+
+    private static final int MAX_BYTES = 5;
+
+    private VarInts() {
+    }
+
+    /**
+     * Number of bytes needed to encode a value
+     * @param value Value to encode
+     * @return Encoded size between 1 and 5
+     */
+    public static int size(int value) {
+        if ((value & (0xFFFFFFFF << 7)) == 0) return 1;
+        if ((value & (0xFFFFFFFF << 14)) == 0) return 2;
+        if ((value & (0xFFFFFFFF << 21)) == 0) return 3;
+        if ((value & (0xFFFFFFFF << 28)) == 0) return 4;
+        return 5;
+    }
+
+    /**
+     * Write a VarInt at the buffer's position
+     * @param buffer Target buffer
+     * @param value Value to encode
+     */
+    public static void write(ByteBuffer buffer, int value) {
+        while ((value & ~0x7F) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    /**
+     * Read a VarInt from the buffer's position.
+     * If the buffer does not yet hold the whole VarInt, the position is left untouched
+     * and {@link #INCOMPLETE} is returned so the caller can wait for more bytes.
+     * @param buffer Source buffer in read mode
+     * @return Decoded value or {@link #INCOMPLETE}
+     * @throws IllegalStateException if the VarInt is longer than 5 bytes
+     */
+    public static int read(ByteBuffer buffer) {
+        int start = buffer.position();
+        int limit = buffer.limit();
+        int value = 0;
+
+        for (int i = 0; i < MAX_BYTES; i++) {
+            if (start + i >= limit) {
+                return INCOMPLETE;
+            }
+
+            byte b = buffer.get(start + i);
+            value |= (b & 0x7F) << (7 * i);
+
+            if ((b & 0x80) == 0) {
+                buffer.position(start + i + 1);
+                return value;
+            }
+        }
+
+        throw new IllegalStateException("VarInt too big");
+    }
+}
@@ -0,0 +1,174 @@
+package net.minehub.velocity.database;
+
+import net.minehub.velocity.models.ServerChanges;
+import net.minehub.velocity.models.ServerInfo;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.CRC32;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RegistrySnapshotFileTest {
+
+    // Offsets into the header: magic, version, revision, count, then the first record's name length
+    private static final int VERSION_OFFSET = 4;
+    private static final int FIRST_STRING_OFFSET = 20;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void writtenServersAreReadBack() throws IOException {
+        RegistrySnapshotFile snapshot = new RegistrySnapshotFile(dir.resolve("registry.bin"));
+        ServerInfo lobby = new ServerInfo("lobby", "play.example.com", 25565, UUID.randomUUID(), "Alex",
+                "Wëlcome ✓", 100, 12, "1.20.4", true,
+                LocalDateTime.of(2024, 1, 2, 3, 4, 5), LocalDateTime.of(2024, 6, 7, 8, 9, 10));
+        ServerInfo empty = new ServerInfo("empty", "10.0.0.1", 25566, UUID.randomUUID(), "Sam",
+                "", 20, 0, "Unknown", false,
+                LocalDateTime.of(2023, 12, 31, 23, 59, 59), LocalDateTime.of(2023, 12, 31, 23, 59, 59));
+
+        snapshot.write(42, List.of(lobby, empty));
+        ServerChanges read = snapshot.read().orElseThrow();
+
+        assertEquals(42, read.revision());
+        assertTrue(read.removals().isEmpty());
+        assertEquals(2, read.upserts().size());
+        assertSameServer(lobby, read.upserts().get(0));
+        assertSameServer(empty, read.upserts().get(1));
+        assertFalse(Files.exists(dir.resolve("registry.bin.tmp")));
+    }
+
+    @Test
+    void emptyRegistryIsReadBack() throws IOException {
+        RegistrySnapshotFile snapshot = new RegistrySnapshotFile(dir.resolve("registry.bin"));
+
+        snapshot.write(7, List.of());
+        ServerChanges read = snapshot.read().orElseThrow();
+
+        assertEquals(7, read.revision());
+        assertTrue(read.isEmpty());
+    }
+
+    @Test
+    void missingFileIsAbsent() throws IOException {
+        assertTrue(new RegistrySnapshotFile(dir.resolve("registry.bin")).read().isEmpty());
+    }
+
+    @Test
+    void truncatedFileIsAbsent() throws IOException {
+        Path file = writeSnapshot();
+        byte[] bytes = Files.readAllBytes(file);
+
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 5));
+        assertTrue(new RegistrySnapshotFile(file).read().isEmpty());
+
+        // Shorter than a header and trailer
+        Files.write(file, Arrays.copyOf(bytes, 10));
+        assertTrue(new RegistrySnapshotFile(file).read().isEmpty());
+    }
+
+    @Test
+    void checksumMismatchIsAbsent() throws IOException {
+        Path file = writeSnapshot();
+        byte[] bytes = Files.readAllBytes(file);
+
+        bytes[FIRST_STRING_OFFSET + 4] ^= 0x01;
+        Files.write(file, bytes);
+
+        assertTrue(new RegistrySnapshotFile(file).read().isEmpty());
+    }
+
+    @Test
+    void wrongMagicIsAbsent() throws IOException {
+        Path file = writeSnapshot();
+        byte[] bytes = Files.readAllBytes(file);
+
+        ByteBuffer.wrap(bytes).putInt(0, 0xCAFEBABE);
+        Files.write(file, withChecksum(bytes));
+
+        assertTrue(new RegistrySnapshotFile(file).read().isEmpty());
+    }
+
+    @Test
+    void unknownFormatVersionIsAbsent() throws IOException {
+        Path file = writeSnapshot();
+        byte[] bytes = Files.readAllBytes(file);
+
+        ByteBuffer.wrap(bytes).putInt(VERSION_OFFSET, 2);
+        Files.write(file, withChecksum(bytes));
+
+        assertTrue(new RegistrySnapshotFile(file).read().isEmpty());
+    }
+
+    @Test
+    void corruptStringLengthIsAbsent() throws IOException {
+        Path file = writeSnapshot();
+        byte[] bytes = Files.readAllBytes(file);
+
+        ByteBuffer.wrap(bytes).putInt(FIRST_STRING_OFFSET, Integer.MAX_VALUE);
+        Files.write(file, withChecksum(bytes));
+        assertTrue(new RegistrySnapshotFile(file).read().isEmpty());
+
+        ByteBuffer.wrap(bytes).putInt(FIRST_STRING_OFFSET, -1);
+        Files.write(file, withChecksum(bytes));
+        assertTrue(new RegistrySnapshotFile(file).read().isEmpty());
+    }
+
+    @Test
+    void failedWriteKeepsThePreviousSnapshot() throws IOException {
+        Path file = writeSnapshot();
+        RegistrySnapshotFile snapshot = new RegistrySnapshotFile(file);
+        // A null owner fails halfway through the record
+        ServerInfo broken = new ServerInfo("broken", "localhost", 25565, null, "Nobody");
+
+        assertThrows(NullPointerException.class, () -> snapshot.write(2, List.of(broken)));
+
+        assertFalse(Files.exists(dir.resolve("registry.bin.tmp")));
+        assertEquals(1, snapshot.read().orElseThrow().revision());
+    }
+
+    private Path writeSnapshot() throws IOException {
+        Path file = dir.resolve("registry.bin");
+        ServerInfo server = new ServerInfo("survival", "mc.example.com", 25565, UUID.randomUUID(), "Alex");
+        new RegistrySnapshotFile(file).write(1, List.of(server));
+        return file;
+    }
+
+    /**
+     * Recompute the CRC32 trailer, so the reader gets past the checksum to the field being tested
+     */
+    private static byte[] withChecksum(byte[] bytes) {
+        int payloadSize = bytes.length - 8;
+        CRC32 crc = new CRC32();
+        crc.update(bytes, 0, payloadSize);
+        ByteBuffer.wrap(bytes).putLong(payloadSize, crc.getValue());
+        return bytes;
+    }
+
+    private static void assertSameServer(ServerInfo expected, ServerInfo actual) {
+        assertEquals(expected.getName(), actual.getName());
+        assertEquals(expected.getHost(), actual.getHost());
+        assertEquals(expected.getPort(), actual.getPort());
+        assertEquals(expected.getOwnerUuid(), actual.getOwnerUuid());
+        assertEquals(expected.getOwnerName(), actual.getOwnerName());
+        assertEquals(expected.getDescription(), actual.getDescription());
+        assertEquals(expected.getMaxPlayers(), actual.getMaxPlayers());
+        assertEquals(expected.getOnlinePlayers(), actual.getOnlinePlayers());
+        assertEquals(expected.getVersion(), actual.getVersion());
+        assertEquals(expected.isOnline(), actual.isOnline());
+        assertEquals(expected.getCreatedAt(), actual.getCreatedAt());
+        assertEquals(expected.getLastSeen(), actual.getLastSeen());
+    }
+}
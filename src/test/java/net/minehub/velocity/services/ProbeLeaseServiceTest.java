@@ -0,0 +1,114 @@
+package net.minehub.velocity.services;
+
+import net.minehub.velocity.database.DatabaseManager;
+import net.minehub.velocity.metrics.MetricsRegistry;
+import net.minehub.velocity.utils.ConsistentHashRing;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ProbeLeaseServiceTest {
+
+    private static final int KEYS = 1000;
+
+    private final LeaseTable leases = new LeaseTable();
+    private final ProbeLeaseService service = new ProbeLeaseService(leases,
+            LoggerFactory.getLogger(ProbeLeaseServiceTest.class), "proxy-1", 30, new MetricsRegistry());
+
+    @Test
+    void ownsEverythingBeforeTheFirstHeartbeat() {
+        for (int i = 0; i < KEYS; i++) {
+            assertTrue(service.owns(key(i)));
+        }
+    }
+
+    @Test
+    void ownsEverythingWhenItsOwnLeaseIsMissing() {
+        leases.live = List.of("proxy-2", "proxy-3");
+        service.heartbeat();
+
+        for (int i = 0; i < KEYS; i++) {
+            assertTrue(service.owns(key(i)));
+        }
+    }
+
+    @Test
+    void ownsOnlyTheKeysTheRingAssignsToIt() {
+        leases.live = List.of("proxy-2", "proxy-1");
+        service.heartbeat();
+
+        ConsistentHashRing ring = ConsistentHashRing.of(List.of("proxy-1", "proxy-2"), 128);
+        int owned = 0;
+        for (int i = 0; i < KEYS; i++) {
+            boolean expected = "proxy-1".equals(ring.owner(key(i)));
+            assertEquals(expected, service.owns(key(i)));
+            owned += expected ? 1 : 0;
+        }
+        assertTrue(owned > 0 && owned < KEYS);
+    }
+
+    @Test
+    void failedHeartbeatKeepsTheLastRing() {
+        leases.live = List.of("proxy-1", "proxy-2");
+        service.heartbeat();
+        List<Boolean> before = ownership();
+
+        leases.failing = true;
+        service.heartbeat();
+
+        assertEquals(before, ownership());
+    }
+
+    @Test
+    void ownsEverythingAfterRelease() {
+        leases.live = List.of("proxy-1", "proxy-2");
+        service.heartbeat();
+
+        service.release();
+
+        assertEquals(List.of("proxy-1"), leases.released);
+        for (int i = 0; i < KEYS; i++) {
+            assertTrue(service.owns(key(i)));
+        }
+    }
+
+    private List<Boolean> ownership() {
+        return IntStream.range(0, KEYS).mapToObj(i -> service.owns(key(i))).toList();
+    }
+
+    private static String key(int i) {
+        return "server-" + i;
+    }
+
+    /**
+     * Lease table held in memory instead of minehub_probe_leases
+     */
+    private static final class LeaseTable extends DatabaseManager {
+        private List<String> live = List.of();
+        private boolean failing;
+        private List<String> released = List.of();
+
+        LeaseTable() {
+            super(null, null, new MetricsRegistry());
+        }
+
+        @Override
+        public List<String> heartbeatProbeLease(String proxyId, int leaseSeconds) throws SQLException {
+            if (failing) {
+                throw new SQLException("Database unavailable");
+            }
+            return live;
+        }
+
+        @Override
+        public void releaseProbeLease(String proxyId) {
+            released = List.of(proxyId);
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package net.minehub.velocity.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ServerQueueTest {
+
+    private static final long START = TimeUnit.HOURS.toNanos(1);
+    private static final int ADMIT_PER_SECOND = 4;
+    private static final long SPACING = TimeUnit.SECONDS.toNanos(1) / ADMIT_PER_SECOND;
+
+    private final ServerQueue queue = new ServerQueue("lobby", START);
+
+    @Test
+    void priorityPlayersAreLetInFirst() {
+        UUID first = player(1);
+        UUID second = player(2);
+        UUID vip = player(3);
+        queue.add(first, false);
+        queue.add(second, false);
+        queue.add(vip, true);
+
+        assertEquals(1, queue.positionOf(vip));
+        assertEquals(2, queue.positionOf(first));
+        assertEquals(3, queue.positionOf(second));
+        assertEquals(List.of(vip, first, second), List.of(queue.poll(), queue.poll(), queue.poll()));
+        assertNull(queue.poll());
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    void positionsCountThePriorityLineFirst() {
+        queue.add(player(1), false);
+        queue.add(player(2), true);
+        queue.add(player(3), false);
+        queue.add(player(4), true);
+
+        List<String> positions = new ArrayList<>();
+        queue.forEach((uuid, position) -> positions.add(uuid.getLeastSignificantBits() + "@" + position));
+
+        assertEquals(List.of("2@1", "4@2", "1@3", "3@4"), positions);
+        assertEquals(4, queue.size());
+    }
+
+    @Test
+    void leavingMovesLaterPlayersUp() {
+        UUID a = player(1);
+        UUID b = player(2);
+        UUID vip = player(3);
+        queue.add(a, false);
+        queue.add(b, false);
+        queue.add(vip, true);
+
+        queue.remove(a);
+        assertEquals(-1, queue.positionOf(a));
+        assertEquals(2, queue.positionOf(b));
+
+        queue.remove(vip);
+        assertEquals(-1, queue.positionOf(vip));
+        assertEquals(1, queue.positionOf(b));
+        assertEquals(1, queue.size());
+
+        // Removing someone not waiting changes nothing
+        queue.remove(player(9));
+        assertEquals(1, queue.positionOf(b));
+    }
+
+    @Test
+    void freeSlotsUseTheLargerPlayerCountMinusAdmissions() {
+        assertEquals(20 - 12, queue.freeSlots(20, 12, 5));
+        assertEquals(20 - 15, queue.freeSlots(20, 3, 15));
+
+        queue.startAdmission();
+        queue.startPacedAdmission(START, SPACING);
+        assertEquals(20 - 12 - 2, queue.freeSlots(20, 12, 5));
+
+        queue.finishAdmission();
+        queue.finishAdmission();
+        assertEquals(20 - 12, queue.freeSlots(20, 12, 5));
+        assertTrue(queue.freeSlots(10, 12, 5) < 0);
+    }
+
+    @Test
+    void idleQueueLetsInOneSecondsWorthAtOnce() {
+        int burst = 0;
+        while (queue.isAdmissionDue(START)) {
+            queue.startPacedAdmission(START, SPACING);
+            burst++;
+        }
+
+        assertEquals(ADMIT_PER_SECOND, burst);
+    }
+
+    @Test
+    void admissionsAreSpacedByTheRate() {
+        drainBurst(START);
+
+        for (int i = 0; i < 10; i++) {
+            long now = START + i * SPACING + 1;
+            assertTrue(queue.isAdmissionDue(now));
+            queue.startPacedAdmission(now, SPACING);
+            assertFalse(queue.isAdmissionDue(now));
+            assertFalse(queue.isAdmissionDue(now + SPACING - 1));
+        }
+    }
+
+    @Test
+    void savedUpAdmissionsAreCappedAtOneSecond() {
+        drainBurst(START);
+
+        // A long idle spell still only saves up one second's worth
+        long later = START + TimeUnit.MINUTES.toNanos(5);
+        int burst = 0;
+        while (queue.isAdmissionDue(later)) {
+            queue.startPacedAdmission(later, SPACING);
+            burst++;
+        }
+
+        assertEquals(ADMIT_PER_SECOND, burst);
+    }
+
+    /**
+     * Leaves the queue with its admission rate fully used at the given time
+     */
+    private void drainBurst(long now) {
+        while (queue.isAdmissionDue(now)) {
+            queue.startPacedAdmission(now, SPACING);
+        }
+    }
+
+    private static UUID player(int id) {
+        return new UUID(0, id);
+    }
+}
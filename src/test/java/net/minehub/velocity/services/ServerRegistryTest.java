@@ -0,0 +1,141 @@
+package net.minehub.velocity.services;
+
+import net.minehub.velocity.models.ServerInfo;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ServerRegistryTest {
+
+    private static final UUID ALICE = UUID.fromString("00000000-0000-0000-0000-000000000001");
+    private static final UUID BOB = UUID.fromString("00000000-0000-0000-0000-000000000002");
+
+    private final ServerRegistry registry = new ServerRegistry();
+
+    @Test
+    void batchIsPublishedAsOneSnapshot() {
+        RegistrySnapshot before = registry.snapshot();
+
+        RegistrySnapshot after = registry.update(batch -> {
+            batch.put(server("Alpha", ALICE), null);
+            batch.put(server("beta", ALICE), null);
+            batch.put(server("Gamma", BOB), null);
+        });
+
+        assertSame(after, registry.snapshot());
+        assertEquals(before.version() + 1, after.version());
+        assertEquals(3, after.size());
+        assertEquals(List.of("Alpha", "beta", "Gamma"), after.ordered().stream().map(ServerInfo::getName).toList());
+        assertEquals(Set.of("alpha", "beta"), after.byOwner().get(ALICE));
+        assertEquals(List.of("Alpha"), after.names().complete("al", 10));
+    }
+
+    @Test
+    void publishedSnapshotsNeverChange() {
+        RegistrySnapshot first = registry.update(batch -> batch.put(server("alpha", ALICE), null));
+
+        registry.update(batch -> {
+            batch.remove("alpha");
+            batch.put(server("beta", BOB), null);
+        });
+
+        assertEquals(1, first.size());
+        assertNotNull(first.get("alpha"));
+        assertNull(first.get("beta"));
+        assertEquals(Set.of("alpha"), first.byOwner().get(ALICE));
+    }
+
+    @Test
+    void emptyBatchPublishesNothing() {
+        RegistrySnapshot before = registry.update(batch -> batch.put(server("alpha", ALICE), null));
+
+        RegistrySnapshot after = registry.update(batch -> batch.remove("missing"));
+
+        assertSame(before, after);
+    }
+
+    @Test
+    void batchSeesItsOwnChanges() {
+        registry.update(batch -> {
+            batch.put(server("Alpha", ALICE), null);
+            assertNotNull(batch.get("ALPHA"));
+
+            batch.remove("alpha");
+            assertNull(batch.get("alpha"));
+        });
+
+        assertEquals(0, registry.snapshot().size());
+    }
+
+    @Test
+    void ownerIndexFollowsOwnerChangesAndRemovals() {
+        registry.update(batch -> {
+            batch.put(server("alpha", ALICE), null);
+            batch.put(server("beta", ALICE), null);
+        });
+
+        registry.update(batch -> batch.put(server("alpha", BOB), null));
+        assertEquals(Set.of("beta"), registry.snapshot().byOwner().get(ALICE));
+        assertEquals(Set.of("alpha"), registry.snapshot().byOwner().get(BOB));
+
+        registry.update(batch -> batch.remove("beta"));
+        assertFalse(registry.snapshot().byOwner().containsKey(ALICE));
+        assertEquals(List.of("alpha"), registry.snapshot().names().keys());
+    }
+
+    @Test
+    void updateIgnoresRemovedServers() {
+        registry.update(batch -> assertFalse(batch.update(server("alpha", ALICE))));
+
+        assertEquals(0, registry.snapshot().size());
+    }
+
+    @Test
+    void statusUpdateKeepsChangesMadeWhileProbing() {
+        registry.update(batch -> batch.put(server("alpha", ALICE), null));
+        ServerInfo probedCopy = registry.snapshot().get("alpha").info();
+
+        // Edited and handed to another owner while the probe was running
+        registry.update(batch -> batch.update(new ServerInfo("alpha", "localhost", 25565, BOB, "Bob")
+                .withDescription("New description")));
+
+        ServerInfo probed = probedCopy.withStatus(true, "1.21", 50, 7);
+        registry.update(batch -> assertNotNull(batch.updateStatus(probed)));
+
+        ServerInfo current = registry.snapshot().get("alpha").info();
+        assertEquals("New description", current.getDescription());
+        assertEquals(BOB, current.getOwnerUuid());
+        assertTrue(current.isOnline());
+        assertEquals("1.21", current.getVersion());
+        assertEquals(50, current.getMaxPlayers());
+        assertEquals(7, current.getOnlinePlayers());
+        assertEquals(Set.of("alpha"), registry.snapshot().byOwner().get(BOB));
+    }
+
+    @Test
+    void statusUpdateIsDroppedForMovedOrRemovedServers() {
+        registry.update(batch -> batch.put(server("alpha", ALICE), null));
+        ServerInfo probed = registry.snapshot().get("alpha").info().withStatus(true, "1.21", 50, 7);
+
+        registry.update(batch -> batch.put(new ServerInfo("alpha", "localhost", 25566, ALICE, "Alice"), null));
+        RegistrySnapshot moved = registry.update(batch -> assertNull(batch.updateStatus(probed)));
+        assertFalse(moved.get("alpha").info().isOnline());
+
+        registry.update(batch -> batch.remove("alpha"));
+        registry.update(batch -> assertNull(batch.updateStatus(probed)));
+        assertEquals(0, registry.snapshot().size());
+    }
+
+    private static ServerInfo server(String name, UUID owner) {
+        return new ServerInfo(name, "localhost", 25565, owner, owner.equals(ALICE) ? "Alice" : "Bob");
+    }
+}
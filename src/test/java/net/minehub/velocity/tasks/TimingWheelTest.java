@@ -0,0 +1,134 @@
+package net.minehub.velocity.tasks;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TimingWheelTest {
+
+    private static final long TICK_MS = 5;
+
+    private TimingWheel wheel;
+
+    @AfterEach
+    void close() {
+        wheel.close();
+    }
+
+    @Test
+    void firesAfterDelayNeverEarly() throws InterruptedException {
+        start(64, Runnable::run);
+        CountDownLatch fired = new CountDownLatch(1);
+
+        long started = System.nanoTime();
+        wheel.schedule(fired::countDown, 50, TimeUnit.MILLISECONDS);
+
+        assertTrue(fired.await(5, TimeUnit.SECONDS));
+        assertTrue(System.nanoTime() - started >= TimeUnit.MILLISECONDS.toNanos(50));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void waitsOutFullRevolutions() throws InterruptedException {
+        // 4 buckets of 5ms, so a 100ms timer passes its bucket several times first
+        start(4, Runnable::run);
+        CountDownLatch fired = new CountDownLatch(1);
+
+        long started = System.nanoTime();
+        wheel.schedule(fired::countDown, 100, TimeUnit.MILLISECONDS);
+
+        assertTrue(fired.await(5, TimeUnit.SECONDS));
+        assertTrue(System.nanoTime() - started >= TimeUnit.MILLISECONDS.toNanos(100));
+    }
+
+    @Test
+    void cancelledTimerNeverFires() throws InterruptedException {
+        start(64, Runnable::run);
+        AtomicInteger runs = new AtomicInteger();
+
+        TimingWheel.Timeout timeout = wheel.schedule(runs::incrementAndGet, 20, TimeUnit.MILLISECONDS);
+        assertEquals(1, wheel.size());
+        assertTrue(timeout.cancel());
+        assertFalse(timeout.cancel());
+        assertFalse(timeout.isScheduled());
+        assertEquals(0, wheel.size());
+
+        Thread.sleep(60);
+        assertEquals(0, runs.get());
+    }
+
+    @Test
+    void reschedulingMovesTheDeadline() throws InterruptedException {
+        start(64, Runnable::run);
+        AtomicInteger runs = new AtomicInteger();
+        CountDownLatch fired = new CountDownLatch(1);
+        TimingWheel.Timeout timeout = wheel.newTimeout(() -> {
+            runs.incrementAndGet();
+            fired.countDown();
+        });
+        assertFalse(timeout.isScheduled());
+
+        long started = System.nanoTime();
+        timeout.schedule(10, TimeUnit.MILLISECONDS);
+        timeout.schedule(80, TimeUnit.MILLISECONDS);
+        assertEquals(1, wheel.size());
+
+        assertTrue(fired.await(5, TimeUnit.SECONDS));
+        assertTrue(System.nanoTime() - started >= TimeUnit.MILLISECONDS.toNanos(80));
+        Thread.sleep(30);
+        assertEquals(1, runs.get());
+    }
+
+    @Test
+    void fixedDelayRepeatsUntilCancelledAndSurvivesFailures() throws InterruptedException {
+        start(64, Runnable::run);
+        AtomicInteger runs = new AtomicInteger();
+        CountDownLatch repeated = new CountDownLatch(3);
+
+        TimingWheel.Timeout timeout = wheel.scheduleWithFixedDelay(() -> {
+            runs.incrementAndGet();
+            repeated.countDown();
+            throw new IllegalStateException("task failure");
+        }, 0, 10, TimeUnit.MILLISECONDS);
+
+        assertTrue(repeated.await(5, TimeUnit.SECONDS));
+        timeout.cancel();
+        int afterCancel = runs.get();
+        Thread.sleep(50);
+        assertEquals(afterCancel, runs.get());
+        assertFalse(timeout.isScheduled());
+    }
+
+    @Test
+    void rejectedTimerIsRetriedNextTick() throws InterruptedException {
+        AtomicInteger rejections = new AtomicInteger();
+        start(64, task -> {
+            if (rejections.getAndIncrement() == 0) {
+                throw new RejectedExecutionException("busy");
+            }
+            task.run();
+        });
+        CountDownLatch fired = new CountDownLatch(1);
+
+        wheel.schedule(fired::countDown, 10, TimeUnit.MILLISECONDS);
+
+        assertTrue(fired.await(5, TimeUnit.SECONDS));
+        assertEquals(2, rejections.get());
+    }
+
+    private void start(int wheelSize, Executor dispatcher) {
+        wheel = new TimingWheel("test-timer", TICK_MS, TimeUnit.MILLISECONDS, wheelSize, dispatcher,
+                LoggerFactory.getLogger(TimingWheelTest.class));
+        wheel.start();
+    }
+}
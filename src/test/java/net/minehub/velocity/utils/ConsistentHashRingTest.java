@@ -0,0 +1,92 @@
+package net.minehub.velocity.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConsistentHashRingTest {
+
+    private static final int VIRTUAL_NODES = 128;
+    private static final int KEYS = 20000;
+
+    @Test
+    void emptyRingHasNoOwner() {
+        assertNull(ConsistentHashRing.empty().owner("lobby"));
+        assertTrue(ConsistentHashRing.of(List.of(), VIRTUAL_NODES).isEmpty());
+    }
+
+    @Test
+    void memberOrderAndDuplicatesDoNotMatter() {
+        ConsistentHashRing a = ConsistentHashRing.of(List.of("proxy-1", "proxy-2", "proxy-3"), VIRTUAL_NODES);
+        ConsistentHashRing b = ConsistentHashRing.of(List.of("proxy-3", "proxy-1", "proxy-2", "proxy-1"), VIRTUAL_NODES);
+
+        assertEquals(List.of("proxy-1", "proxy-2", "proxy-3"), b.members());
+        for (int i = 0; i < KEYS; i++) {
+            assertEquals(a.owner(key(i)), b.owner(key(i)));
+        }
+    }
+
+    @Test
+    void keysAreSplitRoughlyEvenly() {
+        List<String> members = List.of("proxy-1", "proxy-2", "proxy-3", "proxy-4");
+        ConsistentHashRing ring = ConsistentHashRing.of(members, VIRTUAL_NODES);
+
+        Map<String, Integer> counts = new HashMap<>();
+        for (int i = 0; i < KEYS; i++) {
+            counts.merge(ring.owner(key(i)), 1, Integer::sum);
+        }
+
+        int fair = KEYS / members.size();
+        for (String member : members) {
+            int count = counts.getOrDefault(member, 0);
+            assertTrue(Math.abs(count - fair) < fair * 0.25, member + " owns " + count + " of " + KEYS);
+        }
+    }
+
+    @Test
+    void joiningMemberOnlyTakesKeysForItself() {
+        ConsistentHashRing before = ConsistentHashRing.of(List.of("proxy-1", "proxy-2", "proxy-3"), VIRTUAL_NODES);
+        ConsistentHashRing after = ConsistentHashRing.of(List.of("proxy-1", "proxy-2", "proxy-3", "proxy-4"), VIRTUAL_NODES);
+
+        int moved = 0;
+        for (int i = 0; i < KEYS; i++) {
+            String old = before.owner(key(i));
+            String now = after.owner(key(i));
+            if (!old.equals(now)) {
+                assertEquals("proxy-4", now);
+                moved++;
+            }
+        }
+
+        // About 1/4 of the keys move to the new member
+        assertTrue(Math.abs(moved - KEYS / 4) < KEYS / 16, moved + " of " + KEYS + " keys moved");
+    }
+
+    @Test
+    void leavingMemberOnlyGivesUpItsOwnKeys() {
+        ConsistentHashRing before = ConsistentHashRing.of(List.of("proxy-1", "proxy-2", "proxy-3", "proxy-4"), VIRTUAL_NODES);
+        ConsistentHashRing after = ConsistentHashRing.of(List.of("proxy-1", "proxy-2", "proxy-4"), VIRTUAL_NODES);
+
+        int moved = 0;
+        for (int i = 0; i < KEYS; i++) {
+            String old = before.owner(key(i));
+            String now = after.owner(key(i));
+            if (!old.equals(now)) {
+                assertEquals("proxy-3", old);
+                moved++;
+            }
+        }
+
+        assertTrue(Math.abs(moved - KEYS / 4) < KEYS / 16, moved + " of " + KEYS + " keys moved");
+    }
+
+    private static String key(int i) {
+        return "server-" + i;
+    }
+}
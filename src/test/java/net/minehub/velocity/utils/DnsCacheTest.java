@@ -0,0 +1,216 @@
+package net.minehub.velocity.utils;
+
+import net.minehub.velocity.metrics.MetricsRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DnsCacheTest {
+
+    private static final int TTL = 10;
+    private static final int NEGATIVE_TTL = 2;
+    private static final int MAX_STALE = 30;
+    private static final String HOST = "play.example.com";
+
+    private final Map<String, InetAddress> records = new HashMap<>();
+    private final Queue<Runnable> queued = new ArrayDeque<>();
+    private long clock = TimeUnit.HOURS.toNanos(1);
+    private int lookups;
+
+    @Test
+    void addressIsCachedUntilTtl() throws Exception {
+        DnsCache cache = cache(Runnable::run);
+        records.put(HOST, address(1));
+
+        assertEquals(address(1), resolve(cache, HOST));
+        advance(TTL - 1);
+        assertEquals(address(1), resolve(cache, HOST));
+        assertEquals(1, lookups);
+    }
+
+    @Test
+    void expiredAddressIsServedWhileRefreshing() throws Exception {
+        DnsCache cache = cache(queued::add);
+        records.put(HOST, address(1));
+        CompletableFuture<InetAddress> first = cache.resolve(HOST);
+        runQueued();
+        assertEquals(address(1), first.get());
+
+        records.put(HOST, address(2));
+        advance(TTL);
+        CompletableFuture<InetAddress> refreshing = cache.resolve(HOST);
+
+        assertTrue(refreshing.isDone());
+        assertEquals(address(1), refreshing.get());
+        runQueued();
+        assertEquals(address(2), resolve(cache, HOST));
+        assertEquals(2, lookups);
+    }
+
+    @Test
+    void concurrentLookupsShareOneQuery() throws Exception {
+        DnsCache cache = cache(queued::add);
+        records.put(HOST, address(1));
+
+        CompletableFuture<InetAddress> first = cache.resolve(HOST);
+        CompletableFuture<InetAddress> second = cache.resolve(HOST.toUpperCase());
+
+        assertSame(first, second);
+        assertFalse(first.isDone());
+        runQueued();
+        assertEquals(address(1), first.get());
+        assertEquals(1, lookups);
+    }
+
+    @Test
+    void failedLookupIsCachedForNegativeTtl() throws Exception {
+        DnsCache cache = cache(Runnable::run);
+
+        assertNull(resolve(cache, HOST));
+        advance(NEGATIVE_TTL - 1);
+        assertNull(resolve(cache, HOST));
+        assertEquals(1, lookups);
+
+        // Once the negative entry expires the next request waits for a fresh lookup
+        records.put(HOST, address(1));
+        advance(1);
+        assertEquals(address(1), resolve(cache, HOST));
+        assertEquals(2, lookups);
+    }
+
+    @Test
+    void staleAddressIsServedUntilMaxStaleAfterTheFirstFailure() throws Exception {
+        DnsCache cache = cache(Runnable::run);
+        records.put(HOST, address(1));
+        assertEquals(address(1), resolve(cache, HOST));
+
+        // First failed refresh at TTL; later failures don't restart the stale window
+        records.remove(HOST);
+        advance(TTL);
+        assertEquals(address(1), resolve(cache, HOST));
+        for (int elapsed = NEGATIVE_TTL; elapsed < MAX_STALE; elapsed += NEGATIVE_TTL) {
+            advance(NEGATIVE_TTL);
+            assertEquals(address(1), resolve(cache, HOST), elapsed + "s after the first failure");
+        }
+        int failedLookups = lookups;
+
+        advance(MAX_STALE - (MAX_STALE / NEGATIVE_TTL - 1) * NEGATIVE_TTL);
+        assertNull(resolve(cache, HOST));
+        assertNull(resolve(cache, HOST));
+        assertEquals(failedLookups + 1, lookups);
+    }
+
+    @Test
+    void hostThatResolvesAgainStartsAFreshStaleWindow() throws Exception {
+        DnsCache cache = cache(Runnable::run);
+        records.put(HOST, address(1));
+        resolve(cache, HOST);
+
+        records.remove(HOST);
+        advance(TTL);
+        resolve(cache, HOST);
+
+        records.put(HOST, address(2));
+        advance(NEGATIVE_TTL);
+        resolve(cache, HOST);
+        assertEquals(address(2), resolve(cache, HOST));
+
+        // A new outage is measured from its own first failure
+        records.remove(HOST);
+        advance(TTL);
+        resolve(cache, HOST);
+        advance(MAX_STALE - 1);
+        assertEquals(address(2), resolve(cache, HOST));
+    }
+
+    @Test
+    void ipLiteralsAreParsedWithoutALookup() throws Exception {
+        DnsCache cache = cache(Runnable::run);
+
+        assertEquals(InetAddress.getByName("10.0.0.1"), resolve(cache, "10.0.0.1"));
+        assertEquals(InetAddress.getByName("::1"), resolve(cache, "[::1]"));
+        assertEquals(0, lookups);
+
+        // "123" is a valid hostname for the resolver, not a packed IPv4 address
+        records.put("123", address(1));
+        assertEquals(address(1), resolve(cache, "123"));
+        assertEquals(1, lookups);
+    }
+
+    @Test
+    void onlyRealIpFormsAreLiterals() {
+        assertTrue(DnsCache.isIpLiteral("127.0.0.1"));
+        assertTrue(DnsCache.isIpLiteral("255.255.255.255"));
+        assertTrue(DnsCache.isIpLiteral("0.0.0.0"));
+        assertTrue(DnsCache.isIpLiteral("::"));
+        assertTrue(DnsCache.isIpLiteral("::1"));
+        assertTrue(DnsCache.isIpLiteral("2001:db8::ff00:42:8329"));
+        assertTrue(DnsCache.isIpLiteral("2001:0db8:0000:0000:0000:ff00:0042:8329"));
+        assertTrue(DnsCache.isIpLiteral("[2001:db8::1]"));
+        assertTrue(DnsCache.isIpLiteral("::ffff:192.0.2.128"));
+        assertTrue(DnsCache.isIpLiteral("fe80::1%eth0"));
+
+        assertFalse(DnsCache.isIpLiteral(""));
+        assertFalse(DnsCache.isIpLiteral("123"));
+        assertFalse(DnsCache.isIpLiteral("10.1"));
+        assertFalse(DnsCache.isIpLiteral("1.2.3"));
+        assertFalse(DnsCache.isIpLiteral("1.2.3.4.5"));
+        assertFalse(DnsCache.isIpLiteral("1.2.3.4."));
+        assertFalse(DnsCache.isIpLiteral("1..3.4"));
+        assertFalse(DnsCache.isIpLiteral("256.0.0.1"));
+        assertFalse(DnsCache.isIpLiteral("1234.0.0.1"));
+        assertFalse(DnsCache.isIpLiteral("play.example.com"));
+        assertFalse(DnsCache.isIpLiteral("a:b"));
+        assertFalse(DnsCache.isIpLiteral("host:25565"));
+        assertFalse(DnsCache.isIpLiteral("1:2:3:4:5:6:7:8:9"));
+    }
+
+    private DnsCache cache(Executor executor) {
+        return new DnsCache(executor, this::lookup, () -> clock, () -> TTL, () -> NEGATIVE_TTL, () -> MAX_STALE,
+                new MetricsRegistry());
+    }
+
+    private InetAddress lookup(String host) throws UnknownHostException {
+        lookups++;
+        InetAddress address = records.get(host);
+        if (address == null) {
+            throw new UnknownHostException(host);
+        }
+        return address;
+    }
+
+    private static InetAddress resolve(DnsCache cache, String host) throws Exception {
+        CompletableFuture<InetAddress> future = cache.resolve(host);
+        assertTrue(future.isDone());
+        return future.get();
+    }
+
+    private void runQueued() {
+        Runnable task;
+        while ((task = queued.poll()) != null) {
+            task.run();
+        }
+    }
+
+    private void advance(int seconds) {
+        clock += TimeUnit.SECONDS.toNanos(seconds);
+    }
+
+    private static InetAddress address(int last) throws UnknownHostException {
+        return InetAddress.getByAddress(new byte[] {10, 0, 0, (byte) last});
+    }
+}
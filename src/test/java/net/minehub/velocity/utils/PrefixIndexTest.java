@@ -0,0 +1,119 @@
+package net.minehub.velocity.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class PrefixIndexTest {
+
+    @Test
+    void completesCaseInsensitivelyInAlphabeticalOrder() {
+        PrefixIndex index = PrefixIndex.of(List.of("SkyBlock", "survival", "Skywars", "lobby"));
+
+        assertEquals(List.of("SkyBlock", "Skywars"), index.complete("sky", 10));
+        assertEquals(List.of("SkyBlock", "Skywars", "survival"), index.complete("S", 10));
+        assertEquals(List.of("lobby", "SkyBlock", "Skywars", "survival"), index.complete("", 10));
+        assertEquals(List.of(), index.complete("x", 10));
+    }
+
+    @Test
+    void completionStopsAtLimit() {
+        PrefixIndex index = PrefixIndex.of(List.of("a1", "a2", "a3", "b1"));
+
+        assertEquals(List.of("a1", "a2"), index.complete("a", 2));
+    }
+
+    @Test
+    void withReplacesNameDifferingOnlyInCase() {
+        PrefixIndex index = PrefixIndex.of(List.of("alpha", "beta"));
+
+        PrefixIndex renamed = index.with("ALPHA");
+
+        assertEquals(2, renamed.size());
+        assertEquals(List.of("ALPHA"), renamed.complete("al", 10));
+        assertEquals(List.of("alpha"), index.complete("al", 10));
+        assertSame(renamed, renamed.with("ALPHA"));
+    }
+
+    @Test
+    void withAllMergesAndLaterDuplicatesWin() {
+        PrefixIndex index = PrefixIndex.of(List.of("beta", "delta"));
+
+        PrefixIndex merged = index.withAll(List.of("gamma", "alpha", "Gamma", "DELTA"));
+
+        assertEquals(List.of("alpha", "beta", "delta", "gamma"), merged.keys());
+        assertEquals(List.of("alpha", "beta", "DELTA", "Gamma"), merged.complete("", 10));
+    }
+
+    @Test
+    void withoutRemovesIgnoringCase() {
+        PrefixIndex index = PrefixIndex.of(List.of("alpha", "beta", "gamma", "delta"));
+
+        assertEquals(List.of("alpha", "delta", "gamma"), index.without("BETA").keys());
+        assertEquals(List.of("beta", "delta"), index.withoutAll(List.of("Alpha", "GAMMA", "missing")).keys());
+        assertSame(index, index.without("missing"));
+        assertSame(index, index.withoutAll(List.of("missing", "other")));
+    }
+
+    @Test
+    void filtersArbitraryCandidates() {
+        assertEquals(List.of("Alpha", "apple"), PrefixIndex.complete(Set.of("apple", "Alpha", "beta"), "A", 10));
+        assertEquals(List.of("Alpha"), PrefixIndex.complete(Set.of("apple", "Alpha", "beta"), "a", 1));
+    }
+
+    @Test
+    void matchesSortedMapUnderRandomUpdates() {
+        Random random = new Random(42);
+        PrefixIndex index = PrefixIndex.empty();
+        TreeMap<String, String> expected = new TreeMap<>();
+
+        for (int round = 0; round < 2000; round++) {
+            List<String> batch = new ArrayList<>();
+            for (int i = random.nextInt(4); i >= 0; i--) {
+                batch.add(randomName(random));
+            }
+
+            switch (random.nextInt(4)) {
+                case 0 -> {
+                    index = index.with(batch.get(0));
+                    expected.put(batch.get(0).toLowerCase(Locale.ROOT), batch.get(0));
+                }
+                case 1 -> {
+                    index = index.withAll(batch);
+                    batch.forEach(name -> expected.put(name.toLowerCase(Locale.ROOT), name));
+                }
+                case 2 -> {
+                    index = index.without(batch.get(0));
+                    expected.remove(batch.get(0).toLowerCase(Locale.ROOT));
+                }
+                default -> {
+                    index = index.withoutAll(batch);
+                    batch.forEach(name -> expected.remove(name.toLowerCase(Locale.ROOT)));
+                }
+            }
+
+            assertEquals(new ArrayList<>(expected.keySet()), index.keys());
+            String prefix = randomName(random).substring(0, 1);
+            List<String> matches = expected.subMap(prefix.toLowerCase(Locale.ROOT), prefix.toLowerCase(Locale.ROOT) + Character.MAX_VALUE)
+                    .values().stream().limit(5).toList();
+            assertEquals(matches, index.complete(prefix, 5));
+        }
+    }
+
+    private static String randomName(Random random) {
+        char[] name = new char[1 + random.nextInt(3)];
+        for (int i = 0; i < name.length; i++) {
+            char c = (char) ('a' + random.nextInt(4));
+            name[i] = random.nextBoolean() ? Character.toUpperCase(c) : c;
+        }
+        return new String(name);
+    }
+}
@@ -0,0 +1,195 @@
+package net.minehub.velocity.utils;
+
+import net.minehub.velocity.metrics.MetricsRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ProbeCacheTest {
+
+    private static final String HOST = "127.0.0.1";
+    private static final int TIMEOUT_MS = 200;
+
+    private final List<SilentServer> servers = new ArrayList<>();
+    private DnsCache dnsCache;
+
+    @BeforeEach
+    void installEngine() throws IOException {
+        ServerPingUtil.setEngine(new ProbeEngine(64, 2, null, () -> 5000));
+        dnsCache = new DnsCache(Runnable::run, () -> 300, () -> 30, () -> 600, new MetricsRegistry());
+    }
+
+    @AfterEach
+    void shutdown() throws IOException {
+        ServerPingUtil.shutdown();
+        for (SilentServer server : servers) {
+            server.close();
+        }
+    }
+
+    @Test
+    void concurrentRequestsShareOneProbe() throws Exception {
+        SilentServer server = server();
+        ProbeCache cache = cache(60000, 16, 8, 5000);
+
+        CompletableFuture<ProbeResult> first = cache.queryStatus(HOST, server.port(), TIMEOUT_MS);
+        CompletableFuture<ProbeResult> second = cache.queryStatus(HOST, server.port(), TIMEOUT_MS);
+        // A running status query also answers a plain reachability probe
+        CompletableFuture<ProbeResult> plain = cache.probe(HOST, server.port(), TIMEOUT_MS);
+
+        assertSame(first, second);
+        assertSame(first, plain);
+        assertTrue(first.get(5, TimeUnit.SECONDS).reachable());
+        assertEquals(1, server.accepted());
+    }
+
+    @Test
+    void resultIsReusedWithinTtl() throws Exception {
+        SilentServer server = server();
+        ProbeCache cache = cache(60000, 16, 8, 5000);
+
+        cache.queryStatus(HOST, server.port(), TIMEOUT_MS).get(5, TimeUnit.SECONDS);
+        CompletableFuture<ProbeResult> again = cache.queryStatus(HOST, server.port(), TIMEOUT_MS);
+
+        assertTrue(again.isDone());
+        assertTrue(again.get().reachable());
+        assertEquals(1, server.accepted());
+    }
+
+    @Test
+    void expiredResultIsProbedAgain() throws Exception {
+        SilentServer server = server();
+        ProbeCache cache = cache(0, 16, 8, 5000);
+
+        cache.queryStatus(HOST, server.port(), TIMEOUT_MS).get(5, TimeUnit.SECONDS);
+        cache.queryStatus(HOST, server.port(), TIMEOUT_MS).get(5, TimeUnit.SECONDS);
+
+        assertEquals(2, server.accepted());
+    }
+
+    @Test
+    void leastRecentlyUsedResultIsEvicted() throws Exception {
+        SilentServer a = server();
+        SilentServer b = server();
+        SilentServer c = server();
+        ProbeCache cache = cache(60000, 2, 8, 5000);
+
+        cache.queryStatus(HOST, a.port(), TIMEOUT_MS).get(5, TimeUnit.SECONDS);
+        cache.queryStatus(HOST, b.port(), TIMEOUT_MS).get(5, TimeUnit.SECONDS);
+        // Touch a, so b is now the least recently used
+        assertTrue(cache.queryStatus(HOST, a.port(), TIMEOUT_MS).isDone());
+        cache.queryStatus(HOST, c.port(), TIMEOUT_MS).get(5, TimeUnit.SECONDS);
+
+        assertTrue(cache.queryStatus(HOST, a.port(), TIMEOUT_MS).isDone());
+        assertTrue(cache.queryStatus(HOST, c.port(), TIMEOUT_MS).isDone());
+        cache.queryStatus(HOST, b.port(), TIMEOUT_MS).get(5, TimeUnit.SECONDS);
+        assertEquals(1, a.accepted());
+        assertEquals(2, b.accepted());
+        assertEquals(1, c.accepted());
+    }
+
+    @Test
+    void probesOfOneIpRunOneAtATimeInArrivalOrder() throws Exception {
+        List<SilentServer> sameIp = List.of(server(), server(), server());
+        ProbeCache cache = cache(60000, 16, 1, 5000);
+        List<Integer> completed = Collections.synchronizedList(new ArrayList<>());
+
+        long start = System.nanoTime();
+        List<CompletableFuture<?>> futures = new ArrayList<>();
+        for (int i = 0; i < sameIp.size(); i++) {
+            int index = i;
+            futures.add(cache.queryStatus(HOST, sameIp.get(i).port(), TIMEOUT_MS).thenRun(() -> completed.add(index)));
+        }
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).get(5, TimeUnit.SECONDS);
+
+        assertEquals(List.of(0, 1, 2), completed);
+        // Each probe holds the only slot until its status request times out
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(3 * TIMEOUT_MS));
+    }
+
+    @Test
+    void requestWaitingTooLongIsThrottledAndNotCached() throws Exception {
+        SilentServer busy = server();
+        SilentServer queued = server();
+        ProbeCache cache = cache(60000, 16, 1, 100);
+
+        CompletableFuture<ProbeResult> running = cache.queryStatus(HOST, busy.port(), 1000);
+        ProbeResult throttled = cache.queryStatus(HOST, queued.port(), TIMEOUT_MS).get(5, TimeUnit.SECONDS);
+
+        assertTrue(throttled.throttled());
+        assertFalse(throttled.reachable());
+        assertEquals(0, queued.accepted());
+
+        CompletableFuture<ProbeResult> retry = cache.queryStatus(HOST, queued.port(), TIMEOUT_MS);
+        assertFalse(retry.isDone());
+        assertTrue(running.get(5, TimeUnit.SECONDS).reachable());
+    }
+
+    private ProbeCache cache(int ttlMs, int maxEntries, int maxPerHost, int maxQueueWaitMs) {
+        return new ProbeCache(dnsCache, Runnable::run, () -> ttlMs, () -> maxEntries, () -> maxPerHost,
+                () -> maxQueueWaitMs, new MetricsRegistry());
+    }
+
+    private SilentServer server() throws IOException {
+        SilentServer server = new SilentServer();
+        servers.add(server);
+        return server;
+    }
+
+    /**
+     * Accepts connections and never answers, so every status query runs to its timeout
+     */
+    private static final class SilentServer implements AutoCloseable {
+        private final ServerSocket socket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        private final List<Socket> clients = Collections.synchronizedList(new ArrayList<>());
+        private final AtomicInteger accepted = new AtomicInteger();
+
+        SilentServer() throws IOException {
+            Thread acceptor = new Thread(() -> {
+                while (!socket.isClosed()) {
+                    try {
+                        clients.add(socket.accept());
+                        accepted.incrementAndGet();
+                    } catch (IOException e) {
+                        return;
+                    }
+                }
+            }, "silent-server");
+            acceptor.setDaemon(true);
+            acceptor.start();
+        }
+
+        int port() {
+            return socket.getLocalPort();
+        }
+
+        int accepted() {
+            return accepted.get();
+        }
+
+        @Override
+        public void close() throws IOException {
+            socket.close();
+            for (Socket client : clients) {
+                client.close();
+            }
+        }
+    }
+}
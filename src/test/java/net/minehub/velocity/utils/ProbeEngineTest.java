@@ -0,0 +1,74 @@
+package net.minehub.velocity.utils;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ProbeEngineTest {
+
+    // Accepts connections but never answers the status request
+    private ServerSocket silent;
+    private InetSocketAddress address;
+    private ProbeEngine engine;
+
+    @BeforeEach
+    void listen() throws IOException {
+        silent = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        address = new InetSocketAddress(InetAddress.getLoopbackAddress(), silent.getLocalPort());
+    }
+
+    @AfterEach
+    void close() throws IOException {
+        engine.close();
+        silent.close();
+    }
+
+    @Test
+    void timeoutStartsWhenTheProbeGetsItsSlot() throws Exception {
+        engine = new ProbeEngine(1, 1, null, () -> 5000);
+
+        long start = System.nanoTime();
+        CompletableFuture<ProbeResult> first = engine.queryStatus(address, 300);
+        CompletableFuture<ProbeResult> second = engine.queryStatus(address, 300);
+
+        // The second probe waited ~300ms for the slot and still got its own 300ms
+        ProbeResult result = second.get(5, TimeUnit.SECONDS);
+        assertTrue(first.get().reachable());
+        assertTrue(result.reachable());
+        assertFalse(result.throttled());
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(600));
+    }
+
+    @Test
+    void probeWaitingTooLongForASlotIsThrottledNotUnreachable() throws Exception {
+        engine = new ProbeEngine(1, 1, null, () -> 200);
+
+        CompletableFuture<ProbeResult> first = engine.queryStatus(address, 1000);
+        long start = System.nanoTime();
+        ProbeResult queued = engine.queryStatus(address, 1000).get(5, TimeUnit.SECONDS);
+
+        assertTrue(queued.throttled());
+        assertFalse(queued.reachable());
+        assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(900));
+        assertTrue(first.get(5, TimeUnit.SECONDS).reachable());
+    }
+
+    @Test
+    void probesAfterCloseAreNotStarted() throws Exception {
+        engine = new ProbeEngine(1, 1, null, () -> 5000);
+        engine.close();
+
+        assertEquals(ProbeResult.notStarted(), engine.probe(address, 100).get(5, TimeUnit.SECONDS));
+    }
+}
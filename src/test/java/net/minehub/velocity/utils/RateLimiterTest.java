@@ -0,0 +1,124 @@
+package net.minehub.velocity.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RateLimiterTest {
+
+    private static final long MINUTE = TimeUnit.MINUTES.toNanos(1);
+
+    private final RateLimiter<String> limiter = new RateLimiter<>();
+
+    @Test
+    void allowsBurstThenReportsWait() {
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limiter.tryAcquire("alice", 6, 3));
+        }
+
+        long wait = limiter.tryAcquire("alice", 6, 3);
+        // One token every 10 seconds
+        assertTrue(wait > 0 && wait <= MINUTE / 6, "wait " + wait);
+    }
+
+    @Test
+    void keysHaveSeparateBuckets() {
+        assertEquals(0, limiter.tryAcquire("alice", 1, 1));
+        assertTrue(limiter.tryAcquire("alice", 1, 1) > 0);
+
+        assertEquals(0, limiter.tryAcquire("bob", 1, 1));
+        assertEquals(2, limiter.size());
+    }
+
+    @Test
+    void refundedTokenCanBeTakenAgain() {
+        assertEquals(0, limiter.tryAcquire("alice", 1, 2));
+        assertEquals(0, limiter.tryAcquire("alice", 1, 2));
+        assertTrue(limiter.tryAcquire("alice", 1, 2) > 0);
+
+        limiter.refund("alice", 1);
+
+        assertEquals(0, limiter.tryAcquire("alice", 1, 2));
+        assertTrue(limiter.tryAcquire("alice", 1, 2) > 0);
+    }
+
+    @Test
+    void refundNeverGrowsTheBucketPastItsBurst() {
+        assertEquals(0, limiter.tryAcquire("alice", 1, 1));
+        limiter.refund("alice", 1);
+        limiter.refund("alice", 1);
+        limiter.refund("bob", 1);
+
+        assertEquals(0, limiter.tryAcquire("alice", 1, 1));
+        assertTrue(limiter.tryAcquire("alice", 1, 1) > 0);
+        assertEquals(1, limiter.size());
+    }
+
+    @Test
+    void refillsAtTheSustainedRate() throws InterruptedException {
+        // One token per millisecond
+        int perMinute = 60_000;
+        assertEquals(0, limiter.tryAcquire("alice", perMinute, 1));
+        long wait = limiter.tryAcquire("alice", perMinute, 1);
+        assertTrue(wait > 0);
+
+        Thread.sleep(TimeUnit.NANOSECONDS.toMillis(wait) + 5);
+        assertEquals(0, limiter.tryAcquire("alice", perMinute, 1));
+    }
+
+    @Test
+    void idleBucketsAreSwept() throws InterruptedException {
+        // Buckets refill within a microsecond, so they are idle almost at once
+        int perMinute = 60_000_000;
+        for (int i = 0; i < 100; i++) {
+            limiter.tryAcquire("player" + i, perMinute, 1);
+        }
+        assertEquals(100, limiter.size());
+
+        Thread.sleep(5);
+        for (int i = 0; i < 1024; i++) {
+            limiter.tryAcquire("active", perMinute, 1);
+        }
+
+        assertTrue(limiter.size() <= 1, "size " + limiter.size());
+    }
+
+    @Test
+    void concurrentCallersNeverExceedTheBurst() throws InterruptedException {
+        int threads = 8;
+        int burst = 50;
+        AtomicInteger granted = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>();
+
+        for (int t = 0; t < threads; t++) {
+            Thread worker = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < 1000; i++) {
+                    if (limiter.tryAcquire("alice", 1, burst) == 0) {
+                        granted.incrementAndGet();
+                    }
+                }
+            });
+            worker.start();
+            workers.add(worker);
+        }
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        assertEquals(burst, granted.get());
+    }
+}
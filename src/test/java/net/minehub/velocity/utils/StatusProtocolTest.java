@@ -0,0 +1,109 @@
+package net.minehub.velocity.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class StatusProtocolTest {
+
+    @Test
+    void writesHandshakeThenStatusRequest() {
+        ByteBuffer buffer = ByteBuffer.allocate(64);
+        StatusProtocol.writeStatusRequest(buffer, "mc.example", 25565);
+        buffer.flip();
+
+        int handshakeLength = VarInts.read(buffer);
+        int handshakeEnd = buffer.position() + handshakeLength;
+        assertEquals(0x00, VarInts.read(buffer));
+        assertEquals(-1, VarInts.read(buffer));
+        int hostLength = VarInts.read(buffer);
+        byte[] host = new byte[hostLength];
+        buffer.get(host);
+        assertEquals("mc.example", new String(host, StandardCharsets.UTF_8));
+        assertEquals(25565, buffer.getShort() & 0xffff);
+        assertEquals(1, VarInts.read(buffer));
+        assertEquals(handshakeEnd, buffer.position());
+
+        // Status request: length 1, packet id 0
+        assertEquals(1, VarInts.read(buffer));
+        assertEquals(0x00, VarInts.read(buffer));
+        assertEquals(0, buffer.remaining());
+    }
+
+    @Test
+    void frameSizeWaitsForTheLengthPrefix() throws IOException {
+        ByteBuffer frame = frame("{}");
+        int total = frame.remaining();
+
+        assertEquals(total, StatusProtocol.frameSize(frame));
+        assertEquals(0, frame.position());
+
+        ByteBuffer partial = ByteBuffer.wrap(new byte[] {(byte) 0x80});
+        assertEquals(-1, StatusProtocol.frameSize(partial));
+    }
+
+    @Test
+    void frameSizeRejectsBadLengths() {
+        ByteBuffer zero = ByteBuffer.wrap(new byte[] {0x00});
+        assertThrows(IOException.class, () -> StatusProtocol.frameSize(zero));
+
+        ByteBuffer tooLarge = ByteBuffer.allocate(5);
+        VarInts.write(tooLarge, StatusProtocol.MAX_FRAME_LENGTH + 1);
+        tooLarge.flip();
+        assertThrows(IOException.class, () -> StatusProtocol.frameSize(tooLarge));
+    }
+
+    @Test
+    void parsesStatusAndSkipsOtherFields() throws IOException {
+        String json = """
+            {"description":{"text":"A server"},"favicon":"data:image/png;base64,AAAA",
+             "players":{"max":100,"online":12,"sample":[{"name":"a","id":"x"}]},
+             "version":{"name":"Paper 1.21","protocol":767}}""";
+
+        ServerStatus status = StatusProtocol.readStatusResponse(frame(json));
+
+        assertEquals(new ServerStatus("Paper 1.21", 767, 12, 100), status);
+    }
+
+    @Test
+    void missingFieldsFallBackToDefaults() throws IOException {
+        ServerStatus status = StatusProtocol.readStatusResponse(frame("{\"description\":\"hi\"}"));
+
+        assertEquals(new ServerStatus("Unknown", -1, 0, 0), status);
+    }
+
+    @Test
+    void rejectsWrongPacketAndTruncatedJson() {
+        ByteBuffer wrongPacket = ByteBuffer.allocate(16);
+        VarInts.write(wrongPacket, 3);
+        VarInts.write(wrongPacket, 0x01);
+        VarInts.write(wrongPacket, 1);
+        wrongPacket.put((byte) '{');
+        wrongPacket.flip();
+        assertThrows(IOException.class, () -> StatusProtocol.readStatusResponse(wrongPacket));
+
+        ByteBuffer truncated = ByteBuffer.allocate(16);
+        VarInts.write(truncated, 3);
+        VarInts.write(truncated, 0x00);
+        VarInts.write(truncated, 10);
+        truncated.put((byte) '{');
+        truncated.flip();
+        assertThrows(IOException.class, () -> StatusProtocol.readStatusResponse(truncated));
+    }
+
+    private static ByteBuffer frame(String json) {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        int length = VarInts.size(0x00) + VarInts.size(bytes.length) + bytes.length;
+        ByteBuffer buffer = ByteBuffer.allocate(VarInts.size(length) + length);
+        VarInts.write(buffer, length);
+        VarInts.write(buffer, 0x00);
+        VarInts.write(buffer, bytes.length);
+        buffer.put(bytes);
+        return buffer.flip();
+    }
+}
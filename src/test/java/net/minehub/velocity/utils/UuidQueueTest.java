@@ -0,0 +1,134 @@
+package net.minehub.velocity.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UuidQueueTest {
+
+    @Test
+    void pollsInArrivalOrder() {
+        UuidQueue queue = new UuidQueue();
+        assertNull(queue.poll());
+
+        queue.add(player(1));
+        queue.add(player(2));
+        queue.add(player(3));
+
+        assertEquals(3, queue.size());
+        assertEquals(player(1), queue.poll());
+        assertEquals(player(2), queue.poll());
+        assertEquals(player(3), queue.poll());
+        assertNull(queue.poll());
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    void removingFromTheMiddleKeepsOthersInOrder() {
+        UuidQueue queue = new UuidQueue();
+        for (int i = 1; i <= 5; i++) {
+            queue.add(player(i));
+        }
+
+        assertTrue(queue.remove(player(3)));
+        assertFalse(queue.remove(player(3)));
+        assertFalse(queue.remove(player(9)));
+
+        assertEquals(4, queue.size());
+        assertEquals(3, queue.positionOf(player(4)));
+        assertEquals(-1, queue.positionOf(player(3)));
+
+        List<UUID> order = new ArrayList<>();
+        List<Integer> positions = new ArrayList<>();
+        queue.forEach((uuid, position) -> {
+            order.add(uuid);
+            positions.add(position);
+        });
+        assertEquals(List.of(player(1), player(2), player(4), player(5)), order);
+        assertEquals(List.of(1, 2, 3, 4), positions);
+
+        assertEquals(player(1), queue.poll());
+        assertEquals(player(2), queue.poll());
+        assertEquals(player(4), queue.poll());
+    }
+
+    @Test
+    void growsPastInitialCapacityWhileWrapped() {
+        UuidQueue queue = new UuidQueue();
+        for (int i = 1; i <= 10; i++) {
+            queue.add(player(i));
+        }
+        for (int i = 1; i <= 8; i++) {
+            queue.poll();
+        }
+        // Tail wraps around the 16-slot ring before it has to grow
+        for (int i = 11; i <= 100; i++) {
+            queue.add(player(i));
+        }
+
+        assertEquals(92, queue.size());
+        assertEquals(1, queue.positionOf(player(9)));
+        for (int i = 9; i <= 100; i++) {
+            assertEquals(player(i), queue.poll());
+        }
+        assertNull(queue.poll());
+    }
+
+    @Test
+    void holesAreCompactedAway() {
+        UuidQueue queue = new UuidQueue();
+        for (int round = 0; round < 1000; round++) {
+            queue.add(player(round * 2 + 1));
+            queue.add(player(round * 2 + 2));
+            queue.remove(player(round * 2 + 2));
+        }
+
+        assertEquals(1000, queue.size());
+        assertEquals(1000, queue.positionOf(player(1999)));
+        for (int round = 0; round < 1000; round++) {
+            assertEquals(player(round * 2 + 1), queue.poll());
+        }
+    }
+
+    @Test
+    void matchesListUnderRandomOperations() {
+        Random random = new Random(7);
+        UuidQueue queue = new UuidQueue();
+        LinkedList<UUID> expected = new LinkedList<>();
+
+        for (int step = 0; step < 20_000; step++) {
+            UUID uuid = player(1 + random.nextInt(200));
+            switch (random.nextInt(4)) {
+                case 0, 1 -> {
+                    if (!expected.contains(uuid)) {
+                        queue.add(uuid);
+                        expected.add(uuid);
+                    }
+                }
+                case 2 -> assertEquals(expected.remove(uuid), queue.remove(uuid));
+                default -> assertEquals(expected.poll(), queue.poll());
+            }
+
+            assertEquals(expected.size(), queue.size());
+            int index = expected.indexOf(uuid);
+            assertEquals(index < 0 ? -1 : index + 1, queue.positionOf(uuid));
+        }
+
+        List<UUID> remaining = new ArrayList<>();
+        queue.forEach((uuid, position) -> remaining.add(uuid));
+        assertEquals(expected, remaining);
+    }
+
+    private static UUID player(int id) {
+        return new UUID(0x1234L, id);
+    }
+}
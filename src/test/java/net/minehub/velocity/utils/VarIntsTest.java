@@ -0,0 +1,59 @@
+package net.minehub.velocity.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class VarIntsTest {
+
+    private static final int[] VALUES = {0, 1, 127, 128, 255, 2097151, 2097152, Integer.MAX_VALUE, -1, Integer.MIN_VALUE};
+
+    @Test
+    void roundTripsAndSizeMatchesEncoding() {
+        for (int value : VALUES) {
+            ByteBuffer buffer = ByteBuffer.allocate(5);
+            VarInts.write(buffer, value);
+            assertEquals(VarInts.size(value), buffer.position(), "size of " + value);
+
+            buffer.flip();
+            assertEquals(value, VarInts.read(buffer));
+            assertEquals(0, buffer.remaining());
+        }
+    }
+
+    @Test
+    void encodesKnownValues() {
+        assertArrayEquals(new byte[] {0x00}, encode(0));
+        assertArrayEquals(new byte[] {(byte) 0x80, 0x01}, encode(128));
+        assertArrayEquals(new byte[] {(byte) 0xff, (byte) 0xff, 0x7f}, encode(2097151));
+        assertArrayEquals(new byte[] {(byte) 0xff, (byte) 0xff, (byte) 0xff, (byte) 0xff, 0x0f}, encode(-1));
+    }
+
+    @Test
+    void incompleteValueLeavesPositionUntouched() {
+        ByteBuffer buffer = ByteBuffer.wrap(new byte[] {0x05, (byte) 0x80, (byte) 0x80});
+        buffer.position(1);
+
+        assertEquals(VarInts.INCOMPLETE, VarInts.read(buffer));
+        assertEquals(1, buffer.position());
+    }
+
+    @Test
+    void rejectsValuesLongerThanFiveBytes() {
+        ByteBuffer buffer = ByteBuffer.wrap(new byte[] {(byte) 0x80, (byte) 0x80, (byte) 0x80, (byte) 0x80, (byte) 0x80, 0x01});
+
+        assertThrows(IllegalStateException.class, () -> VarInts.read(buffer));
+    }
+
+    private static byte[] encode(int value) {
+        ByteBuffer buffer = ByteBuffer.allocate(5);
+        VarInts.write(buffer, value);
+        byte[] bytes = new byte[buffer.position()];
+        buffer.flip().get(bytes);
+        return bytes;
+    }
+}